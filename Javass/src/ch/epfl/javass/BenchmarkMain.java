@@ -0,0 +1,404 @@
+package ch.epfl.javass;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+import ch.epfl.javass.bits.BitLayout.Field32;
+import ch.epfl.javass.jass.Card;
+import ch.epfl.javass.jass.DealSampler;
+import ch.epfl.javass.jass.Jass;
+import ch.epfl.javass.jass.PackedCard;
+import ch.epfl.javass.jass.PackedCardSet;
+import ch.epfl.javass.jass.PackedTrick;
+import ch.epfl.javass.jass.PlayerId;
+
+/**
+ * Measures the time the hot methods of the rules of the game take per call,
+ * next to the time of the straightforward implementations they replaced, so
+ * that the gains of their optimizations can be reproduced. Each measure is
+ * repeated after a warm-up and the shortest time is displayed, with a checksum
+ * of the results which prevents the calls from being optimized away
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class BenchmarkMain {
+	private static final int MIN_ARGS = 1, MAX_ARGS = 2;
+	private static final String CARD_BENCHMARK = "card", PLAYABLE_BENCHMARK = "playable",
+			SAMPLER_BENCHMARK = "sampler", LAYOUT_BENCHMARK = "layout";
+	private static final int WARMUP_ROUNDS = 5, DEFAULT_ROUNDS = 10;
+
+	// The number of times a round goes through its inputs
+	private static final int PASSES = 200;
+
+	// The number of random tricks and hands of the benchmark of playable cards
+	private static final int TRICKS = 4096;
+
+	// The number of random positions of the benchmark of the deal sampler
+	private static final int SAMPLERS = 64;
+
+	// The number of random bit vectors of the benchmark of the fields
+	private static final int VECTORS = 4096;
+
+	// The layout of a packed trick, declared with fields and with constants
+	private static final Field32 CARD_0 = Field32.of(0, 6), CARD_1 = CARD_0.next(6), CARD_2 = CARD_1.next(6),
+			CARD_3 = CARD_2.next(6), INDEX = CARD_3.next(4), FIRST_PLAYER = INDEX.next(2), TRUMP = FIRST_PLAYER.next(2);
+	private static final int CARD_MASK = 0x3F, INDEX_SHIFT = 24, INDEX_MASK = 0xF, FIRST_PLAYER_SHIFT = 28,
+			PLAYER_MASK = 0x3, TRUMP_SHIFT = 30;
+
+	// The points of the ranks of the cards, trump or not, in the order of the
+	// ranks
+	private static final int[] POINTS = { 0, 0, 0, 0, 10, 2, 3, 4, 11 };
+	private static final int[] TRUMP_POINTS = { 0, 0, 0, 14, 10, 20, 3, 4, 11 };
+
+	private BenchmarkMain() {
+	}
+
+	/**
+	 * Launches the benchmark
+	 *
+	 * @param args : the name of the benchmark, then optionally the number of
+	 *             measured rounds
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			invalidNumberOfArguments();
+		}
+
+		int rounds = DEFAULT_ROUNDS;
+		try {
+			if (args.length > 1) {
+				rounds = Integer.parseInt(args[1]);
+			}
+		} catch (NumberFormatException e) {
+			error("Argument numérique invalide");
+		}
+		if (rounds < 1) {
+			error("Le nombre de mesures doit être au moins 1");
+		}
+
+		switch (args[0]) {
+		case CARD_BENCHMARK:
+			benchmarkCards(rounds);
+			break;
+		case PLAYABLE_BENCHMARK:
+			benchmarkPlayableCards(rounds);
+			break;
+		case SAMPLER_BENCHMARK:
+			benchmarkSampler(rounds);
+			break;
+		case LAYOUT_BENCHMARK:
+			benchmarkLayout(rounds);
+			break;
+		default:
+			error("Mesure inconnue : " + args[0]);
+		}
+	}
+
+	/*
+	 * Measures PackedCard.isBetter and PackedCard.points, called together on all
+	 * the pairs of cards and all the trumps
+	 */
+	private static void benchmarkCards(int rounds) {
+		int[] pkCards = new int[PackedCardSet.size(PackedCardSet.ALL_CARDS)];
+		for (int i = 0; i < pkCards.length; ++i) {
+			pkCards[i] = PackedCardSet.get(PackedCardSet.ALL_CARDS, i);
+		}
+		long operations = (long) PASSES * Card.Color.COUNT * pkCards.length * pkCards.length;
+
+		measure("PackedCard.isBetter et points", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (Card.Color trump : Card.Color.ALL) {
+					for (int l : pkCards) {
+						for (int r : pkCards) {
+							checksum += (PackedCard.isBetter(trump, l, r) ? 1 : 0) + PackedCard.points(trump, l);
+						}
+					}
+				}
+			}
+			return checksum;
+		});
+		measure("Référence (couleur et rang décodés)", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (Card.Color trump : Card.Color.ALL) {
+					for (int l : pkCards) {
+						for (int r : pkCards) {
+							checksum += (referenceIsBetter(trump, l, r) ? 1 : 0) + referencePoints(trump, l);
+						}
+					}
+				}
+			}
+			return checksum;
+		});
+	}
+
+	/*
+	 * Measures PackedTrick.playableCards on random tricks of zero to three cards
+	 * and random hands holding none of their cards
+	 */
+	private static void benchmarkPlayableCards(int rounds) {
+		SplittableRandom rng = new SplittableRandom(0);
+		int[] pkTricks = new int[TRICKS];
+		long[] pkHands = new long[TRICKS];
+		for (int i = 0; i < TRICKS; ++i) {
+			long deck = PackedCardSet.ALL_CARDS;
+			int pkTrick = PackedTrick.firstEmpty(Card.Color.ALL.get(rng.nextInt(Card.Color.COUNT)),
+					PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+			for (int size = rng.nextInt(PlayerId.COUNT); PackedTrick.size(pkTrick) < size;) {
+				int pkCard = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+				deck = PackedCardSet.remove(deck, pkCard);
+				pkTrick = PackedTrick.withAddedCard(pkTrick, pkCard);
+			}
+			long pkHand = PackedCardSet.EMPTY;
+			for (int size = 1 + rng.nextInt(Jass.HAND_SIZE); PackedCardSet.size(pkHand) < size;) {
+				int pkCard = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+				deck = PackedCardSet.remove(deck, pkCard);
+				pkHand = PackedCardSet.add(pkHand, pkCard);
+			}
+			pkTricks[i] = pkTrick;
+			pkHands[i] = pkHand;
+		}
+		long operations = (long) PASSES * TRICKS;
+
+		measure("PackedTrick.playableCards", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (int i = 0; i < TRICKS; ++i) {
+					checksum += PackedTrick.playableCards(pkTricks[i], pkHands[i]);
+				}
+			}
+			return checksum;
+		});
+		measure("Référence (règles appliquées une à une)", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (int i = 0; i < TRICKS; ++i) {
+					checksum += referencePlayableCards(pkTricks[i], pkHands[i]);
+				}
+			}
+			return checksum;
+		});
+	}
+
+	/*
+	 * Measures DealSampler.sample on random positions where the hands of the
+	 * three other players are hidden, each of them being void in the colors it
+	 * does not hold and known to hold one of its cards, and checks that sampling
+	 * does not allocate
+	 */
+	private static void benchmarkSampler(int rounds) {
+		SplittableRandom rng = new SplittableRandom(0);
+		DealSampler[] samplers = new DealSampler[SAMPLERS];
+		for (int i = 0; i < SAMPLERS; ++i) {
+			long[] pkHands = new long[PlayerId.COUNT];
+			long deck = PackedCardSet.ALL_CARDS;
+			for (int k = 0; deck != PackedCardSet.EMPTY; ++k) {
+				int pkCard = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+				deck = PackedCardSet.remove(deck, pkCard);
+				pkHands[k % PlayerId.COUNT] = PackedCardSet.add(pkHands[k % PlayerId.COUNT], pkCard);
+			}
+			int[] sizes = new int[PlayerId.COUNT];
+			long[] pkKnownCards = new long[PlayerId.COUNT];
+			long[] pkPossibleCards = new long[PlayerId.COUNT];
+			for (int p = 1; p < PlayerId.COUNT; ++p) {
+				sizes[p] = Jass.HAND_SIZE;
+				pkKnownCards[p] = PackedCardSet.singleton(PackedCardSet.get(pkHands[p], rng.nextInt(Jass.HAND_SIZE)));
+				for (Card.Color c : Card.Color.ALL) {
+					if (PackedCardSet.subsetOfColor(pkHands[p], c) != PackedCardSet.EMPTY) {
+						pkPossibleCards[p] |= PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, c);
+					}
+				}
+			}
+			samplers[i] = new DealSampler(PackedCardSet.difference(PackedCardSet.ALL_CARDS, pkHands[0]), sizes,
+					pkKnownCards, pkPossibleCards);
+		}
+		long[] pkHands = new long[PlayerId.COUNT];
+		long operations = (long) PASSES * SAMPLERS;
+
+		LongSupplier round = () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (DealSampler sampler : samplers) {
+					sampler.sample(rng, pkHands);
+					checksum += pkHands[1];
+				}
+			}
+			return checksum;
+		};
+		measure("DealSampler.sample", rounds, operations, round);
+
+		long bytes = allocatedBytes(round);
+		if (bytes < 0) {
+			System.out.println("Mesure des allocations non disponible sur cette machine virtuelle");
+		} else {
+			System.out.printf("%.3f octets alloués par opération%n", bytes / (double) operations);
+			if (bytes > 0) {
+				error("DealSampler.sample alloue de la mémoire");
+			}
+		}
+	}
+
+	/*
+	 * Measures the reading and writing of the fields of BitLayout, on random bit
+	 * vectors with the layout of a packed trick, next to the same operations
+	 * written with constant shifts and masks
+	 */
+	private static void benchmarkLayout(int rounds) {
+		SplittableRandom rng = new SplittableRandom(0);
+		int[] vectors = new int[VECTORS];
+		for (int i = 0; i < VECTORS; ++i) {
+			vectors[i] = rng.nextInt();
+		}
+		long operations = (long) PASSES * VECTORS;
+
+		measure("BitLayout.Field32 get et with", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (int i = 0; i < VECTORS; ++i) {
+					int v = vectors[i];
+					checksum += CARD_0.get(v) + CARD_1.get(v) + CARD_2.get(v) + CARD_3.get(v) + FIRST_PLAYER.get(v)
+							+ TRUMP.get(v);
+					checksum += INDEX.with(v, (INDEX.get(v) + pass) & INDEX_MASK);
+				}
+			}
+			return checksum;
+		});
+		measure("Référence (décalages et masques constants)", rounds, operations, () -> {
+			long checksum = 0;
+			for (int pass = 0; pass < PASSES; ++pass) {
+				for (int i = 0; i < VECTORS; ++i) {
+					int v = vectors[i];
+					checksum += (v & CARD_MASK) + (v >>> 6 & CARD_MASK) + (v >>> 12 & CARD_MASK)
+							+ (v >>> 18 & CARD_MASK) + (v >>> FIRST_PLAYER_SHIFT & PLAYER_MASK)
+							+ (v >>> TRUMP_SHIFT & PLAYER_MASK);
+					int index = (v >>> INDEX_SHIFT & INDEX_MASK) + pass & INDEX_MASK;
+					checksum += v & ~(INDEX_MASK << INDEX_SHIFT) | index << INDEX_SHIFT;
+				}
+			}
+			return checksum;
+		});
+	}
+
+	/*
+	 * Determines the cards of a hand which can be played on a trick by applying
+	 * the rules one after the other, as PackedTrick.playableCards did before its
+	 * masks
+	 */
+	private static long referencePlayableCards(int pkTrick, long pkHand) {
+		if (PackedTrick.isEmpty(pkTrick)) {
+			return pkHand;
+		}
+
+		Card.Color trump = PackedTrick.trump(pkTrick);
+		Card.Color baseColor = PackedTrick.baseColor(pkTrick);
+		long playableCards = PackedCardSet.subsetOfColor(pkHand, baseColor);
+		if (trump.equals(baseColor)) {
+			boolean onlyJack = PackedCardSet.singleton(PackedCard.pack(trump, Card.Rank.JACK)) == playableCards;
+			return onlyJack || PackedCardSet.isEmpty(playableCards) ? pkHand : playableCards;
+		}
+
+		long trumpCardsInHand = PackedCardSet.subsetOfColor(pkHand, trump);
+		if (PackedCardSet.isEmpty(playableCards)) {
+			playableCards = PackedCardSet.difference(pkHand, trumpCardsInHand);
+		}
+
+		int bestCard = PackedTrick.card(pkTrick, 0);
+		for (int i = 1; i < PackedTrick.size(pkTrick); ++i) {
+			int pkCard = PackedTrick.card(pkTrick, i);
+			if (referenceIsBetter(trump, pkCard, bestCard)) {
+				bestCard = pkCard;
+			}
+		}
+		if (PackedCard.color(bestCard).equals(trump)) {
+			playableCards = PackedCardSet.union(playableCards,
+					PackedCardSet.intersection(PackedCardSet.trumpAbove(bestCard), trumpCardsInHand));
+		} else {
+			playableCards = PackedCardSet.union(playableCards, trumpCardsInHand);
+		}
+		return PackedCardSet.isEmpty(playableCards) ? pkHand : playableCards;
+	}
+
+	/*
+	 * Determines if a card is better than another one by decoding their colors
+	 * and ranks, as PackedCard.isBetter did before its table
+	 */
+	private static boolean referenceIsBetter(Card.Color trump, int pkCardL, int pkCardR) {
+		Card.Color one = PackedCard.color(pkCardL);
+		Card.Color two = PackedCard.color(pkCardR);
+		return one.equals(trump)
+				? !two.equals(trump) || PackedCard.rank(pkCardL).trumpOrdinal() > PackedCard.rank(pkCardR).trumpOrdinal()
+				: one.equals(two) && PackedCard.rank(pkCardL).ordinal() > PackedCard.rank(pkCardR).ordinal();
+	}
+
+	/*
+	 * Determines the points of a card by decoding its color and rank, as
+	 * PackedCard.points did before its table
+	 */
+	private static int referencePoints(Card.Color trump, int pkCard) {
+		return PackedCard.color(pkCard).equals(trump) ? TRUMP_POINTS[PackedCard.rank(pkCard).ordinal()]
+				: POINTS[PackedCard.rank(pkCard).ordinal()];
+	}
+
+	/*
+	 * Runs a round of a benchmark several times after warming it up, and displays
+	 * the shortest time per operation
+	 */
+	private static void measure(String name, int rounds, long operations, LongSupplier round) {
+		long checksum = 0;
+		for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+			checksum += round.getAsLong();
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < rounds; ++i) {
+			long start = System.nanoTime();
+			checksum += round.getAsLong();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.printf("%s : %.2f ns par opération (contrôle %d)%n", name, best / (double) operations, checksum);
+	}
+
+	/*
+	 * Determines the number of bytes a round of a benchmark allocates on the
+	 * calling thread, or -1 if the virtual machine cannot measure it
+	 */
+	private static long allocatedBytes(LongSupplier round) {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+			return -1;
+		}
+		long id = Thread.currentThread().getId();
+		long before = bean.getThreadAllocatedBytes(id);
+		round.getAsLong();
+		return bean.getThreadAllocatedBytes(id) - before;
+	}
+
+	/*
+	 * Displays an error message and exits
+	 */
+	private static void error(String message) {
+		System.err.println("Erreur : " + message + ".");
+		System.exit(1);
+	}
+
+	/*
+	 * Displays a help message on how to correctly execute the program if the number
+	 * of arguments is invalid
+	 */
+	private static void invalidNumberOfArguments() {
+		System.err.println("Utilisation : java ch.epfl.javass.BenchmarkMain <mesure> [<répétitions>] où :"
+				+ "\n<mesure> spécifie les méthodes mesurées, ainsi :"
+				+ "\n\tcard mesure PackedCard.isBetter et PackedCard.points"
+				+ "\n\tplayable mesure PackedTrick.playableCards"
+				+ "\n\tsampler mesure DealSampler.sample et vérifie qu'il n'alloue pas de mémoire"
+				+ "\n\tlayout mesure la lecture et l'écriture des champs de BitLayout"
+				+ "\n[<répétitions>] spécifie le nombre de mesures, dont la plus courte est affichée, par défaut 10");
+		System.exit(1);
+	}
+}
@@ -0,0 +1,106 @@
+package ch.epfl.javass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import ch.epfl.javass.jass.DoubleDummyAnalyzer;
+import ch.epfl.javass.jass.Position;
+
+/**
+ * Solves deals double dummy in parallel and writes their par in a file. The
+ * deals are either read from a file, one per line, or dealt randomly
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DoubleDummyMain {
+	private static final int MIN_ARGS = 2, MAX_ARGS = 4;
+
+	private DoubleDummyMain() {
+	}
+
+	/**
+	 * Launches the analysis
+	 *
+	 * @param args : the file of the deals or their number, the file of the
+	 *             results, then optionally the seed of the random deals and the
+	 *             number of threads
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			invalidNumberOfArguments();
+		}
+
+		long seed = 0;
+		int threads = Runtime.getRuntime().availableProcessors();
+		try {
+			if (args.length > 2) {
+				seed = Long.parseLong(args[2]);
+			}
+			if (args.length > 3) {
+				threads = Integer.parseInt(args[3]);
+			}
+		} catch (NumberFormatException e) {
+			error("Argument numérique invalide");
+		}
+		if (threads < 1) {
+			error("Le nombre de threads doit être au moins 1");
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long start = System.nanoTime();
+		int count = 0;
+		try (Writer out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+			if (args[0].matches("\\d+")) {
+				SplittableRandom rng = new SplittableRandom(seed);
+				Iterator<Position> deals = IntStream.range(0, Integer.parseInt(args[0]))
+						.mapToObj(i -> DoubleDummyAnalyzer.randomDeal(rng)).iterator();
+				count = DoubleDummyAnalyzer.analyze(deals, pool, out);
+			} else {
+				try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+					Iterator<Position> deals = in.lines().filter(l -> !l.trim().isEmpty())
+							.map(DoubleDummyAnalyzer::parseDeal).iterator();
+					count = DoubleDummyAnalyzer.analyze(deals, pool, out);
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			error("Lecture ou écriture impossible (" + e.getMessage() + ")");
+		} catch (IllegalArgumentException e) {
+			error("Donne invalide");
+		}
+		pool.shutdown();
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d donnes résolues en %.3f s (%.3f donnes/s)%n", count, seconds, count / seconds);
+	}
+
+	/*
+	 * Displays an error message and exits
+	 */
+	private static void error(String message) {
+		System.err.println("Erreur : " + message + ".");
+		System.exit(1);
+	}
+
+	/*
+	 * Displays a help message on how to correctly execute the program if the number
+	 * of arguments is invalid
+	 */
+	private static void invalidNumberOfArguments() {
+		System.err.println("Utilisation : java ch.epfl.javass.DoubleDummyMain <donnes> <sortie> [<noyau>] [<threads>] où :"
+				+ "\n<donnes> spécifie le fichier des donnes, une par ligne, ou le nombre de donnes aléatoires"
+				+ "\n<sortie> spécifie le fichier des résultats, chaque donne suivie des points de la première équipe"
+				+ "\n[<noyau>] spécifie le noyau utilisé pour distribuer les donnes aléatoires"
+				+ "\n[<threads>] spécifie le nombre de threads utilisés, par défaut le nombre de processeurs");
+		System.exit(1);
+	}
+}
@@ -0,0 +1,93 @@
+package ch.epfl.javass;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import ch.epfl.javass.jass.DoubleDummyAnalyzer;
+import ch.epfl.javass.jass.Perft;
+import ch.epfl.javass.jass.Position;
+
+/**
+ * Counts the legal sequences of cards from a randomly dealt position (perft)
+ * and displays the number of positions visited per second, which is the
+ * reference of the speed of the rules of the game
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class PerftMain {
+	private static final int MIN_ARGS = 1, MAX_ARGS = 4;
+	private static final String TRANSPOSITIONS_OPTION = "-t";
+
+	private PerftMain() {
+	}
+
+	/**
+	 * Launches the count
+	 *
+	 * @param args : the depth, then optionally the seed of the deal, the number of
+	 *             threads and the option -t to use a table of transpositions
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			invalidNumberOfArguments();
+		}
+
+		int depth = 0, threads = 1;
+		long seed = 0;
+		boolean transpositions = false;
+		int positional = 0;
+		try {
+			for (String arg : args) {
+				if (arg.equals(TRANSPOSITIONS_OPTION)) {
+					transpositions = true;
+				} else if (positional == 0) {
+					depth = Integer.parseInt(arg);
+					++positional;
+				} else if (positional == 1) {
+					seed = Long.parseLong(arg);
+					++positional;
+				} else {
+					threads = Integer.parseInt(arg);
+					++positional;
+				}
+			}
+		} catch (NumberFormatException e) {
+			error("Argument numérique invalide");
+		}
+		if (depth < 0 || threads < 1) {
+			error("La profondeur doit être positive et le nombre de threads au moins 1");
+		}
+
+		Position position = DoubleDummyAnalyzer.randomDeal(new SplittableRandom(seed));
+		System.out.println(position);
+
+		long start = System.nanoTime();
+		Perft.Result result = threads == 1 ? Perft.walk(position, depth, transpositions)
+				: Perft.walkInParallel(position, depth, transpositions, new ForkJoinPool(threads));
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("profondeur %d : %d séquences, %d positions visitées en %.3f s (%.0f positions/s)%n", depth,
+				result.sequences(), result.nodes(), seconds, result.nodes() / seconds);
+	}
+
+	/*
+	 * Displays an error message and exits
+	 */
+	private static void error(String message) {
+		System.err.println("Erreur : " + message + ".");
+		System.exit(1);
+	}
+
+	/*
+	 * Displays a help message on how to correctly execute the program if the number
+	 * of arguments is invalid
+	 */
+	private static void invalidNumberOfArguments() {
+		System.err.println("Utilisation : java ch.epfl.javass.PerftMain <profondeur> [<noyau>] [<threads>] [-t] où :"
+				+ "\n<profondeur> spécifie le nombre de cartes des séquences comptées"
+				+ "\n[<noyau>] spécifie le noyau utilisé pour distribuer les cartes et choisir l'atout"
+				+ "\n[<threads>] spécifie le nombre de threads utilisés pour compter"
+				+ "\n[-t] spécifie que les séquences des transpositions ne sont calculées qu'une fois");
+		System.exit(1);
+	}
+}
@@ -0,0 +1,160 @@
+package ch.epfl.javass;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ch.epfl.javass.jass.PlayerId;
+import ch.epfl.javass.jass.PlayerSpec;
+import ch.epfl.javass.jass.Simulation;
+import ch.epfl.javass.jass.Sprt;
+import ch.epfl.javass.jass.TeamId;
+
+/**
+ * Plays games between simulated players without user interface, in parallel,
+ * and displays the speed of the games, the win rate and the mean point
+ * difference of each team and the time the players take to play their cards.
+ * In duplicate mode, each deal is played a second time with the teams
+ * exchanged, and the results are those of the players of the first seats. With
+ * a sequential test (see Sprt), the deals are played in batches until the test
+ * accepts one of its hypotheses
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class SimulateMain {
+	private static final int MIN_ARGS = PlayerId.COUNT + 1, MAX_ARGS = PlayerId.COUNT + 6,
+			MAX_POSITIONAL_ARGS = PlayerId.COUNT + 3;
+	private static final String DUPLICATE_OPTION = "-d", SPRT_OPTION = "-s";
+	private static final int BATCH_DEALS_PER_THREAD = 4;
+	private static final double[] PERCENTILES = { 50, 90, 99, 100 };
+
+	private SimulateMain() {
+	}
+
+	/**
+	 * Launches the simulation
+	 *
+	 * @param args : the specifications of the four players, the number of games
+	 *             (or of deals), then optionally the seed of the simulation, the
+	 *             number of threads, the option -d to play in duplicate mode and
+	 *             the option -s followed by a sequential test
+	 */
+	public static void main(String[] args) {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			invalidNumberOfArguments();
+		}
+
+		boolean duplicate = false;
+		Sprt sprt = null;
+		List<String> positional = new ArrayList<>();
+		for (int i = 0; i < args.length; ++i) {
+			if (args[i].equals(DUPLICATE_OPTION)) {
+				duplicate = true;
+			} else if (args[i].equals(SPRT_OPTION) && i + 1 < args.length) {
+				try {
+					sprt = Sprt.parse(args[++i]);
+				} catch (IllegalArgumentException e) {
+					error("Test séquentiel invalide : " + args[i]);
+				}
+			} else {
+				positional.add(args[i]);
+			}
+		}
+		if (positional.size() < MIN_ARGS || positional.size() > MAX_POSITIONAL_ARGS) {
+			invalidNumberOfArguments();
+		}
+
+		Map<PlayerId, PlayerSpec> specs = new EnumMap<>(PlayerId.class);
+		for (PlayerId p : PlayerId.ALL) {
+			try {
+				specs.put(p, PlayerSpec.parse(positional.get(p.ordinal())));
+			} catch (IllegalArgumentException e) {
+				error("Spécification invalide du joueur : " + positional.get(p.ordinal()));
+			}
+		}
+
+		int games = 0, threads = Runtime.getRuntime().availableProcessors();
+		long seed = 0;
+		try {
+			games = Integer.parseInt(positional.get(PlayerId.COUNT));
+			if (positional.size() > PlayerId.COUNT + 1) {
+				seed = Long.parseLong(positional.get(PlayerId.COUNT + 1));
+			}
+			if (positional.size() > PlayerId.COUNT + 2) {
+				threads = Integer.parseInt(positional.get(PlayerId.COUNT + 2));
+			}
+		} catch (NumberFormatException e) {
+			error("Argument numérique invalide");
+		}
+		if (games < 1 || threads < 1) {
+			error("Le nombre de parties et le nombre de threads doivent être au moins 1");
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		Simulation simulation = new Simulation(specs);
+		Simulation.Result result = sprt != null
+				? sprt.run(simulation, seed, games, BATCH_DEALS_PER_THREAD * threads, duplicate, executor)
+				: duplicate ? simulation.runDuplicate(seed, games, executor) : simulation.run(seed, games, executor);
+		executor.shutdown();
+
+		if (sprt != null) {
+			Sprt.Decision decision = sprt.decision(result);
+			System.out.printf("%s après %d parties (%d donnes), LLR %.3f dans [%.3f, %.3f]%n",
+					decision == Sprt.Decision.ACCEPT_H0 ? "Hypothèse H0 acceptée"
+							: decision == Sprt.Decision.ACCEPT_H1 ? "Hypothèse H1 acceptée"
+									: "Aucune hypothèse acceptée",
+					result.games(), result.deals(), sprt.llr(result), sprt.lowerBound(), sprt.upperBound());
+		}
+
+		System.out.printf("%d parties en %.3f s (%.3f parties/s)%n", result.games(), result.elapsedNanos() / 1e9,
+				result.gamesPerSecond());
+		for (TeamId t : TeamId.ALL) {
+			System.out.printf("%s : %d victoires, %.1f %% ± %.1f %%%n", t, result.wins(t), 100 * result.winRate(t),
+					100 * result.winRateMargin(t));
+		}
+		System.out.printf("Différence moyenne de points de %s par donne : %.1f ± %.1f (%d donnes)%n", TeamId.TEAM_1,
+				result.meanDealDifference(), result.dealDifferenceMargin(), result.deals());
+		for (PlayerId p : PlayerId.ALL) {
+			System.out.printf("%s (%s) : %d cartes", p, specs.get(p), result.moves(p));
+			for (double percentile : PERCENTILES) {
+				System.out.printf(", p%.0f %.1f ms", percentile, result.latencyPercentile(p, percentile) / 1e6);
+			}
+			System.out.println();
+		}
+	}
+
+	/*
+	 * Displays an error message and exits
+	 */
+	private static void error(String message) {
+		System.err.println("Erreur : " + message + ".");
+		System.exit(1);
+	}
+
+	/*
+	 * Displays a help message on how to correctly execute the program if the number
+	 * of arguments is invalid
+	 */
+	private static void invalidNumberOfArguments() {
+		System.err.println("Utilisation : java ch.epfl.javass.SimulateMain <j1>...<j4> <parties> [<noyau>] [<threads>] [-d] [-s <test>] où :"
+				+ "\n<jn> spécifie le joueur simulé n, ainsi :"
+				+ "\n\tm:<itérations> un joueur MCTS utilisant <itérations> itérations par carte"
+				+ "\n\tp:<itérations>:<arbres> un joueur MCTS parallèle utilisant <arbres> arbres de <itérations> itérations"
+				+ "\n\tb:<itérations> un joueur MCTS répartissant <itérations> itérations par tour entre ses cartes"
+				+ "\n\tt:<itérations>:<secondes> un joueur MCTS parallèle limité à <secondes> secondes par carte"
+				+ "\n\tchacun pouvant être suivi de :e<plis> pour résoudre exactement les <plis> derniers plis (1 à 3) des tours simulés"
+				+ "\n<parties> spécifie le nombre de parties jouées, au plus avec un test séquentiel"
+				+ "\n[<noyau>] spécifie le noyau de la simulation, dont dépendent les donnes et les joueurs"
+				+ "\n[<threads>] spécifie le nombre de parties jouées en parallèle, par défaut le nombre de processeurs"
+				+ "\n[-d] spécifie que chaque donne est rejouée en échangeant les équipes (<parties> donnes, donc deux fois plus de parties)"
+				+ "\n[-s <test>] spécifie un test séquentiel qui arrête les parties dès qu'une hypothèse est acceptée, ainsi :"
+				+ "\n\te:<elo0>:<elo1>:<alpha>:<beta> teste une différence d'Elo de la première équipe de <elo0> contre <elo1>"
+				+ "\n\td:<diff0>:<diff1>:<alpha>:<beta> teste une différence moyenne de points par donne de <diff0> contre <diff1>"
+				+ "\n\t<alpha> et <beta> étant les probabilités d'accepter à tort H1 et H0");
+		System.exit(1);
+	}
+}
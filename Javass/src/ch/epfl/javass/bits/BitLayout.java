@@ -0,0 +1,261 @@
+package ch.epfl.javass.bits;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+/**
+ * Allows describing the layout of the values packed in 32 and 64 bit vectors.
+ * Each value occupies a field, declared once as a constant with its start and
+ * size, through which it is read and written. Fields are checked when they are
+ * declared, while the values written to them are only checked when assertions
+ * are enabled. Reading or writing a field costs a shift and a mask, plus the
+ * loads of the start and the mask from the field, which the virtual machine
+ * does not fold into constants : BenchmarkMain measures it against constant
+ * shifts and masks
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class BitLayout {
+
+	private BitLayout() {
+	}
+
+	/**
+	 * A field of a 32 bit vector (integer)
+	 *
+	 * @author Aman Bansal (297535)
+	 * @author Julian Blackwell (289803)
+	 */
+	public static final class Field32 {
+		private final int start;
+		private final int size;
+		private final int valueMask;
+
+		private Field32(int start, int size) {
+			this.start = start;
+			this.size = size;
+			this.valueMask = -1 >>> (Integer.SIZE - size);
+		}
+
+		/**
+		 * Declares a field
+		 *
+		 * @param start (int) : the index of the first bit of the field
+		 * @param size  (int) : the number of bits of the field
+		 * @return (Field32) : the field
+		 * @throws IllegalArgumentException if start and size do not designate a
+		 *                                  non-empty range of bits of an integer
+		 */
+		public static Field32 of(int start, int size) throws IllegalArgumentException {
+			checkArgument(start >= 0 && size > 0 && start + size <= Integer.SIZE);
+			return new Field32(start, size);
+		}
+
+		/**
+		 * Declares the field following this one
+		 *
+		 * @param size (int) : the number of bits of the following field
+		 * @return (Field32) : the field starting right after this one
+		 * @throws IllegalArgumentException if the following field does not fit in an
+		 *                                  integer
+		 */
+		public Field32 next(int size) throws IllegalArgumentException {
+			return of(end(), size);
+		}
+
+		/**
+		 * Gets the index of the first bit of the field
+		 *
+		 * @return (int) : the index of the first bit of the field
+		 */
+		public int start() {
+			return start;
+		}
+
+		/**
+		 * Gets the number of bits of the field
+		 *
+		 * @return (int) : the number of bits of the field
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Gets the index of the bit following the field
+		 *
+		 * @return (int) : the index of the bit following the field
+		 */
+		public int end() {
+			return start + size;
+		}
+
+		/**
+		 * Gets an integer whose bits of the field are 1 and the others are 0
+		 *
+		 * @return (int) : the mask of the field
+		 */
+		public int mask() {
+			return valueMask << start;
+		}
+
+		/**
+		 * Reads the value of the field
+		 *
+		 * @param bits (int) : the bit vector
+		 * @return (int) : the value of the field in the bit vector
+		 */
+		public int get(int bits) {
+			return (bits >>> start) & valueMask;
+		}
+
+		/**
+		 * Checks if a value fits in the field
+		 *
+		 * @param value (int) : the value
+		 * @return (boolean) : true if the value is positive or zero and fewer bits
+		 *         than the size of the field are needed to write it
+		 */
+		public boolean fits(int value) {
+			return (value & ~valueMask) == 0;
+		}
+
+		/**
+		 * Writes the value of the field
+		 *
+		 * @param bits  (int) : the bit vector
+		 * @param value (int) : the value, which must fit in the field
+		 * @return (int) : the bit vector with the value in the field
+		 */
+		public int with(int bits, int value) {
+			assert fits(value);
+			return (bits & ~mask()) | (value << start);
+		}
+	}
+
+	/**
+	 * A field of a 64 bit vector (long)
+	 *
+	 * @author Aman Bansal (297535)
+	 * @author Julian Blackwell (289803)
+	 */
+	public static final class Field64 {
+		private final int start;
+		private final int size;
+		private final long valueMask;
+
+		private Field64(int start, int size) {
+			this.start = start;
+			this.size = size;
+			this.valueMask = -1L >>> (Long.SIZE - size);
+		}
+
+		/**
+		 * Declares a field
+		 *
+		 * @param start (int) : the index of the first bit of the field
+		 * @param size  (int) : the number of bits of the field
+		 * @return (Field64) : the field
+		 * @throws IllegalArgumentException if start and size do not designate a
+		 *                                  non-empty range of bits of a long
+		 */
+		public static Field64 of(int start, int size) throws IllegalArgumentException {
+			checkArgument(start >= 0 && size > 0 && start + size <= Long.SIZE);
+			return new Field64(start, size);
+		}
+
+		/**
+		 * Declares the field following this one
+		 *
+		 * @param size (int) : the number of bits of the following field
+		 * @return (Field64) : the field starting right after this one
+		 * @throws IllegalArgumentException if the following field does not fit in a
+		 *                                  long
+		 */
+		public Field64 next(int size) throws IllegalArgumentException {
+			return of(end(), size);
+		}
+
+		/**
+		 * Declares the field of the same size as this one starting a given number of
+		 * bits further
+		 *
+		 * @param distance (int) : the number of bits between the starts of the fields
+		 * @return (Field64) : the shifted field
+		 * @throws IllegalArgumentException if the shifted field does not fit in a
+		 *                                  long
+		 */
+		public Field64 shiftedBy(int distance) throws IllegalArgumentException {
+			return of(start + distance, size);
+		}
+
+		/**
+		 * Gets the index of the first bit of the field
+		 *
+		 * @return (int) : the index of the first bit of the field
+		 */
+		public int start() {
+			return start;
+		}
+
+		/**
+		 * Gets the number of bits of the field
+		 *
+		 * @return (int) : the number of bits of the field
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Gets the index of the bit following the field
+		 *
+		 * @return (int) : the index of the bit following the field
+		 */
+		public int end() {
+			return start + size;
+		}
+
+		/**
+		 * Gets a long whose bits of the field are 1 and the others are 0
+		 *
+		 * @return (long) : the mask of the field
+		 */
+		public long mask() {
+			return valueMask << start;
+		}
+
+		/**
+		 * Reads the value of the field
+		 *
+		 * @param bits (long) : the bit vector
+		 * @return (long) : the value of the field in the bit vector
+		 */
+		public long get(long bits) {
+			return (bits >>> start) & valueMask;
+		}
+
+		/**
+		 * Checks if a value fits in the field
+		 *
+		 * @param value (long) : the value
+		 * @return (boolean) : true if the value is positive or zero and fewer bits
+		 *         than the size of the field are needed to write it
+		 */
+		public boolean fits(long value) {
+			return (value & ~valueMask) == 0;
+		}
+
+		/**
+		 * Writes the value of the field
+		 *
+		 * @param bits  (long) : the bit vector
+		 * @param value (long) : the value, which must fit in the field
+		 * @return (long) : the bit vector with the value in the field
+		 */
+		public long with(long bits, long value) {
+			assert fits(value);
+			return (bits & ~mask()) | (value << start);
+		}
+	}
+}
@@ -22,7 +22,9 @@ import ch.epfl.javass.jass.Card;
 import ch.epfl.javass.jass.Card.Color;
 import ch.epfl.javass.jass.Card.Rank;
 import ch.epfl.javass.jass.CardSet;
+import ch.epfl.javass.jass.DecisionCache;
 import ch.epfl.javass.jass.Jass;
+import ch.epfl.javass.jass.MctsOptions;
 import ch.epfl.javass.jass.ParallelMctsPlayer;
 import ch.epfl.javass.jass.PlayerId;
 import ch.epfl.javass.jass.TeamId;
@@ -70,6 +72,7 @@ public class GraphicalPlayer {
 	private final static int TRICK_CARD_IMAGE_WIDTH = 120, TRICK_CARD_IMAGE_HEIGHT = 180;
 	private final static int HAND_CARD_IMAGE_WIDTH = 80, HAND_CARD_IMAGE_HEIGHT = 120;
 	private final static int GAUSSIAN_BLUR_RADIUS = 4;
+	private final static int HINT_ITERATIONS = 100_000;
 	private final static float PLAYABLE_OPACITY = 1f, UNPLAYABLE_OPACITY = 0.2f;
 	private final static int[][] TRICK_GRIDPANE_POSITIONS = { { 1, 2, 1, 1 }, { 2, 0, 1, 3 }, { 1, 0, 1, 1 },
 			{ 0, 0, 1, 3 } };
@@ -98,7 +101,9 @@ public class GraphicalPlayer {
 			ChatBean cb, ArrayBlockingQueue<Card> cardToPlayQueue, ArrayBlockingQueue<Color> trumpQueue,
 			ArrayBlockingQueue<TurnState> turnStateQueue) {
 		this.ownId = ownId;
-		this.pmcts = new ParallelMctsPlayer(ownId, System.nanoTime(), 100_000);
+		int nbTrees = Runtime.getRuntime().availableProcessors();
+		this.pmcts = new ParallelMctsPlayer(ownId, System.nanoTime(),
+				MctsOptions.ofIterations(HINT_ITERATIONS).withCache(DecisionCache.shared()), nbTrees, nbTrees);
 		this.playerNames = new EnumMap<>(playerNames);
 		Pane[] hintAndHand = createHintAndHandPanes(tb, turnStateQueue, hb, cardToPlayQueue, cb);
 
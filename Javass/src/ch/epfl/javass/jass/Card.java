@@ -16,12 +16,27 @@ import java.util.List;
  */
 public final class Card {
 
+	/*
+	 * The only instances of the class, indexed by their packed version
+	 */
+	private static final Card[] CARDS = cards();
+
 	private final int pkCard;
 
 	private Card(int pkCard) {
 		this.pkCard = pkCard;
 	}
 
+	private static Card[] cards() {
+		Card[] array = new Card[PackedCard.INVALID + 1];
+		for (int pkCard = 0; pkCard < array.length; ++pkCard) {
+			if (isValid(pkCard)) {
+				array[pkCard] = new Card(pkCard);
+			}
+		}
+		return array;
+	}
+
 	/**
 	 * Constructs a card of a given color and rank
 	 * 
@@ -30,7 +45,7 @@ public final class Card {
 	 * @return (Card) : card of the given color and rank
 	 */
 	public static Card of(Card.Color c, Card.Rank r) {
-		return new Card(pack(c, r));
+		return CARDS[pack(c, r)];
 	}
 
 	/**
@@ -43,7 +58,15 @@ public final class Card {
 	 */
 	public static Card ofPacked(int packed) throws IllegalArgumentException {
 		checkArgument(isValid(packed));
-		return new Card(packed);
+		return CARDS[packed];
+	}
+
+	/*
+	 * Gets the card of a packed card known to be valid, without checking it
+	 */
+	static Card ofValidPacked(int packed) {
+		assert isValid(packed);
+		return CARDS[packed];
 	}
 
 	/**
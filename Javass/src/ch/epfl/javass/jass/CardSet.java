@@ -40,7 +40,7 @@ public final class CardSet {
 			p = PackedCardSet.add(p, card.packed());
 		}
 
-		return new CardSet(p);
+		return ofValidPacked(p);
 	}
 
 	/**
@@ -52,7 +52,19 @@ public final class CardSet {
 	 */
 	public static CardSet ofPacked(long packed) throws IllegalArgumentException {
 		checkArgument(PackedCardSet.isValid(packed));
-		return new CardSet(packed);
+		return ofValidPacked(packed);
+	}
+
+	/*
+	 * Gets a card set representing a packed card set known to be valid, without
+	 * checking it, and shares the instances of the empty and full sets
+	 */
+	static CardSet ofValidPacked(long packed) {
+		assert PackedCardSet.isValid(packed);
+		if (packed == PackedCardSet.EMPTY) {
+			return EMPTY;
+		}
+		return packed == PackedCardSet.ALL_CARDS ? ALL_CARDS : new CardSet(packed);
 	}
 
 	/**
@@ -89,7 +101,7 @@ public final class CardSet {
 	 * @return (Card) : the card at the index of the packed card set
 	 */
 	public Card get(int index) {
-		return Card.ofPacked(PackedCardSet.get(pkCardSet, index));
+		return Card.ofValidPacked(PackedCardSet.get(pkCardSet, index));
 	}
 
 	/**
@@ -99,7 +111,7 @@ public final class CardSet {
 	 * @return (CardSet) : the new updated card set
 	 */
 	public CardSet add(Card card) {
-		return new CardSet(PackedCardSet.add(pkCardSet, card.packed()));
+		return ofValidPacked(PackedCardSet.add(pkCardSet, card.packed()));
 	}
 
 	/**
@@ -109,7 +121,7 @@ public final class CardSet {
 	 * @return (CardSet) : the new updated card set
 	 */
 	public CardSet remove(Card card) {
-		return new CardSet(PackedCardSet.remove(pkCardSet, card.packed()));
+		return ofValidPacked(PackedCardSet.remove(pkCardSet, card.packed()));
 	}
 
 	/**
@@ -128,7 +140,7 @@ public final class CardSet {
 	 * @return (CardSet) : the complement set of the card set
 	 */
 	public CardSet complement() {
-		return new CardSet(PackedCardSet.complement(pkCardSet));
+		return ofValidPacked(PackedCardSet.complement(pkCardSet));
 	}
 
 	/**
@@ -138,7 +150,7 @@ public final class CardSet {
 	 * @return (CardSet) : the union set of the two card sets
 	 */
 	public CardSet union(CardSet that) {
-		return new CardSet(PackedCardSet.union(pkCardSet, that.pkCardSet));
+		return ofValidPacked(PackedCardSet.union(pkCardSet, that.pkCardSet));
 	}
 
 	/**
@@ -148,7 +160,7 @@ public final class CardSet {
 	 * @return (CardSet) : the intersection set of the two card sets
 	 */
 	public CardSet intersection(CardSet that) {
-		return new CardSet(PackedCardSet.intersection(pkCardSet, that.pkCardSet));
+		return ofValidPacked(PackedCardSet.intersection(pkCardSet, that.pkCardSet));
 	}
 
 	/**
@@ -158,7 +170,7 @@ public final class CardSet {
 	 * @return (CardSet) : the difference set of the two card sets
 	 */
 	public CardSet difference(CardSet that) {
-		return new CardSet(PackedCardSet.difference(pkCardSet, that.pkCardSet));
+		return ofValidPacked(PackedCardSet.difference(pkCardSet, that.pkCardSet));
 	}
 
 	/**
@@ -168,7 +180,7 @@ public final class CardSet {
 	 * @return (CardSet) : the subset of a particular colored cards of the card set
 	 */
 	public CardSet subsetOfColor(Card.Color color) {
-		return new CardSet(PackedCardSet.subsetOfColor(pkCardSet, color));
+		return ofValidPacked(PackedCardSet.subsetOfColor(pkCardSet, color));
 	}
 
 	@Override
@@ -0,0 +1,214 @@
+package ch.epfl.javass.jass;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+/**
+ * Keeps track, during a turn, of what a player knows about the cards of the
+ * other players, by being given the same information as the player through
+ * the methods updateHand, setTrump and updateTrick, which have the same
+ * meaning as those of Player and are meant to be called from them. For each
+ * player, it keeps the cards the player has played and the cards the player
+ * can still hold, which exclude the colors the player did not follow (the
+ * voids). Since the tricks are examined incrementally, all of this is
+ * maintained in a few packed values and read in constant time
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class CardTracker {
+
+	private final PlayerId ownId;
+	private Color trump;
+	private long pkHand = PackedCardSet.EMPTY;
+	private long pkUnplayedCards = PackedCardSet.ALL_CARDS;
+	private final long[] pkPlayedCards = new long[PlayerId.COUNT];
+	private final long[] pkPossibleCards = new long[PlayerId.COUNT];
+	// The bit 4 * p + c is set if the player of ordinal p is void in the color of ordinal c
+	private int voids = 0;
+	private int lastTrick = PackedTrick.INVALID;
+
+	/**
+	 * Constructs a card tracker for a player
+	 *
+	 * @param ownId (PlayerId) : the identity of the player
+	 */
+	public CardTracker(PlayerId ownId) {
+		this.ownId = ownId;
+		startTurn();
+	}
+
+	/**
+	 * Updates the hand of the player
+	 *
+	 * @param newHand (CardSet) : the new hand of the player
+	 */
+	public void updateHand(CardSet newHand) {
+		pkHand = newHand.packed();
+	}
+
+	/**
+	 * Sets the trump of the turn which is starting, once the hand of the player
+	 * was dealt, and forgets what was known about the previous turn
+	 *
+	 * @param trump (Color) : the trump of the turn
+	 */
+	public void setTrump(Color trump) {
+		this.trump = trump;
+		startTurn();
+	}
+
+	/**
+	 * Updates the current trick, and takes into account the cards which were
+	 * added to it since the last update
+	 *
+	 * @param newTrick (Trick) : the current trick
+	 */
+	public void updateTrick(Trick newTrick) {
+		int pkTrick = newTrick.packed();
+		if (pkTrick == PackedTrick.INVALID) {
+			return;
+		}
+		int first = 0;
+		if (lastTrick != PackedTrick.INVALID && PackedTrick.index(lastTrick) == PackedTrick.index(pkTrick)
+				&& PackedTrick.player(lastTrick, 0) == PackedTrick.player(pkTrick, 0)) {
+			first = PackedTrick.size(lastTrick);
+		}
+		for (int i = first; i < PackedTrick.size(pkTrick); ++i) {
+			cardPlayed(PackedTrick.player(pkTrick, i).ordinal(), PackedTrick.card(pkTrick, i),
+					i == 0 ? null : PackedCard.color(PackedTrick.card(pkTrick, 0)));
+		}
+		lastTrick = pkTrick;
+	}
+
+	/**
+	 * Gets the packed set of the cards which were not played yet during the turn
+	 *
+	 * @return (long) : the packed set of unplayed cards
+	 */
+	public long packedUnplayedCards() {
+		return pkUnplayedCards;
+	}
+
+	/**
+	 * Gets the packed set of the unplayed cards the player does not hold, which
+	 * are held by the other players
+	 *
+	 * @return (long) : the packed set of unseen cards
+	 */
+	public long packedUnseenCards() {
+		return pkUnplayedCards & ~pkHand;
+	}
+
+	/**
+	 * Gets the packed set of the cards a player played during the turn
+	 *
+	 * @param player (PlayerId) : the player
+	 * @return (long) : the packed set of the cards the player played
+	 */
+	public long packedPlayedCards(PlayerId player) {
+		return pkPlayedCards[player.ordinal()];
+	}
+
+	/**
+	 * Gets the packed set of the cards a player can hold
+	 *
+	 * @param player (PlayerId) : the player
+	 * @return (long) : the packed set of the cards the player can hold, which is
+	 *         the hand of the player for the tracking player
+	 */
+	public long packedPossibleCards(PlayerId player) {
+		return pkPossibleCards[player.ordinal()];
+	}
+
+	/**
+	 * Gets the number of cards a player holds
+	 *
+	 * @param player (PlayerId) : the player
+	 * @return (int) : the number of cards the player holds
+	 */
+	public int handSize(PlayerId player) {
+		return Jass.HAND_SIZE - PackedCardSet.size(pkPlayedCards[player.ordinal()]);
+	}
+
+	/**
+	 * Checks if a player is known to have no card of a color, because the player
+	 * did not follow that color
+	 *
+	 * @param player (PlayerId) : the player
+	 * @param color  (Color) : the color
+	 * @return (boolean) : true if the player is void in the color (except for the
+	 *         jack of trump, which a player does not have to play on trump)
+	 */
+	public boolean isVoid(PlayerId player, Color color) {
+		return (voids & voidBit(player.ordinal(), color)) != 0;
+	}
+
+	/**
+	 * Checks if a player played a trump during the turn
+	 *
+	 * @param player (PlayerId) : the player
+	 * @return (boolean) : true if the player played a trump
+	 */
+	public boolean hasPlayedTrump(PlayerId player) {
+		return trump != null && PackedCardSet.subsetOfColor(pkPlayedCards[player.ordinal()], trump) != 0;
+	}
+
+	/**
+	 * Constructs a sampler of the deals of the unseen cards to the other players
+	 * which respect what is known about their hands
+	 *
+	 * @return (DealSampler) : the sampler of the deals
+	 */
+	public DealSampler dealSampler() {
+		int[] sizes = new int[PlayerId.COUNT];
+		for (PlayerId p : PlayerId.ALL) {
+			sizes[p.ordinal()] = p == ownId ? 0 : handSize(p);
+		}
+		return new DealSampler(packedUnseenCards(), sizes, new long[PlayerId.COUNT], pkPossibleCards.clone());
+	}
+
+	/*
+	 * Forgets everything about the previous turn, the other players possibly
+	 * holding any card the player does not hold
+	 */
+	private void startTurn() {
+		pkUnplayedCards = PackedCardSet.ALL_CARDS;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			pkPlayedCards[p] = PackedCardSet.EMPTY;
+			pkPossibleCards[p] = p == ownId.ordinal() ? pkHand : PackedCardSet.ALL_CARDS & ~pkHand;
+		}
+		voids = 0;
+		lastTrick = PackedTrick.INVALID;
+	}
+
+	/*
+	 * Takes into account a card played by the player of ordinal p in a trick whose
+	 * base color is given (null if the card is the first one of the trick)
+	 */
+	private void cardPlayed(int p, int pkCard, Color baseColor) {
+		pkUnplayedCards = PackedCardSet.remove(pkUnplayedCards, pkCard);
+		pkPlayedCards[p] = PackedCardSet.add(pkPlayedCards[p], pkCard);
+		for (int q = 0; q < PlayerId.COUNT; ++q) {
+			pkPossibleCards[q] = PackedCardSet.remove(pkPossibleCards[q], pkCard);
+		}
+
+		// A player who can follow must, unless playing a trump
+		Color color = PackedCard.color(pkCard);
+		if (baseColor != null && color != baseColor && color != trump && p != ownId.ordinal()) {
+			voids |= voidBit(p, baseColor);
+			long notFollowed = PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, baseColor);
+			if (baseColor == trump) {
+				notFollowed = PackedCardSet.remove(notFollowed, PackedCard.pack(trump, Rank.JACK));
+			}
+			pkPossibleCards[p] &= ~notFollowed;
+		}
+	}
+
+	/*
+	 * Gets the bit of the set of voids of the player of ordinal p in a color
+	 */
+	private static int voidBit(int p, Color color) {
+		return 1 << (p * Color.COUNT + color.ordinal());
+	}
+}
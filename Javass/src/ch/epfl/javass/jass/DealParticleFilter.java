@@ -0,0 +1,319 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Infers the hands of the other players from the cards they play, by keeping a
+ * set of weighted deals of the unseen cards (particles). The particles are
+ * first sampled uniformly among the deals respecting what a CardTracker knows.
+ * Each time another player plays a card, the weight of each particle is
+ * multiplied by the probability that the player plays that card with the hand
+ * of the particle, according to a simple model of the players : with
+ * probability 1 - noise the player plays a greedy card (the cheapest card
+ * taking the trick, the most valuable card on a trick of the partner, or the
+ * cheapest card otherwise), and with probability noise any playable card. A
+ * particle in which the player does not hold the card is first repaired by
+ * exchanging the card with one of the player. When the weights concentrate on
+ * too few particles, the particles are resampled according to their weights.
+ * Deals can then be drawn from the particles instead of uniformly, for
+ * instance by a search on sampled deals
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DealParticleFilter {
+
+	private final PlayerId ownId;
+	private final double noise;
+	private final SplittableRandom rng;
+	private final CardTracker tracker;
+	private Color trump;
+	private int lastTrick = PackedTrick.INVALID;
+
+	// The hands of the particle i are at the indices PlayerId.COUNT * i and following
+	private final int particleCount;
+	private long[] pkHands;
+	private long[] resampledHands;
+	private final double[] weights;
+	private double totalWeight;
+
+	/**
+	 * Constructs a particle filter inferring the hands of the other players of a
+	 * player
+	 *
+	 * @param ownId         (PlayerId) : the identity of the player
+	 * @param particleCount (int) : the number of particles
+	 * @param noise         (double) : the probability that another player plays
+	 *                      a random card instead of a greedy one
+	 * @param rng           (SplittableRandom) : the random number generator used
+	 *                      to sample and resample the particles
+	 * @throws IllegalArgumentException if the number of particles is not strictly
+	 *                                  positive or the noise is not strictly
+	 *                                  positive and at most 1
+	 */
+	public DealParticleFilter(PlayerId ownId, int particleCount, double noise, SplittableRandom rng)
+			throws IllegalArgumentException {
+		checkArgument(particleCount > 0 && 0 < noise && noise <= 1);
+		this.ownId = ownId;
+		this.particleCount = particleCount;
+		this.noise = noise;
+		this.rng = rng;
+		this.tracker = new CardTracker(ownId);
+		this.pkHands = new long[particleCount * PlayerId.COUNT];
+		this.resampledHands = new long[particleCount * PlayerId.COUNT];
+		this.weights = new double[particleCount];
+	}
+
+	/**
+	 * Updates the hand of the player
+	 *
+	 * @param newHand (CardSet) : the new hand of the player
+	 */
+	public void updateHand(CardSet newHand) {
+		tracker.updateHand(newHand);
+	}
+
+	/**
+	 * Sets the trump of the turn which is starting, once the hand of the player
+	 * was dealt, and samples the particles of the new turn
+	 *
+	 * @param trump (Color) : the trump of the turn
+	 */
+	public void setTrump(Color trump) {
+		this.trump = trump;
+		tracker.setTrump(trump);
+		lastTrick = PackedTrick.INVALID;
+		resetParticles();
+	}
+
+	/**
+	 * Updates the current trick, and weighs the particles according to the cards
+	 * added to it since the last update
+	 *
+	 * @param newTrick (Trick) : the current trick
+	 */
+	public void updateTrick(Trick newTrick) {
+		int pkTrick = newTrick.packed();
+		if (pkTrick == PackedTrick.INVALID || trump == null) {
+			return;
+		}
+		int first = 0;
+		if (lastTrick != PackedTrick.INVALID && PackedTrick.index(lastTrick) == PackedTrick.index(pkTrick)
+				&& PackedTrick.player(lastTrick, 0) == PackedTrick.player(pkTrick, 0)) {
+			first = PackedTrick.size(lastTrick);
+		}
+
+		int before = PackedTrick.withoutCards(pkTrick);
+		for (int i = 0; i < first; ++i) {
+			before = PackedTrick.withAddedCard(before, PackedTrick.card(pkTrick, i));
+		}
+		for (int i = first; i < PackedTrick.size(pkTrick); ++i) {
+			int pkCard = PackedTrick.card(pkTrick, i);
+			PlayerId player = PackedTrick.player(pkTrick, i);
+			if (player != ownId) {
+				weigh(player.ordinal(), before, pkCard);
+			}
+			before = PackedTrick.withAddedCard(before, pkCard);
+		}
+		lastTrick = pkTrick;
+		tracker.updateTrick(newTrick);
+
+		if (totalWeight == 0) {
+			// No particle explains the cards played, so they are sampled again
+			resetParticles();
+		} else if (effectiveSize() < particleCount / 2.0) {
+			resample();
+		}
+	}
+
+	/**
+	 * Gets the card tracker of the player, which the filter keeps up to date
+	 *
+	 * @return (CardTracker) : the card tracker
+	 */
+	public CardTracker tracker() {
+		return tracker;
+	}
+
+	/**
+	 * Gets the effective number of particles, which is the number of particles of
+	 * equal weights which would be as informative as the weighted ones
+	 *
+	 * @return (double) : the effective number of particles
+	 */
+	public double effectiveSize() {
+		double squares = 0;
+		for (double w : weights) {
+			squares += w * w;
+		}
+		return squares == 0 ? 0 : totalWeight * totalWeight / squares;
+	}
+
+	/**
+	 * Draws a deal of the unseen cards among the particles, according to their
+	 * weights
+	 *
+	 * @param rng     (SplittableRandom) : the random number generator
+	 * @param pkHands (long[]) : the array, indexed by ordinal, in which the packed
+	 *                hands of the players are written (the hand of the player
+	 *                being empty)
+	 */
+	public void sample(SplittableRandom rng, long[] pkHands) {
+		assert pkHands.length == PlayerId.COUNT;
+		double target = rng.nextDouble() * totalWeight;
+		int i = 0;
+		while (i < particleCount - 1 && (target -= weights[i]) >= 0) {
+			++i;
+		}
+		System.arraycopy(this.pkHands, i * PlayerId.COUNT, pkHands, 0, PlayerId.COUNT);
+	}
+
+	/*
+	 * Samples all the particles uniformly among the deals respecting what the
+	 * tracker knows, with equal weights
+	 */
+	private void resetParticles() {
+		DealSampler sampler = tracker.dealSampler();
+		long[] deal = new long[PlayerId.COUNT];
+		for (int i = 0; i < particleCount; ++i) {
+			sampler.sample(rng, deal);
+			System.arraycopy(deal, 0, pkHands, i * PlayerId.COUNT, PlayerId.COUNT);
+			weights[i] = 1;
+		}
+		totalWeight = particleCount;
+	}
+
+	/*
+	 * Multiplies the weight of each particle by the probability that the player
+	 * of ordinal p plays a card on a trick with the hand of the particle, and
+	 * removes the card from that hand
+	 */
+	private void weigh(int p, int pkTrick, int pkCard) {
+		totalWeight = 0;
+		for (int i = 0; i < particleCount; ++i) {
+			int h = i * PlayerId.COUNT + p;
+			if (weights[i] != 0) {
+				if (!PackedCardSet.contains(pkHands[h], pkCard)) {
+					giveCard(i, p, pkCard);
+				}
+				weights[i] *= likelihood(pkHands[h], pkTrick, p, pkCard);
+				totalWeight += weights[i];
+			}
+			pkHands[h] = PackedCardSet.remove(pkHands[h], pkCard);
+		}
+	}
+
+	/*
+	 * Gives a card to the player of ordinal p in the particle i, in exchange for
+	 * a random card of that player which the holder of the card can hold. Without
+	 * this, almost no particle would hold all the cards played after a few tricks
+	 */
+	private void giveCard(int i, int p, int pkCard) {
+		int h = i * PlayerId.COUNT;
+		int q = 0;
+		while (!PackedCardSet.contains(pkHands[h + q], pkCard)) {
+			++q;
+		}
+		long exchangeable = pkHands[h + p] & tracker.packedPossibleCards(PlayerId.ALL.get(q));
+		if (exchangeable == PackedCardSet.EMPTY) {
+			return;
+		}
+		int other = PackedCardSet.get(exchangeable, rng.nextInt(PackedCardSet.size(exchangeable)));
+		pkHands[h + p] = PackedCardSet.add(PackedCardSet.remove(pkHands[h + p], other), pkCard);
+		pkHands[h + q] = PackedCardSet.add(PackedCardSet.remove(pkHands[h + q], pkCard), other);
+	}
+
+	/*
+	 * Computes the probability that the player of ordinal p plays a card on a
+	 * trick with a hand, according to the model of the players
+	 */
+	private double likelihood(long pkHand, int pkTrick, int p, int pkCard) {
+		if (!PackedCardSet.contains(pkHand, pkCard)) {
+			return 0;
+		}
+		long playable = PackedTrick.playableCards(pkTrick, pkHand);
+		if (!PackedCardSet.contains(playable, pkCard)) {
+			return 0;
+		}
+		if (PackedTrick.isEmpty(pkTrick)) {
+			// Leading a trick is not modelled
+			return 1.0 / PackedCardSet.size(playable);
+		}
+		double random = noise / PackedCardSet.size(playable);
+		return greedyCard(playable, pkTrick, p) == pkCard ? random + 1 - noise : random;
+	}
+
+	/*
+	 * Determines the card a greedy player of ordinal p plays among the playable
+	 * cards on a non-empty trick
+	 */
+	private int greedyCard(long playable, int pkTrick, int p) {
+		int best = PackedTrick.card(pkTrick, bestIndex(pkTrick));
+		boolean partnerLeads = PackedTrick.winningPlayer(pkTrick).team() == PlayerId.ALL.get(p).team();
+
+		int cheapest = PackedCard.INVALID, cheapestWinning = PackedCard.INVALID, mostValuable = PackedCard.INVALID;
+		for (long s = playable; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			int c = PackedCardSet.lowestCard(s);
+			int points = PackedCard.points(trump, c);
+			if (cheapest == PackedCard.INVALID || points < PackedCard.points(trump, cheapest)) {
+				cheapest = c;
+			}
+			if (PackedCard.isBetter(trump, c, best)
+					&& (cheapestWinning == PackedCard.INVALID || points < PackedCard.points(trump, cheapestWinning))) {
+				cheapestWinning = c;
+			}
+			if (PackedCard.color(c) != trump
+					&& (mostValuable == PackedCard.INVALID || points > PackedCard.points(trump, mostValuable))) {
+				mostValuable = c;
+			}
+		}
+
+		if (partnerLeads) {
+			return mostValuable != PackedCard.INVALID ? mostValuable : cheapest;
+		}
+		return cheapestWinning != PackedCard.INVALID ? cheapestWinning : cheapest;
+	}
+
+	/*
+	 * Gets the index of the best card of a non-empty trick
+	 */
+	private int bestIndex(int pkTrick) {
+		int best = 0;
+		for (int i = 1; i < PackedTrick.size(pkTrick); ++i) {
+			if (PackedCard.isBetter(trump, PackedTrick.card(pkTrick, i), PackedTrick.card(pkTrick, best))) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/*
+	 * Resamples the particles according to their weights (systematic resampling),
+	 * with equal weights
+	 */
+	private void resample() {
+		double step = totalWeight / particleCount;
+		double target = rng.nextDouble() * step;
+		double cumulated = weights[0];
+		int source = 0;
+		for (int i = 0; i < particleCount; ++i) {
+			while (cumulated <= target && source < particleCount - 1) {
+				cumulated += weights[++source];
+			}
+			System.arraycopy(pkHands, source * PlayerId.COUNT, resampledHands, i * PlayerId.COUNT, PlayerId.COUNT);
+			target += step;
+		}
+
+		long[] swap = pkHands;
+		pkHands = resampledHands;
+		resampledHands = swap;
+		for (int i = 0; i < particleCount; ++i) {
+			weights[i] = 1;
+		}
+		totalWeight = particleCount;
+	}
+}
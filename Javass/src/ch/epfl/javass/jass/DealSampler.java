@@ -0,0 +1,311 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deals the cards a player has not seen to the players uniformly at random
+ * among the deals which respect what is known about the hands : their sizes,
+ * the cards known to be held by a player, and the cards a player can still
+ * hold (which excludes for instance the colors the player did not follow).
+ * <p>
+ * The cards which are not known to be held are grouped by the set of players
+ * who can hold them. Cards of the same group are interchangeable, so the number
+ * of deals completing each partial deal is computed once by the constructor,
+ * group by group, and a deal is then sampled by choosing how many cards of each
+ * group every player receives with the right probabilities, and which cards
+ * uniformly. When no deal respects the cards players can hold, these
+ * constraints are dropped, so that a deal can always be sampled
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DealSampler {
+
+	private static final int GROUP_COUNT = 1 << PlayerId.COUNT;
+	private static final double[] FACTORIAL = factorial();
+
+	private static double[] factorial() {
+		double[] array = new double[Card.Color.COUNT * Card.Rank.COUNT + 1];
+		array[0] = 1;
+		for (int n = 1; n < array.length; ++n) {
+			array[n] = array[n - 1] * n;
+		}
+		return array;
+	}
+
+	private final long[] pkKnownCards;
+	private final boolean relaxed;
+
+	// The groups of cards, indexed from 0 to groupCount (excluded)
+	private final long[] groupCards;
+	private final int[] groupSizes;
+	private final int[][] groupPlayers;
+	private final int groupCount;
+
+	/*
+	 * The number of cards each player still needs is encoded in a state, in base
+	 * (need + 1) for each player. ways[k][i][left][state] is the number of ways to
+	 * deal left cards of the group k to its players from index i on, and then the
+	 * following groups, to complete the hands in that state. Each way of dealing
+	 * the group k is divided by the factorials of the numbers of cards its
+	 * players receive, as the cards they receive are chosen afterwards
+	 */
+	private final int[] radix = new int[PlayerId.COUNT];
+	private final int[] stride = new int[PlayerId.COUNT];
+	private final int initialState;
+	private final double[][][][] ways;
+
+	/**
+	 * Constructs a sampler of the deals respecting the given constraints
+	 *
+	 * @param pkUnseenCards   (long) : the packed set of the cards to deal
+	 * @param sizes           (int[]) : the number of cards to deal to each
+	 *                        player, indexed by ordinal
+	 * @param pkKnownCards    (long[]) : the packed sets of the cards known to be
+	 *                        held by each player, indexed by ordinal
+	 * @param pkPossibleCards (long[]) : the packed sets of the cards each player
+	 *                        can hold, indexed by ordinal
+	 * @throws IllegalArgumentException if the arrays do not have an element per
+	 *                                  player, if the sizes do not add up to the
+	 *                                  number of cards to deal, or if the known
+	 *                                  cards are not disjoint, not among the
+	 *                                  cards to deal, or too many for the size of
+	 *                                  a hand
+	 */
+	public DealSampler(long pkUnseenCards, int[] sizes, long[] pkKnownCards, long[] pkPossibleCards)
+			throws IllegalArgumentException {
+		checkArgument(PackedCardSet.isValid(pkUnseenCards) && sizes.length == PlayerId.COUNT
+				&& pkKnownCards.length == PlayerId.COUNT && pkPossibleCards.length == PlayerId.COUNT);
+
+		int[] needs = new int[PlayerId.COUNT];
+		int totalSize = 0;
+		long known = PackedCardSet.EMPTY;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			checkArgument(PackedCardSet.isValid(pkKnownCards[p]) && (pkKnownCards[p] & known) == 0
+					&& (pkKnownCards[p] & ~pkUnseenCards) == 0);
+			known |= pkKnownCards[p];
+			needs[p] = sizes[p] - PackedCardSet.size(pkKnownCards[p]);
+			checkArgument(needs[p] >= 0);
+			totalSize += sizes[p];
+		}
+		checkArgument(totalSize == PackedCardSet.size(pkUnseenCards));
+		this.pkKnownCards = pkKnownCards.clone();
+
+		int states = 1;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			radix[p] = needs[p] + 1;
+			stride[p] = states;
+			states *= radix[p];
+		}
+		int state = 0;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			state += needs[p] * stride[p];
+		}
+		initialState = state;
+
+		groupCards = new long[GROUP_COUNT];
+		groupSizes = new int[GROUP_COUNT];
+		groupPlayers = new int[GROUP_COUNT][];
+		long free = pkUnseenCards & ~known;
+		int count = groups(free, needs, pkPossibleCards);
+		double[][][][] table = count < 0 ? null : ways(count, states);
+		if (table == null || count(table, count) == 0) {
+			long[] anyCards = new long[PlayerId.COUNT];
+			Arrays.fill(anyCards, PackedCardSet.ALL_CARDS);
+			count = groups(free, needs, anyCards);
+			table = ways(count, states);
+			relaxed = true;
+		} else {
+			relaxed = false;
+		}
+		groupCount = count;
+		ways = table;
+	}
+
+	/**
+	 * Checks if the cards players can hold had to be ignored because no deal
+	 * respected them
+	 *
+	 * @return (boolean) : true if the sampled deals only respect the sizes and
+	 *         the known cards
+	 */
+	public boolean isRelaxed() {
+		return relaxed;
+	}
+
+	/**
+	 * Gets the number of deals respecting the constraints
+	 *
+	 * @return (double) : the number of deals among which the deals are sampled
+	 */
+	public double dealCount() {
+		return count(ways, groupCount);
+	}
+
+	/**
+	 * Samples a deal uniformly among the deals respecting the constraints
+	 *
+	 * @param rng     (SplittableRandom) : the random number generator
+	 * @param pkHands (long[]) : the array, indexed by ordinal, in which the packed
+	 *                hands of the players are written
+	 */
+	public void sample(SplittableRandom rng, long[] pkHands) {
+		assert pkHands.length == PlayerId.COUNT;
+		System.arraycopy(pkKnownCards, 0, pkHands, 0, PlayerId.COUNT);
+
+		int state = initialState;
+		for (int k = 0; k < groupCount; ++k) {
+			long cards = groupCards[k];
+			int left = groupSizes[k];
+			int[] players = groupPlayers[k];
+
+			// Chooses the number of cards of each player but the last one, in turn
+			for (int i = 0; i < players.length - 1; ++i) {
+				int p = players[i];
+				double[][] following = ways[k][i + 1];
+				int max = Math.min(left, need(state, p));
+				double target = rng.nextDouble() * ways[k][i][left][state];
+				int count = 0;
+				double weight = 0;
+				for (; count < max; ++count) {
+					weight += following[left - count][state - count * stride[p]] / FACTORIAL[count];
+					if (target < weight) {
+						break;
+					}
+				}
+				cards = dealRandomCards(rng, cards, count, pkHands, p);
+				left -= count;
+				state -= count * stride[p];
+			}
+			// The last player receives all the cards left
+			int last = players[players.length - 1];
+			pkHands[last] |= cards;
+			state -= left * stride[last];
+		}
+		assert state == 0;
+	}
+
+	/*
+	 * Gets the number of cards a player still needs in a state
+	 */
+	private int need(int state, int p) {
+		return state / stride[p] % radix[p];
+	}
+
+	/*
+	 * Moves count cards chosen uniformly among the given ones to the hand of the
+	 * player p, and returns the cards left
+	 */
+	private static long dealRandomCards(SplittableRandom rng, long cards, int count, long[] pkHands, int p) {
+		for (int i = 0; i < count; ++i) {
+			int pkCard = PackedCardSet.get(cards, rng.nextInt(PackedCardSet.size(cards)));
+			cards = PackedCardSet.remove(cards, pkCard);
+			pkHands[p] = PackedCardSet.add(pkHands[p], pkCard);
+		}
+		return cards;
+	}
+
+	/*
+	 * Groups the free cards by the set of players who still need cards and can
+	 * hold them, stores the groups in increasing order of their sets of players
+	 * and returns their number, or -1 if a card cannot be held by anyone
+	 */
+	private int groups(long free, int[] needs, long[] pkPossibleCards) {
+		long[] cards = new long[GROUP_COUNT];
+		for (long s = free; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			int pkCard = PackedCardSet.lowestCard(s);
+			int group = 0;
+			for (int p = 0; p < PlayerId.COUNT; ++p) {
+				if (needs[p] > 0 && PackedCardSet.contains(pkPossibleCards[p], pkCard)) {
+					group |= 1 << p;
+				}
+			}
+			if (group == 0) {
+				return -1;
+			}
+			cards[group] = PackedCardSet.add(cards[group], pkCard);
+		}
+
+		int count = 0;
+		for (int g = 0; g < GROUP_COUNT; ++g) {
+			if (cards[g] != PackedCardSet.EMPTY) {
+				groupCards[count] = cards[g];
+				groupSizes[count] = PackedCardSet.size(cards[g]);
+				groupPlayers[count] = players(g);
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * Gets the ordinals of the players of a group
+	 */
+	private static int[] players(int group) {
+		int[] players = new int[Integer.bitCount(group)];
+		int i = 0;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			if ((group & (1 << p)) != 0) {
+				players[i++] = p;
+			}
+		}
+		return players;
+	}
+
+	/*
+	 * Computes the table of the numbers of ways to deal the groups (see the field
+	 * ways), from the last group to the first one
+	 */
+	private double[][][][] ways(int count, int states) {
+		double[][][][] table = new double[count][][][];
+		double[] next = new double[states];
+		next[0] = 1;
+		for (int k = count - 1; k >= 0; --k) {
+			int[] players = groupPlayers[k];
+			int size = groupSizes[k];
+			table[k] = new double[players.length][size + 1][states];
+
+			int last = players[players.length - 1];
+			for (int left = 0; left <= size; ++left) {
+				for (int state = 0; state < states; ++state) {
+					if (left <= need(state, last)) {
+						table[k][players.length - 1][left][state] = next[state - left * stride[last]] / FACTORIAL[left];
+					}
+				}
+			}
+			for (int i = players.length - 2; i >= 0; --i) {
+				int p = players[i];
+				for (int left = 0; left <= size; ++left) {
+					for (int state = 0; state < states; ++state) {
+						double sum = 0;
+						int max = Math.min(left, need(state, p));
+						for (int c = 0; c <= max; ++c) {
+							sum += table[k][i + 1][left - c][state - c * stride[p]] / FACTORIAL[c];
+						}
+						table[k][i][left][state] = sum;
+					}
+				}
+			}
+
+			next = new double[states];
+			for (int state = 0; state < states; ++state) {
+				next[state] = FACTORIAL[size] * table[k][0][size][state];
+			}
+		}
+		return table;
+	}
+
+	/*
+	 * Gets the number of deals given the table of the numbers of ways to deal the
+	 * groups
+	 */
+	private double count(double[][][][] table, int count) {
+		if (count == 0) {
+			return initialState == 0 ? 1 : 0;
+		}
+		return FACTORIAL[groupSizes[0]] * table[0][0][groupSizes[0]][initialState];
+	}
+}
@@ -0,0 +1,281 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of the decisions of simulated players, which can be shared by
+ * all the players of the process. A decision is identified by the packed
+ * score, unplayed cards and trick of the turn state in which it was taken
+ * together with the hand of the player, and the least recently used decisions
+ * are evicted first once the cache is full. Decisions are stored for the
+ * canonical position given by PackedColorPermutation, so that a decision is
+ * also found for the positions which only differ from it by a permutation of
+ * the interchangeable colors
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DecisionCache {
+
+	/**
+	 * The number of decisions the shared cache can hold
+	 */
+	public static final int SHARED_CAPACITY = 1 << 16;
+
+	private static DecisionCache shared = null;
+
+	private final int capacity;
+	private final LinkedHashMap<Key, Decision> decisions;
+
+	/**
+	 * Constructs an empty decision cache
+	 *
+	 * @param capacity (int) : the maximum number of decisions held by the cache
+	 * @throws IllegalArgumentException if the capacity is not strictly positive
+	 */
+	public DecisionCache(int capacity) throws IllegalArgumentException {
+		checkArgument(capacity > 0);
+		this.capacity = capacity;
+		this.decisions = new LinkedHashMap<Key, Decision>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Decision> eldest) {
+				return size() > DecisionCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets the decision cache shared by the whole process
+	 *
+	 * @return (DecisionCache) : the shared decision cache
+	 */
+	public static synchronized DecisionCache shared() {
+		if (shared == null) {
+			shared = new DecisionCache(SHARED_CAPACITY);
+		}
+		return shared;
+	}
+
+	/**
+	 * Gets the decision taken in a turn state with a given hand
+	 *
+	 * @param state  (TurnState) : the turn state
+	 * @param pkHand (long) : the packed hand of the player
+	 * @return (Decision) : the decision, or null if it is not in the cache
+	 */
+	public Decision get(TurnState state, long pkHand) {
+		int pkPermutation = PackedColorPermutation.canonical(state.packedTrick(), state.packedUnplayedCards(), pkHand);
+		Key key = canonicalKey(state, pkHand, pkPermutation);
+		Decision decision;
+		synchronized (decisions) {
+			decision = decisions.get(key);
+		}
+		if (decision == null || pkPermutation == PackedColorPermutation.IDENTITY) {
+			return decision;
+		}
+		int pkCard = PackedColorPermutation.permuteCard(PackedColorPermutation.inverse(pkPermutation),
+				decision.pkCard);
+		return new Decision(pkCard, decision.iterations, decision.averagePoints);
+	}
+
+	/**
+	 * Stores the decision taken in a turn state with a given hand, replacing any
+	 * decision previously stored for them
+	 *
+	 * @param state    (TurnState) : the turn state
+	 * @param pkHand   (long) : the packed hand of the player
+	 * @param decision (Decision) : the decision
+	 */
+	public void put(TurnState state, long pkHand, Decision decision) {
+		int pkPermutation = PackedColorPermutation.canonical(state.packedTrick(), state.packedUnplayedCards(), pkHand);
+		Key key = canonicalKey(state, pkHand, pkPermutation);
+		Decision canonical = pkPermutation == PackedColorPermutation.IDENTITY ? decision
+				: new Decision(PackedColorPermutation.permuteCard(pkPermutation, decision.pkCard), decision.iterations,
+						decision.averagePoints);
+		synchronized (decisions) {
+			decisions.put(key, canonical);
+		}
+	}
+
+	/*
+	 * Builds the key of the canonical position of a turn state and a hand
+	 */
+	private static Key canonicalKey(TurnState state, long pkHand, int pkPermutation) {
+		return new Key(state.packedScore(),
+				PackedColorPermutation.permuteCardSet(pkPermutation, state.packedUnplayedCards()),
+				PackedColorPermutation.permuteTrick(pkPermutation, state.packedTrick()),
+				PackedColorPermutation.permuteCardSet(pkPermutation, pkHand));
+	}
+
+	/**
+	 * Gets the number of decisions in the cache
+	 *
+	 * @return (int) : the number of decisions in the cache
+	 */
+	public int size() {
+		synchronized (decisions) {
+			return decisions.size();
+		}
+	}
+
+	/**
+	 * Writes all the decisions of the cache to a file, from the least to the most
+	 * recently used
+	 *
+	 * @param path (Path) : the file
+	 * @throws UncheckedIOException if the file cannot be written
+	 */
+	public void save(Path path) throws UncheckedIOException {
+		List<Map.Entry<Key, Decision>> entries;
+		synchronized (decisions) {
+			entries = new ArrayList<>(decisions.entrySet());
+		}
+
+		try (DataOutputStream s = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			for (Map.Entry<Key, Decision> e : entries) {
+				Key k = e.getKey();
+				Decision d = e.getValue();
+				s.writeLong(k.pkScore);
+				s.writeLong(k.pkUnplayedCards);
+				s.writeInt(k.pkTrick);
+				s.writeLong(k.pkHand);
+				s.writeInt(d.pkCard);
+				s.writeLong(d.iterations);
+				s.writeDouble(d.averagePoints);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Adds the decisions written to a file by save to the cache
+	 *
+	 * @param path (Path) : the file
+	 * @throws UncheckedIOException     if the file cannot be read
+	 * @throws IllegalArgumentException if the file contains an invalid decision
+	 */
+	public void load(Path path) throws UncheckedIOException, IllegalArgumentException {
+		try (DataInputStream s = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			while (true) {
+				long pkScore;
+				try {
+					pkScore = s.readLong();
+				} catch (EOFException e) {
+					return;
+				}
+				long pkUnplayedCards = s.readLong();
+				int pkTrick = s.readInt();
+				long pkHand = s.readLong();
+				Decision d = new Decision(s.readInt(), s.readLong(), s.readDouble());
+				checkArgument(PackedCardSet.isValid(pkHand) && PackedCard.isValid(d.pkCard));
+				put(TurnState.ofPackedComponents(pkScore, pkUnplayedCards, pkTrick), pkHand, d);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * A decision of a simulated player : the card it chose, along with the
+	 * statistics of the search root that led to it
+	 *
+	 * @author Aman Bansal (297535)
+	 * @author Julian Blackwell (289803)
+	 */
+	public static final class Decision {
+		private final int pkCard;
+		private final long iterations;
+		private final double averagePoints;
+
+		/**
+		 * Constructs a decision
+		 *
+		 * @param pkCard        (int) : the packed card chosen
+		 * @param iterations    (long) : the number of iterations of the search
+		 * @param averagePoints (double) : the average number of points obtained by
+		 *                      the search when playing the card
+		 */
+		public Decision(int pkCard, long iterations, double averagePoints) {
+			this.pkCard = pkCard;
+			this.iterations = iterations;
+			this.averagePoints = averagePoints;
+		}
+
+		/**
+		 * Gets the packed card chosen
+		 *
+		 * @return (int) : the packed card chosen
+		 */
+		public int packedCard() {
+			return pkCard;
+		}
+
+		/**
+		 * Gets the number of iterations of the search
+		 *
+		 * @return (long) : the number of iterations of the search
+		 */
+		public long iterations() {
+			return iterations;
+		}
+
+		/**
+		 * Gets the average number of points obtained by the search when playing the
+		 * chosen card
+		 *
+		 * @return (double) : the average number of points of the chosen card
+		 */
+		public double averagePoints() {
+			return averagePoints;
+		}
+	}
+
+	private static final class Key {
+		private final long pkScore;
+		private final long pkUnplayedCards;
+		private final int pkTrick;
+		private final long pkHand;
+
+		Key(long pkScore, long pkUnplayedCards, int pkTrick, long pkHand) {
+			this.pkScore = pkScore;
+			this.pkUnplayedCards = pkUnplayedCards;
+			this.pkTrick = pkTrick;
+			this.pkHand = pkHand;
+		}
+
+		@Override
+		public boolean equals(Object that) {
+			if (!(that instanceof Key)) {
+				return false;
+			}
+			Key k = (Key) that;
+			return k.pkScore == pkScore && k.pkUnplayedCards == pkUnplayedCards && k.pkTrick == pkTrick
+					&& k.pkHand == pkHand;
+		}
+
+		@Override
+		public int hashCode() {
+			long h = pkScore * 31 + pkUnplayedCards;
+			h = h * 31 + pkTrick;
+			h = h * 31 + pkHand;
+			return Long.hashCode(h * 0x9E3779B97F4A7C15L);
+		}
+	}
+}
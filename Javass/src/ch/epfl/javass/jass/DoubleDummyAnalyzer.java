@@ -0,0 +1,151 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Solves batches of deals double dummy, in parallel in a fork/join pool, which
+ * gives the points a perfect first team makes with each deal (the par of the
+ * deal) to compare the players with. A deal is written on a line as the four
+ * hands, as hexadecimal packed card sets, the trump and the first player, for
+ * instance "1ff 1ff0000 1ff00000000 1ff000000000000 SPADE PLAYER_1". The
+ * results are written in the order of the deals as soon as they are known, one
+ * line per deal made of the deal and its par
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DoubleDummyAnalyzer {
+
+	// The number of deals solved ahead of the one to write, per thread
+	private static final int DEALS_AHEAD_PER_THREAD = 4;
+
+	// The solver of each thread of the pools, whose table is reused from one deal
+	// to the next
+	private static final ThreadLocal<DoubleDummySolver> SOLVERS = ThreadLocal.withInitial(DoubleDummySolver::new);
+
+	private DoubleDummyAnalyzer() {
+	}
+
+	/**
+	 * Creates the position at the beginning of a deal
+	 *
+	 * @param pkHands     (long[]) : the packed hands of the players, indexed by
+	 *                    ordinal, which must contain all the cards
+	 * @param trump       (Color) : the trump
+	 * @param firstPlayer (PlayerId) : the player who plays first
+	 * @return (Position) : the position at the beginning of the deal
+	 * @throws IllegalArgumentException if the hands do not contain all the cards
+	 *                                  or are not disjoint
+	 */
+	public static Position deal(long[] pkHands, Color trump, PlayerId firstPlayer)
+			throws IllegalArgumentException {
+		return Position.of(PackedScore.INITIAL, PackedCardSet.ALL_CARDS,
+				PackedTrick.firstEmpty(trump, firstPlayer), pkHands);
+	}
+
+	/**
+	 * Deals the cards randomly and chooses the trump randomly, the first player
+	 * being the one who holds the seven of diamonds, as at the beginning of a game
+	 *
+	 * @param rng (SplittableRandom) : the generator dealing the cards
+	 * @return (Position) : the position at the beginning of the deal
+	 */
+	public static Position randomDeal(SplittableRandom rng) {
+		long[] pkHands = new long[PlayerId.COUNT];
+		long deck = PackedCardSet.ALL_CARDS;
+		for (int k = 0; deck != PackedCardSet.EMPTY; ++k) {
+			int pkCard = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+			deck = PackedCardSet.remove(deck, pkCard);
+			pkHands[k % PlayerId.COUNT] = PackedCardSet.add(pkHands[k % PlayerId.COUNT], pkCard);
+		}
+
+		int sevenOfDiamonds = PackedCard.pack(Color.DIAMOND, Card.Rank.SEVEN);
+		PlayerId first = PlayerId.PLAYER_1;
+		for (PlayerId p : PlayerId.ALL) {
+			if (PackedCardSet.contains(pkHands[p.ordinal()], sevenOfDiamonds)) {
+				first = p;
+			}
+		}
+		return deal(pkHands, Color.ALL.get(rng.nextInt(Color.COUNT)), first);
+	}
+
+	/**
+	 * Parses a deal written on a line
+	 *
+	 * @param line (String) : the line
+	 * @return (Position) : the position at the beginning of the deal
+	 * @throws IllegalArgumentException if the line is not a valid deal
+	 */
+	public static Position parseDeal(String line) throws IllegalArgumentException {
+		String[] parts = line.trim().split("\\s+");
+		checkArgument(parts.length == PlayerId.COUNT + 2);
+		long[] pkHands = new long[PlayerId.COUNT];
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			pkHands[p] = Long.parseUnsignedLong(parts[p], 16);
+			checkArgument(PackedCardSet.isValid(pkHands[p]));
+		}
+		return deal(pkHands, Color.valueOf(parts[PlayerId.COUNT]), PlayerId.valueOf(parts[PlayerId.COUNT + 1]));
+	}
+
+	/**
+	 * Writes a deal on a line
+	 *
+	 * @param deal (Position) : the position at the beginning of the deal
+	 * @return (String) : the line of the deal, without line separator
+	 */
+	public static String formatDeal(Position deal) {
+		StringJoiner j = new StringJoiner(" ");
+		for (PlayerId p : PlayerId.ALL) {
+			j.add(Long.toHexString(deal.packedHand(p)));
+		}
+		int pkTrick = deal.packedTrick();
+		j.add(PackedTrick.trump(pkTrick).name());
+		j.add(PackedTrick.player(pkTrick, 0).name());
+		return j.toString();
+	}
+
+	/**
+	 * Solves deals in parallel and writes the results as soon as they are known.
+	 * Only a few deals per thread are read ahead, so that the deals can be read
+	 * from a file of any size
+	 *
+	 * @param deals (Iterator<Position>) : the deals, given by the positions
+	 *              at their beginning
+	 * @param pool  (ForkJoinPool) : the pool solving the deals
+	 * @param out   (Writer) : the writer of the results, which is flushed after
+	 *              each result
+	 * @return (int) : the number of deals solved
+	 * @throws IOException if an error occurs while writing the results
+	 */
+	public static int analyze(Iterator<Position> deals, ForkJoinPool pool, Writer out) throws IOException {
+		int ahead = DEALS_AHEAD_PER_THREAD * pool.getParallelism();
+		Queue<Position> pending = new ArrayDeque<>();
+		Queue<ForkJoinTask<Integer>> tasks = new ArrayDeque<>();
+
+		int count = 0;
+		while (deals.hasNext() || !tasks.isEmpty()) {
+			while (deals.hasNext() && tasks.size() < ahead) {
+				Position deal = deals.next();
+				pending.add(deal);
+				tasks.add(pool.submit(() -> SOLVERS.get().solve(deal)));
+			}
+			int par = tasks.remove().join();
+			out.write(formatDeal(pending.remove()) + " " + par + System.lineSeparator());
+			out.flush();
+			++count;
+		}
+		return count;
+	}
+}
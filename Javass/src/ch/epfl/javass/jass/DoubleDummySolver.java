@@ -0,0 +1,417 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import ch.epfl.javass.bits.BitLayout.Field32;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Solves positions whose hands are all known (double dummy), that is
+ * determines the points the first team makes at the end of the turn when it
+ * tries to make as many points as possible and the second team tries to let it
+ * make as few as possible, the second team trying to make a match at equal
+ * points. The solver searches the tree of the positions with alpha-beta pruning
+ * on the packed card sets of the hands, plays only one of the cards of a hand
+ * which are equivalent (same color and points, and no other card between
+ * them), and keeps the bounds of the values of the positions met after a
+ * complete trick in a table of fixed size, so that most transpositions are
+ * solved once. The exact value is found by searches with null windows, which
+ * halve the interval of the value each time. A solver is not thread-safe, but
+ * can be used for several positions one after the other
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class DoubleDummySolver {
+
+	/**
+	 * The default number of bits of the number of entries of the table
+	 */
+	public static final int DEFAULT_TABLE_BITS = 20;
+
+	private static final int CARD_COUNT = Card.Color.COUNT * Card.Rank.COUNT;
+
+	// The teams which have won all the tricks collected so far
+	private static final int NO_SWEEP = 0, TEAM_1_SWEEP = 1, TEAM_2_SWEEP = 2, NO_TRICK = 3;
+
+	// The value of a position is twice the points of the first team, plus one
+	// unless the second team makes a match, so that the first team prevents it at
+	// equal points
+	private static final int NO_MATCH_2 = 1;
+
+	// The bounds of the value of a position, the best card found and the solve
+	// during which they were found, packed in an int
+	private static final Field32 LOWER = Field32.of(0, 10);
+	private static final Field32 UPPER = LOWER.next(10);
+	private static final Field32 BEST_CARD = UPPER.next(6);
+	private static final Field32 GENERATION = BEST_CARD.next(6);
+
+	// The leader and the sweep state are stored in the unused bits of the set of
+	// unplayed cards of a key
+	private static final int LEADER_SHIFT = Card.Rank.COUNT, SWEEP_SHIFT = LEADER_SHIFT + 2;
+
+	private final long[] pkHands = new long[PlayerId.COUNT];
+	// The cards to search and their order, indexed by the number of unplayed cards
+	private final int[][] cards = new int[CARD_COUNT + 1][Jass.HAND_SIZE];
+	private final int[][] orders = new int[CARD_COUNT + 1][Jass.HAND_SIZE];
+	// The table of the positions met after a complete trick : the three words of
+	// the key of the entry i are at the indices 3 * i and following
+	private final int tableMask;
+	private final long[] keys;
+	private final int[] entries;
+	// The entries of the previous solves are ignored, without clearing the table
+	private int generation = 0;
+	private Color trump;
+	private int unplayedPoints;
+	private long nodes;
+	private TeamId matchTeam;
+	// The best card found by the last call to searchCards
+	private int bestCard;
+
+	/**
+	 * Constructs a solver with a table of the default size
+	 */
+	public DoubleDummySolver() {
+		this(DEFAULT_TABLE_BITS);
+	}
+
+	/**
+	 * Constructs a solver with a table of a given size
+	 *
+	 * @param tableBits (int) : the number of bits of the number of entries of the
+	 *                  table, which takes 28 bytes per entry
+	 * @throws IllegalArgumentException if the number of bits is not between 0 and
+	 *                                  26 (included)
+	 */
+	public DoubleDummySolver(int tableBits) throws IllegalArgumentException {
+		checkArgument(0 <= tableBits && tableBits <= 26);
+		tableMask = (1 << tableBits) - 1;
+		keys = new long[3 << tableBits];
+		entries = new int[1 << tableBits];
+	}
+
+	/**
+	 * Solves a position, the transpositions of the previous positions being
+	 * forgotten
+	 *
+	 * @param position (Position) : the position
+	 * @return (int) : the points of the first team at the end of the turn (those
+	 *         of the score of the position included) when both teams play
+	 *         perfectly
+	 */
+	public int solve(Position position) {
+		for (PlayerId p : PlayerId.ALL) {
+			pkHands[p.ordinal()] = position.packedHand(p);
+		}
+		return solveHands(position.packedScore(), position.packedTrick());
+	}
+
+	/*
+	 * Solves the position of a score, a trick and the hands of the players
+	 * (indexed by ordinal), without allocating anything, so that the rollouts of
+	 * the MCTS players can end with it. The hands are copied, not modified
+	 */
+	int solve(long pkScore, int pkTrick, long[] pkHands) {
+		System.arraycopy(pkHands, 0, this.pkHands, 0, PlayerId.COUNT);
+		return solveHands(pkScore, pkTrick);
+	}
+
+	/*
+	 * Solves the position of a score, a trick and the hands copied in pkHands,
+	 * whose union is the set of the unplayed cards
+	 */
+	private int solveHands(long pkScore, int pkTrick) {
+		generation = (generation + 1) % (1 << GENERATION.size());
+		if (generation == 0) {
+			// The table is cleared once every 63 solves
+			Arrays.fill(entries, 0);
+			generation = 1;
+		}
+		nodes = 0;
+		matchTeam = null;
+
+		int points = PackedScore.turnPoints(pkScore, TeamId.TEAM_1);
+		if (pkTrick == PackedTrick.INVALID) {
+			return points;
+		}
+		trump = PackedTrick.trump(pkTrick);
+		unplayedPoints = pointsOf(pkHands[0] | pkHands[1] | pkHands[2] | pkHands[3]);
+		for (int i = 0; i < PackedTrick.size(pkTrick); ++i) {
+			unplayedPoints += PackedCard.points(trump, PackedTrick.card(pkTrick, i));
+		}
+
+		int tricks1 = PackedScore.turnTricks(pkScore, TeamId.TEAM_1);
+		int tricks2 = PackedScore.turnTricks(pkScore, TeamId.TEAM_2);
+		int sweep = tricks1 + tricks2 == 0 ? NO_TRICK
+				: tricks2 == 0 ? TEAM_1_SWEEP : tricks1 == 0 ? TEAM_2_SWEEP : NO_SWEEP;
+
+		// Searches with null windows, which prune much more than a full window,
+		// halving the interval of the value each time, which starts at the points
+		// left and the match bonus if the first team can still make it
+		int lower = 0, upper = maxValue(sweep);
+		while (lower < upper) {
+			int middle = (lower + upper + 1) / 2;
+			int value = search(pkTrick, sweep, middle - 1, middle);
+			if (value >= middle) {
+				lower = value;
+			} else {
+				upper = value;
+			}
+		}
+		int turnPoints = lower >> 1;
+		if (turnPoints > unplayedPoints + Jass.LAST_TRICK_ADDITIONAL_POINTS) {
+			matchTeam = TeamId.TEAM_1;
+		} else if ((lower & NO_MATCH_2) == 0) {
+			matchTeam = TeamId.TEAM_2;
+		}
+		return points + turnPoints;
+	}
+
+	/*
+	 * Gets the team which makes a match when both teams play the last position
+	 * solved perfectly, or null if no team makes one
+	 */
+	TeamId matchTeam() {
+		return matchTeam;
+	}
+
+	/**
+	 * Gets the number of positions searched by the last call to solve
+	 *
+	 * @return (long) : the number of positions searched
+	 */
+	public long nodeCount() {
+		return nodes;
+	}
+
+	/*
+	 * Searches the value of the first team from a trick until the end of the
+	 * turn, which is exact if it is strictly between alpha and beta, and
+	 * otherwise a bound on the same side
+	 */
+	private int search(int pkTrick, int sweep, int alpha, int beta) {
+		++nodes;
+		if (!PackedTrick.isEmpty(pkTrick)) {
+			return searchCards(pkTrick, sweep, alpha, beta, PackedCard.INVALID);
+		}
+
+		long key0 = pkHands[1] | pkHands[3], key1 = pkHands[2] | pkHands[3];
+		long key2 = pkHands[0] | pkHands[1] | pkHands[2] | pkHands[3]
+				| (long) PackedTrick.player(pkTrick, 0).ordinal() << LEADER_SHIFT | (long) sweep << SWEEP_SHIFT;
+		int i = index(key0, key1, key2);
+		int lower, upper, firstCard;
+		if (GENERATION.get(entries[i]) == generation && keys[3 * i] == key0 && keys[3 * i + 1] == key1
+				&& keys[3 * i + 2] == key2) {
+			lower = LOWER.get(entries[i]);
+			upper = UPPER.get(entries[i]);
+			firstCard = BEST_CARD.get(entries[i]);
+		} else {
+			lower = 0;
+			upper = maxValue(sweep);
+			firstCard = PackedCard.INVALID;
+		}
+		if (lower >= beta || lower == upper) {
+			return lower;
+		}
+		if (upper <= alpha) {
+			return upper;
+		}
+
+		int a = Math.max(alpha, lower), b = Math.min(beta, upper);
+		int value = searchCards(pkTrick, sweep, a, b, firstCard);
+		if (value <= a) {
+			upper = Math.min(upper, value);
+		} else if (value >= b) {
+			lower = Math.max(lower, value);
+		} else {
+			lower = upper = value;
+		}
+		keys[3 * i] = key0;
+		keys[3 * i + 1] = key1;
+		keys[3 * i + 2] = key2;
+		entries[i] = GENERATION.with(BEST_CARD.with(UPPER.with(LOWER.with(0, lower), upper), bestCard), generation);
+		return value;
+	}
+
+	/*
+	 * Computes the greatest value of a position from the points left and the
+	 * sweep state
+	 */
+	private int maxValue(int sweep) {
+		int points = unplayedPoints + Jass.LAST_TRICK_ADDITIONAL_POINTS
+				+ (sweep == TEAM_1_SWEEP || sweep == NO_TRICK ? Jass.MATCH_ADDITIONAL_POINTS : 0);
+		return 2 * points + NO_MATCH_2;
+	}
+
+	/*
+	 * Computes the index of the entry of the table of a key
+	 */
+	private int index(long key0, long key1, long key2) {
+		long h = (key0 * 0x9E3779B97F4A7C15L ^ key1) * 0xC2B2AE3D27D4EB4FL ^ key2;
+		h *= 0x165667B19E3779F9L;
+		return (int) (h >>> 40) & tableMask;
+	}
+
+	/*
+	 * Searches the cards the next player of a trick which is not full can play,
+	 * starting with the given one if it is valid
+	 */
+	private int searchCards(int pkTrick, int sweep, int alpha, int beta, int firstCard) {
+		int size = PackedTrick.size(pkTrick);
+		int p = PackedTrick.player(pkTrick, size).ordinal();
+		boolean maximizing = PlayerId.ALL.get(p).team() == TeamId.TEAM_1;
+		long hand = pkHands[p];
+		long others = PackedCardSet.EMPTY;
+		for (long h : pkHands) {
+			others |= h;
+		}
+		others &= ~hand;
+		int count = orderedCards(pkTrick, p, hand, others, firstCard);
+		int[] cards = this.cards[PackedCardSet.size(others | hand)];
+
+		int best = maximizing ? -1 : Integer.MAX_VALUE, bestCard = cards[0];
+		for (int i = 0; i < count; ++i) {
+			int pkCard = cards[i];
+			pkHands[p] = PackedCardSet.remove(hand, pkCard);
+			int value = afterCard(PackedTrick.withAddedCard(pkTrick, pkCard), sweep, alpha, beta);
+			pkHands[p] = hand;
+
+			if (maximizing ? value > best : value < best) {
+				best = value;
+				bestCard = pkCard;
+			}
+			if (maximizing) {
+				alpha = Math.max(alpha, value);
+			} else {
+				beta = Math.min(beta, value);
+			}
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		this.bestCard = bestCard;
+		return best;
+	}
+
+	/*
+	 * Searches the value of the first team after a card was added to a trick,
+	 * collecting the trick if it is full
+	 */
+	private int afterCard(int pkTrick, int sweep, int alpha, int beta) {
+		if (!PackedTrick.isFull(pkTrick)) {
+			return search(pkTrick, sweep, alpha, beta);
+		}
+
+		TeamId winner = PackedTrick.winningPlayer(pkTrick).team();
+		int teamSweep = winner == TeamId.TEAM_1 ? TEAM_1_SWEEP : TEAM_2_SWEEP;
+		int nextSweep = sweep == NO_TRICK || sweep == teamSweep ? teamSweep : NO_SWEEP;
+		int trickPoints = PackedTrick.points(pkTrick);
+		int points = winner == TeamId.TEAM_1 ? trickPoints : 0;
+		if (PackedTrick.isLast(pkTrick)) {
+			return nextSweep == TEAM_1_SWEEP ? 2 * (points + Jass.MATCH_ADDITIONAL_POINTS) + NO_MATCH_2
+					: 2 * points + (nextSweep == TEAM_2_SWEEP ? 0 : NO_MATCH_2);
+		}
+		unplayedPoints -= trickPoints;
+		int value = 2 * points
+				+ search(PackedTrick.nextEmpty(pkTrick), nextSweep, alpha - 2 * points, beta - 2 * points);
+		unplayedPoints += trickPoints;
+		return value;
+	}
+
+	/*
+	 * Writes the cards the player of ordinal p can play on a trick in the array of
+	 * the cards of the level, keeping only one card of each group of equivalent
+	 * cards and placing first the given card if it is valid, then those which
+	 * seem the best, and returns their number.
+	 * The cards are equivalent if they have the same color and points and no card
+	 * of another player or of the trick is between them
+	 */
+	private int orderedCards(int pkTrick, int p, long pkHand, long others, int firstCard) {
+		int level = PackedCardSet.size(others | pkHand);
+		int[] cards = this.cards[level], orders = this.orders[level];
+		long between = others;
+		for (int i = 0; i < PackedTrick.size(pkTrick); ++i) {
+			between = PackedCardSet.add(between, PackedTrick.card(pkTrick, i));
+		}
+		TeamId team = PlayerId.ALL.get(p).team();
+
+		int count = 0;
+		long distinct = PackedCardSet.EMPTY;
+		long playable = PackedTrick.playableCards(pkTrick, pkHand);
+		for (long s = playable; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			int pkCard = PackedCardSet.lowestCard(s);
+			boolean equivalent = false;
+			for (long d = PackedCardSet.subsetOfColor(distinct, PackedCard.color(pkCard)); d != PackedCardSet.EMPTY
+					&& !equivalent; d = PackedCardSet.withoutLowestCard(d)) {
+				equivalent = equivalent(pkCard, PackedCardSet.lowestCard(d), between);
+			}
+			if (equivalent) {
+				continue;
+			}
+			distinct = PackedCardSet.add(distinct, pkCard);
+
+			// The cards which make the team win the trick come first, the most
+			// valuable first, and then the other cards, the least valuable first
+			int points = PackedCard.points(trump, pkCard);
+			boolean wins = PackedTrick.isEmpty(pkTrick) ? isHighest(pkCard, others)
+					: PackedTrick.winningPlayer(PackedTrick.withAddedCard(pkTrick, pkCard)).team() == team;
+			int order = pkCard == firstCard ? Integer.MIN_VALUE : wins ? -points : points + 1;
+			int i = count++;
+			while (i > 0 && orders[i - 1] > order) {
+				cards[i] = cards[i - 1];
+				orders[i] = orders[i - 1];
+				--i;
+			}
+			cards[i] = pkCard;
+			orders[i] = order;
+		}
+		return count;
+	}
+
+	/*
+	 * Determines if a card is better than all the cards of its color held by the
+	 * other players
+	 */
+	private boolean isHighest(int pkCard, long others) {
+		long sameColor = PackedCardSet.subsetOfColor(others, PackedCard.color(pkCard));
+		for (long s = sameColor; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			if (PackedCard.isBetter(trump, PackedCardSet.lowestCard(s), pkCard)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Determines if two cards of the same color are equivalent, given the cards
+	 * of the other players
+	 */
+	private boolean equivalent(int pkCard1, int pkCard2, long others) {
+		if (PackedCard.points(trump, pkCard1) != PackedCard.points(trump, pkCard2)) {
+			return false;
+		}
+		int lower = PackedCard.isBetter(trump, pkCard1, pkCard2) ? pkCard2 : pkCard1;
+		int higher = lower == pkCard1 ? pkCard2 : pkCard1;
+		long between = PackedCardSet.subsetOfColor(others, PackedCard.color(pkCard1));
+		for (long s = between; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			int pkCard = PackedCardSet.lowestCard(s);
+			if (PackedCard.isBetter(trump, pkCard, lower) && PackedCard.isBetter(trump, higher, pkCard)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Computes the points of a set of cards
+	 */
+	private int pointsOf(long pkCards) {
+		int points = 0;
+		for (long s = pkCards; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			points += PackedCard.points(trump, PackedCardSet.lowestCard(s));
+		}
+		return points;
+	}
+}
@@ -0,0 +1,137 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.SplittableRandom;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Ends the random turns of the rollouts of an MCTS tree once only a few tricks
+ * are left to play : the cards the player does not know are dealt randomly to
+ * the other players, then the last tricks are solved exactly by a
+ * DoubleDummySolver instead of being played randomly. An endgame solver holds
+ * the hands it deals and its solver, so each tree needs its own
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+final class EndgameSolver {
+
+	/**
+	 * The greatest number of tricks an endgame solver can solve, whose solve
+	 * stays cheap compared to the rest of an iteration
+	 */
+	static final int MAX_TRICKS = 3;
+
+	// The positions met after a complete trick of the last three tricks are few
+	private static final int TABLE_BITS = 8;
+
+	private final int tricks;
+	private final DoubleDummySolver solver = new DoubleDummySolver(TABLE_BITS);
+	private final long[] pkHands = new long[PlayerId.COUNT];
+
+	/**
+	 * Constructs an endgame solver
+	 *
+	 * @param tricks (int) : the number of tricks left from which the turns are
+	 *               solved
+	 * @throws IllegalArgumentException if the number of tricks is not between 1
+	 *                                  and MAX_TRICKS (both included)
+	 */
+	EndgameSolver(int tricks) throws IllegalArgumentException {
+		checkArgument(1 <= tricks && tricks <= MAX_TRICKS);
+		this.tricks = tricks;
+	}
+
+	/**
+	 * Checks if the turn of a rollout is solved from a trick
+	 *
+	 * @param pkTrick (int) : the packed trick, which can be invalid at the end of
+	 *                the turn
+	 * @return (boolean) : true if the trick is empty and only as many tricks as
+	 *         the solver solves are left to play
+	 */
+	boolean covers(int pkTrick) {
+		return pkTrick != PackedTrick.INVALID && PackedTrick.isEmpty(pkTrick)
+				&& PackedTrick.index(pkTrick) == Jass.TRICKS_PER_TURN - tricks;
+	}
+
+	/**
+	 * Determines the score at the end of the turn of a rollout, once the cards
+	 * of the other players are dealt randomly and the last tricks are played
+	 * perfectly by both teams
+	 *
+	 * @param pkScore     (long) : the packed score before the last tricks
+	 * @param pkTrick     (int) : the empty packed trick of the first of the last
+	 *                    tricks
+	 * @param ownId       (PlayerId) : the player whose hand is known
+	 * @param ownHand     (long) : the packed hand of the player
+	 * @param othersCards (long) : the packed cards of the other players
+	 * @param rng         (SplittableRandom) : the generator dealing the cards
+	 * @return (long) : the packed score at the end of the turn
+	 */
+	long finalScore(long pkScore, int pkTrick, PlayerId ownId, long ownHand, long othersCards,
+			SplittableRandom rng) {
+		for (PlayerId p : PlayerId.ALL) {
+			long pkHand = PackedCardSet.EMPTY;
+			if (p == ownId) {
+				pkHand = ownHand;
+			} else {
+				for (int i = 0; i < tricks; ++i) {
+					int pkCard = PackedCardSet.get(othersCards, rng.nextInt(PackedCardSet.size(othersCards)));
+					othersCards = PackedCardSet.remove(othersCards, pkCard);
+					pkHand = PackedCardSet.add(pkHand, pkCard);
+				}
+			}
+			pkHands[p.ordinal()] = pkHand;
+		}
+		return finalScore(pkScore, pkTrick, pkHands);
+	}
+
+	/**
+	 * Determines the score at the end of the turn when the last tricks are
+	 * played perfectly by both teams from known hands. The solver only gives the
+	 * points of the first team and the team making a match, so each team
+	 * receives all of its points with its first trick, which gives the same turn
+	 * points, and the tricks are shared so that a team has all the tricks of the
+	 * turn only if it makes a match
+	 *
+	 * @param pkScore (long) : the packed score before the last tricks
+	 * @param pkTrick (int) : the empty packed trick of the first of the last
+	 *                tricks
+	 * @param pkHands (long[]) : the packed hands of the players, indexed by
+	 *                ordinal, which are not modified
+	 * @return (long) : the packed score at the end of the turn
+	 */
+	long finalScore(long pkScore, int pkTrick, long[] pkHands) {
+		assert covers(pkTrick);
+		Color trump = PackedTrick.trump(pkTrick);
+		int remainingPoints = Jass.LAST_TRICK_ADDITIONAL_POINTS;
+		long unplayed = pkHands[0] | pkHands[1] | pkHands[2] | pkHands[3];
+		for (long s = unplayed; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+			remainingPoints += PackedCard.points(trump, PackedCardSet.lowestCard(s));
+		}
+
+		int points = solver.solve(pkScore, pkTrick, pkHands) - PackedScore.turnPoints(pkScore, TeamId.TEAM_1);
+		TeamId matchTeam = solver.matchTeam();
+		int won = points >= remainingPoints ? tricks : points > 0 ? 1 : 0;
+		if (won == tricks && matchTeam != TeamId.TEAM_1 && PackedScore.turnTricks(pkScore, TeamId.TEAM_2) == 0) {
+			// The second team wins a trick without points to prevent the match
+			--won;
+		} else if (won == 0 && matchTeam != TeamId.TEAM_2 && PackedScore.turnTricks(pkScore, TeamId.TEAM_1) == 0) {
+			// The first team wins a trick without points to prevent the match
+			++won;
+		}
+		for (int i = 0; i < tricks; ++i) {
+			if (i < won) {
+				pkScore = PackedScore.withAdditionalTrick(pkScore, TeamId.TEAM_1,
+						i == 0 ? Math.min(points, remainingPoints) : 0);
+			} else {
+				pkScore = PackedScore.withAdditionalTrick(pkScore, TeamId.TEAM_2,
+						i == won ? remainingPoints - Math.min(points, remainingPoints) : 0);
+			}
+		}
+		return pkScore;
+	}
+}
@@ -0,0 +1,227 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+/**
+ * Maps the sets of k cards to the integers between 0 (included) and the number
+ * of such sets (excluded) and back, using the combinatorial number system, so
+ * that data about hands can be stored in flat arrays or files indexed by hand.
+ * The colour-canonical variants first map a hand to a representative of the
+ * hands which only differ from it by a permutation of the colors (other than
+ * trump), so that all of these hands share the same index
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class HandIndex {
+
+	private HandIndex() {
+	}
+
+	/**
+	 * The number of cards of a game, and therefore the maximal size of a set
+	 */
+	public static final int CARD_COUNT = Color.COUNT * Rank.COUNT;
+
+	/*
+	 * BINOMIAL[n][k] is the number of subsets of k elements of a set of n
+	 * elements
+	 */
+	private static final long[][] BINOMIAL = binomial();
+
+	private static long[][] binomial() {
+		long[][] array = new long[CARD_COUNT + 1][CARD_COUNT + 1];
+		for (int n = 0; n <= CARD_COUNT; ++n) {
+			array[n][0] = 1;
+			for (int k = 1; k <= n; ++k) {
+				array[n][k] = array[n - 1][k - 1] + array[n - 1][k];
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Gets the number of sets of a given number of cards
+	 *
+	 * @param size (int) : the number of cards of the sets
+	 * @return (long) : the number of sets of that many cards
+	 * @throws IllegalArgumentException if the size is not between 0 and 36 (both
+	 *                                  included)
+	 */
+	public static long count(int size) throws IllegalArgumentException {
+		checkArgument(0 <= size && size <= CARD_COUNT);
+		return BINOMIAL[CARD_COUNT][size];
+	}
+
+	/**
+	 * Determines the index of a packed card set among the sets of the same size
+	 *
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (long) : the index of the set, between 0 (included) and
+	 *         count(size) (excluded)
+	 */
+	public static long rank(long pkCardSet) {
+		assert PackedCardSet.isValid(pkCardSet);
+		long rank = 0;
+		int k = 1;
+		for (long s = PackedCardSet.compact(pkCardSet); s != 0; s &= s - 1) {
+			rank += BINOMIAL[Long.numberOfTrailingZeros(s)][k++];
+		}
+		return rank;
+	}
+
+	/**
+	 * Determines the packed card set of a given size and index
+	 *
+	 * @param rank (long) : the index of the set
+	 * @param size (int) : the number of cards of the set
+	 * @return (long) : the packed card set whose index is the given one
+	 * @throws IllegalArgumentException if the size is not between 0 and 36 (both
+	 *                                  included) or if the index is not between 0
+	 *                                  (included) and count(size) (excluded)
+	 */
+	public static long unrank(long rank, int size) throws IllegalArgumentException {
+		checkArgument(0 <= rank && rank < count(size));
+		long compact = 0;
+		int n = CARD_COUNT;
+		for (int k = size; k > 0; --k) {
+			// The k-th card is the highest one whose binomial does not exceed the rest
+			do {
+				--n;
+			} while (BINOMIAL[n][k] > rank);
+			rank -= BINOMIAL[n][k];
+			compact |= 1L << n;
+		}
+		return PackedCardSet.expand(compact);
+	}
+
+	/**
+	 * Gets the number of subsets of a given number of cards of a packed card set
+	 *
+	 * @param size       (int) : the number of cards of the subsets
+	 * @param pkSuperset (long) : the packed card set the subsets are taken from
+	 * @return (long) : the number of subsets of that many cards
+	 * @throws IllegalArgumentException if the size is not between 0 and the size
+	 *                                  of the superset (both included)
+	 */
+	public static long count(int size, long pkSuperset) throws IllegalArgumentException {
+		assert PackedCardSet.isValid(pkSuperset);
+		int n = PackedCardSet.size(pkSuperset);
+		checkArgument(0 <= size && size <= n);
+		return BINOMIAL[n][size];
+	}
+
+	/**
+	 * Determines the index of a packed card set among the subsets of the same size
+	 * of a packed card set containing it, so that the sets of cards left by other
+	 * hands are indexed densely
+	 *
+	 * @param pkCardSet  (long) : the packed card set
+	 * @param pkSuperset (long) : the packed card set containing it
+	 * @return (long) : the index of the set, between 0 (included) and count(size,
+	 *         pkSuperset) (excluded)
+	 */
+	public static long rank(long pkCardSet, long pkSuperset) {
+		assert PackedCardSet.isValid(pkCardSet) && PackedCardSet.isValid(pkSuperset)
+				&& PackedCardSet.difference(pkCardSet, pkSuperset) == PackedCardSet.EMPTY;
+		long superset = PackedCardSet.compact(pkSuperset);
+		long rank = 0;
+		int k = 1;
+		for (long s = PackedCardSet.compact(pkCardSet); s != 0; s &= s - 1) {
+			// The position of the card among the cards of the superset
+			rank += BINOMIAL[Long.bitCount(superset & ((s & -s) - 1))][k++];
+		}
+		return rank;
+	}
+
+	/**
+	 * Determines the subset of a given size and index of a packed card set
+	 *
+	 * @param rank       (long) : the index of the subset
+	 * @param size       (int) : the number of cards of the subset
+	 * @param pkSuperset (long) : the packed card set the subset is taken from
+	 * @return (long) : the packed subset whose index is the given one
+	 * @throws IllegalArgumentException if the size is not between 0 and the size
+	 *                                  of the superset (both included) or if the
+	 *                                  index is not between 0 (included) and
+	 *                                  count(size, pkSuperset) (excluded)
+	 */
+	public static long unrank(long rank, int size, long pkSuperset) throws IllegalArgumentException {
+		checkArgument(0 <= rank && rank < count(size, pkSuperset));
+		long subset = PackedCardSet.EMPTY;
+		int n = PackedCardSet.size(pkSuperset);
+		for (int k = size; k > 0; --k) {
+			do {
+				--n;
+			} while (BINOMIAL[n][k] > rank);
+			rank -= BINOMIAL[n][k];
+			subset = PackedCardSet.add(subset, PackedCardSet.get(pkSuperset, n));
+		}
+		return subset;
+	}
+
+	/**
+	 * Determines the permutation of the colors mapping a hand to the
+	 * representative of the hands which only differ from it by a permutation of
+	 * the colors
+	 *
+	 * @param pkHand (long) : the packed hand
+	 * @return (int) : the packed permutation (see PackedColorPermutation) mapping
+	 *         the hand to its representative
+	 */
+	public static int canonicalPermutation(long pkHand) {
+		return PackedColorPermutation.sorting(colorKeys(pkHand), 0);
+	}
+
+	/**
+	 * Determines the permutation of the colors mapping a hand to the
+	 * representative of the hands which only differ from it by a permutation of
+	 * the colors other than trump
+	 *
+	 * @param pkHand (long) : the packed hand
+	 * @param trump  (Color) : the trump
+	 * @return (int) : the packed permutation (see PackedColorPermutation) mapping
+	 *         the hand to its representative, which leaves the trump unchanged
+	 */
+	public static int canonicalPermutation(long pkHand, Color trump) {
+		return PackedColorPermutation.sorting(colorKeys(pkHand), 1 << trump.ordinal());
+	}
+
+	/**
+	 * Determines the index of the representative of the hands which only differ
+	 * from a hand by a permutation of the colors
+	 *
+	 * @param pkHand (long) : the packed hand
+	 * @return (long) : the index of the representative of the hand
+	 */
+	public static long canonicalRank(long pkHand) {
+		return rank(PackedColorPermutation.permuteCardSet(canonicalPermutation(pkHand), pkHand));
+	}
+
+	/**
+	 * Determines the index of the representative of the hands which only differ
+	 * from a hand by a permutation of the colors other than trump
+	 *
+	 * @param pkHand (long) : the packed hand
+	 * @param trump  (Color) : the trump
+	 * @return (long) : the index of the representative of the hand
+	 */
+	public static long canonicalRank(long pkHand, Color trump) {
+		return rank(PackedColorPermutation.permuteCardSet(canonicalPermutation(pkHand, trump), pkHand));
+	}
+
+	/*
+	 * Gets the ranks of the cards of each color of a hand
+	 */
+	private static long[] colorKeys(long pkHand) {
+		assert PackedCardSet.isValid(pkHand);
+		long[] keys = new long[Color.COUNT];
+		for (Color c : Color.ALL) {
+			keys[c.ordinal()] = PackedCardSet.subsetOfColor(pkHand, c) >>> (c.ordinal() * Long.SIZE / Color.COUNT);
+		}
+		return keys;
+	}
+}
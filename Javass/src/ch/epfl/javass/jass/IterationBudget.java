@@ -0,0 +1,139 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+/**
+ * Distributes a number of MCTS iterations allowed per turn among the cards a
+ * player plays during that turn. Each card receives a share of what remains
+ * proportional to its number of playable cards, forced cards receive nothing,
+ * and the iterations a search did not use are carried forward to the following
+ * cards of the turn. A budget keeps track of a single player's turn and must
+ * therefore not be shared between players
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class IterationBudget {
+
+	/*
+	 * Share of the root iterations the most explored card must have for the
+	 * search to be considered decided
+	 */
+	private static final double DECISIVE_SHARE = 0.75;
+
+	/*
+	 * Number of iterations between two checks of the decisiveness of the root
+	 * statistics
+	 */
+	private static final int DECISIVENESS_CHECK_PERIOD = 64;
+
+	private final int turnIterations;
+	private int remaining;
+	private int lastTrickIndex;
+
+	/**
+	 * Constructor for an IterationBudget
+	 *
+	 * @param turnIterations (int) : the number of iterations allowed per turn
+	 * @throws IllegalArgumentException if there are less iterations than cards
+	 *                                  in a turn
+	 */
+	public IterationBudget(int turnIterations) throws IllegalArgumentException {
+		checkArgument(turnIterations >= Jass.TRICKS_PER_TURN * Jass.HAND_SIZE);
+		this.turnIterations = turnIterations;
+		this.remaining = turnIterations;
+		this.lastTrickIndex = Jass.TRICKS_PER_TURN;
+	}
+
+	/**
+	 * Gets the number of iterations allowed per turn
+	 *
+	 * @return (int) : the number of iterations allowed per turn
+	 */
+	public int turnIterations() {
+		return turnIterations;
+	}
+
+	/**
+	 * Gets the number of iterations left for the current turn
+	 *
+	 * @return (int) : the number of iterations left for the current turn
+	 */
+	public int remaining() {
+		return remaining;
+	}
+
+	/**
+	 * Allots iterations to the choice of a card, and withdraws them from the
+	 * iterations left for the turn. A trick index which is not greater than the
+	 * one of the previous choice starts a new turn
+	 *
+	 * @param trickIndex    (int) : the index of the current trick in its turn
+	 * @param playableCards (long) : the packed set of cards the player can play
+	 * @return (int) : the number of iterations allotted to the choice, 0 if only
+	 *         one card can be played and at least the number of playable cards
+	 *         otherwise
+	 */
+	public int allot(int trickIndex, long playableCards) {
+		assert 0 <= trickIndex && trickIndex < Jass.TRICKS_PER_TURN;
+		if (trickIndex <= lastTrickIndex) {
+			remaining = turnIterations;
+		}
+		lastTrickIndex = trickIndex;
+
+		int branching = PackedCardSet.size(playableCards);
+		if (branching <= 1) {
+			return 0;
+		}
+
+		// The size of the hand is used as an estimate of the number of playable
+		// cards of each of the following tricks
+		int handSize = Jass.TRICKS_PER_TURN - trickIndex;
+		int futureBranching = handSize * (handSize - 1) / 2 - 1;
+
+		int allotted = Math.max(branching, (int) ((long) remaining * branching / (branching + futureBranching)));
+		remaining = Math.max(0, remaining - allotted);
+		return allotted;
+	}
+
+	/**
+	 * Gives back the iterations a search did not use, so that they can be used by
+	 * the following choices of the turn
+	 *
+	 * @param unusedIterations (int) : the number of unused iterations
+	 */
+	public void refund(int unusedIterations) {
+		assert unusedIterations >= 0;
+		remaining = Math.min(turnIterations, remaining + unusedIterations);
+	}
+
+	/**
+	 * Determines if the statistics of a search root are decisive enough for the
+	 * search to be stopped
+	 *
+	 * @param bestChildIterations (int) : the iterations of the most explored
+	 *                            child of the root
+	 * @param rootIterations      (int) : the iterations of the root
+	 * @return (boolean) : true if the most explored child has received most of
+	 *         the iterations
+	 */
+	public static boolean isDecisive(int bestChildIterations, int rootIterations) {
+		return bestChildIterations >= DECISIVE_SHARE * rootIterations;
+	}
+
+	/**
+	 * Determines if a search can be stopped before using all of its allotted
+	 * iterations, which is checked periodically once half of them are used
+	 *
+	 * @param bestChildIterations (int) : the iterations of the most explored
+	 *                            child of the root
+	 * @param rootIterations      (int) : the iterations of the root
+	 * @param allotted            (int) : the iterations allotted to the search
+	 * @return (boolean) : true if the search is checked at this iteration and
+	 *         its root statistics are decisive
+	 */
+	public static boolean isDecided(int bestChildIterations, int rootIterations, int allotted) {
+		return rootIterations >= allotted / 2 && rootIterations % DECISIVENESS_CHECK_PERIOD == 0
+				&& isDecisive(bestChildIterations, rootIterations);
+	}
+}
@@ -0,0 +1,114 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+/**
+ * The options of the search of an MctsPlayer or of each tree of a
+ * ParallelMctsPlayer : its number of iterations per card, fixed or allotted by
+ * an iteration budget, and optionally a decision cache and the number of last
+ * tricks solved exactly at the end of the random turns. Options are immutable,
+ * and each option is added by a method returning new options, so that all of
+ * them can be combined
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class MctsOptions {
+	private final int iterations;
+	private final IterationBudget budget;
+	private final DecisionCache cache;
+	private final int endgameTricks;
+
+	private MctsOptions(int iterations, IterationBudget budget, DecisionCache cache, int endgameTricks) {
+		this.iterations = iterations;
+		this.budget = budget;
+		this.cache = cache;
+		this.endgameTricks = endgameTricks;
+	}
+
+	/**
+	 * Creates the options of a search of a fixed number of iterations per card,
+	 * without cache nor endgame solving
+	 *
+	 * @param iterations (int) : the number of iterations per card
+	 * @return (MctsOptions) : the options
+	 * @throws IllegalArgumentException if the number of iterations is lower than 9
+	 */
+	public static MctsOptions ofIterations(int iterations) throws IllegalArgumentException {
+		checkArgument(iterations >= Jass.HAND_SIZE);
+		return new MctsOptions(iterations, null, null, 0);
+	}
+
+	/**
+	 * Creates the options of a search whose number of iterations is allotted card
+	 * by card by an iteration budget, without cache nor endgame solving
+	 *
+	 * @param budget (IterationBudget) : the iteration budget, which must not be
+	 *               shared with another player
+	 * @return (MctsOptions) : the options
+	 * @throws IllegalArgumentException if the budget is null
+	 */
+	public static MctsOptions ofBudget(IterationBudget budget) throws IllegalArgumentException {
+		checkArgument(budget != null);
+		return new MctsOptions(0, budget, null, 0);
+	}
+
+	/**
+	 * Adds a decision cache to the options : the player reuses the decisions
+	 * stored in it by searches of at least as many iterations, and stores its own
+	 * decisions in it
+	 *
+	 * @param cache (DecisionCache) : the decision cache, or null if none is used
+	 * @return (MctsOptions) : the options with the cache
+	 */
+	public MctsOptions withCache(DecisionCache cache) {
+		return new MctsOptions(iterations, budget, cache, endgameTricks);
+	}
+
+	/**
+	 * Adds endgame solving to the options : the random turns end by solving
+	 * exactly the last tricks once they are reached, dealing the cards of the
+	 * other players randomly
+	 *
+	 * @param endgameTricks (int) : the number of tricks left from which the
+	 *                      turns are solved, between 1 and 3, or 0 if they are
+	 *                      played randomly until the end
+	 * @return (MctsOptions) : the options with endgame solving
+	 * @throws IllegalArgumentException if the number of tricks is not between 0
+	 *                                  and 3
+	 */
+	public MctsOptions withEndgameTricks(int endgameTricks) throws IllegalArgumentException {
+		checkArgument(0 <= endgameTricks && endgameTricks <= EndgameSolver.MAX_TRICKS);
+		return new MctsOptions(iterations, budget, cache, endgameTricks);
+	}
+
+	/*
+	 * Gets the fixed number of iterations per card, or 0 if they are allotted by
+	 * the budget
+	 */
+	int iterations() {
+		return iterations;
+	}
+
+	/*
+	 * Gets the iteration budget, or null if the number of iterations is fixed
+	 */
+	IterationBudget budget() {
+		return budget;
+	}
+
+	/*
+	 * Gets the decision cache, or null if none is used
+	 */
+	DecisionCache cache() {
+		return cache;
+	}
+
+	/*
+	 * Creates the endgame solver of a tree searched with the options, or returns
+	 * null if the random turns are played until the end
+	 */
+	EndgameSolver newEndgameSolver() {
+		return endgameTricks == 0 ? null : new EndgameSolver(endgameTricks);
+	}
+}
@@ -21,6 +21,9 @@ public final class MctsPlayer implements Player {
 	private final PlayerId ownId;
 	private final SplittableRandom rng;
 	private final int iterations;
+	private final IterationBudget budget;
+	private final DecisionCache cache;
+	private final EndgameSolver endgame;
 	private final int c = 40;
 
 	/**
@@ -33,20 +36,41 @@ public final class MctsPlayer implements Player {
 	 * @throws IllegalArgumentException if the number of iterations is lower than 9
 	 */
 	public MctsPlayer(PlayerId ownId, long rngSeed, int iterations) throws IllegalArgumentException {
-		checkArgument(iterations >= Jass.HAND_SIZE);
+		this(ownId, rngSeed, MctsOptions.ofIterations(iterations));
+	}
+
+	/**
+	 * Constructor for an MctsPlayer searching with given options (see
+	 * MctsOptions)
+	 * 
+	 * @param ownId   (PlayerId) : the PlayerId of the MctsPlayer
+	 * @param rngSeed (long) : the seed used to generate the randomness required
+	 *                by the MCTS algorithm
+	 * @param options (MctsOptions) : the options of the search, whose budget (if
+	 *                any) must not be shared with another player
+	 * @throws IllegalArgumentException if the options are null
+	 */
+	public MctsPlayer(PlayerId ownId, long rngSeed, MctsOptions options) throws IllegalArgumentException {
+		checkArgument(options != null);
 		this.ownId = ownId;
 		this.rng = new SplittableRandom(rngSeed);
-		this.iterations = iterations;
+		this.iterations = options.iterations();
+		this.budget = options.budget();
+		this.cache = options.cache();
+		this.endgame = options.newEndgameSolver();
 	}
 	
 	@Override
 	public Color chooseTrump(PlayerId chooser, CardSet hand, boolean canPass) {
 		Color mode = null;
 		int highestFreq = 0;
+		int colorSizes = PackedCardSet.colorSizes(hand.packed());
 		
 		for (Color c : Color.ALL) {
-			if (hand.subsetOfColor(c).size() > highestFreq) {
+			int freq = PackedCardSet.colorSize(colorSizes, c);
+			if (freq > highestFreq) {
 				mode = c;
+				highestFreq = freq;
 			}
 		}
 		
@@ -60,10 +84,40 @@ public final class MctsPlayer implements Player {
 	@Override
 	public Card cardToPlay(TurnState state, CardSet hand) {
 		Node node = new Node(state, hand.packed(), null, ownId);
-		while (node.ownIterations < iterations) {
-			node.main(ownId, rng, c);
+		int allotted = budget == null ? iterations
+				: budget.allot(PackedTrick.index(state.packedTrick()), node.playableCards);
+		if (allotted == 0) {
+			return Card.ofValidPacked(get(node.playableCards, 0));
+		}
+
+		if (cache != null) {
+			DecisionCache.Decision decision = cache.get(state, hand.packed());
+			if (decision != null && decision.iterations() >= allotted) {
+				if (budget != null) {
+					// The cached decision costs no iteration
+					budget.refund(allotted);
+				}
+				return Card.ofValidPacked(decision.packedCard());
+			}
+		}
+
+		MutableTurnState rollout = new MutableTurnState(state);
+		while (node.ownIterations < allotted && !(budget != null
+				&& IterationBudget.isDecided(node.mostExploredChildIterations(), node.ownIterations, allotted))) {
+			node.main(ownId, rng, c, rollout, endgame);
 		}
-		return state.trick().playableCards(hand).get(node.chooseNodeIndex(0));
+		if (budget != null) {
+			budget.refund(allotted - node.ownIterations);
+		}
+
+		int index = node.chooseNodeIndex(0);
+		int pkCard = get(node.playableCards, index);
+		if (cache != null) {
+			Node best = node.childrenNodes[index];
+			cache.put(state, hand.packed(),
+					new DecisionCache.Decision(pkCard, node.ownIterations, best.points / (double) best.ownIterations));
+		}
+		return Card.ofValidPacked(pkCard);
 	}
 
 	private final static class Node {
@@ -73,6 +127,7 @@ public final class MctsPlayer implements Player {
 		private int points;
 		private int ownIterations;
 		private final long playableCards;
+		private long untriedCards;
 		private final Node parent;
 
 		Node(TurnState turnState, long hand, Node parent, PlayerId ownId) {
@@ -89,17 +144,20 @@ public final class MctsPlayer implements Player {
 			}
 
 			childrenNodes = new Node[PackedCardSet.size(playableCards)];
+			untriedCards = playableCards;
 		}
 
 		/*
 		 * Adds a child node to this node and simulates the added node
 		 */
-		private void addChildNode(PlayerId ownId, SplittableRandom rng) {
+		private void addChildNode(PlayerId ownId, SplittableRandom rng, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			// because every node is simulated at least once except for the initial node
 			int k = (parent == null) ? ownIterations : ownIterations - 1;
-			int nodeCard = get(playableCards, k);
-			(childrenNodes[k] = new Node(turnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(nodeCard)),
-					remove(hand, nodeCard), this, ownId)).simulateTurn(ownId, rng);
+			int nodeCard = PackedCardSet.lowestCard(untriedCards);
+			untriedCards = PackedCardSet.withoutLowestCard(untriedCards);
+			(childrenNodes[k] = new Node(turnState.withNewCardPlayedAndTrickCollected(Card.ofValidPacked(nodeCard)),
+					remove(hand, nodeCard), this, ownId)).simulateTurn(ownId, rng, rollout, endgame);
 		}
 
 		/*
@@ -124,6 +182,19 @@ public final class MctsPlayer implements Player {
 			return maxIndex;
 		}
 
+		/*
+		 * Gets the iterations of the most explored child of this node
+		 */
+		private int mostExploredChildIterations() {
+			int max = 0;
+			for (Node child : childrenNodes) {
+				if (child != null && child.ownIterations > max) {
+					max = child.ownIterations;
+				}
+			}
+			return max;
+		}
+
 		/*
 		 * Updates the score associated to this node and propagates the score upwards in
 		 * the tree
@@ -137,26 +208,34 @@ public final class MctsPlayer implements Player {
 		}
 
 		/*
-		 * Simulates a random turn continuing from the node's turn state
+		 * Simulates a random turn continuing from the node's turn state, playing it
+		 * in the given mutable turn state, and ends it with the endgame solver (if
+		 * any) once the last tricks are reached
 		 */
-		private void simulateTurn(PlayerId ownId, SplittableRandom rng) {
+		private void simulateTurn(PlayerId ownId, SplittableRandom rng, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			long othersCards = difference(turnState.packedUnplayedCards(), hand);
 			long currentHand = hand;
-			TurnState tempTurnState = turnState;
-			while (!tempTurnState.isTerminal()) {
-				if (tempTurnState.nextPlayer().equals(ownId)) {
-					long playable = PackedTrick.playableCards(turnState.packedTrick(), currentHand);
+			rollout.set(turnState);
+			while (!rollout.isTerminal()) {
+				if (endgame != null && endgame.covers(rollout.packedTrick())) {
+					updatePointsAndIterations(endgame.finalScore(rollout.packedScore(), rollout.packedTrick(), ownId,
+							currentHand, othersCards, rng));
+					return;
+				}
+				if (rollout.nextPlayer().equals(ownId)) {
+					long playable = rollout.playableCards(currentHand);
 					int cardToPlay = get(playable, rng.nextInt(size(playable)));
 					currentHand = remove(currentHand, cardToPlay);
-					tempTurnState = tempTurnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(cardToPlay));
+					rollout.play(cardToPlay);
 				} else {
-					long playable = PackedTrick.playableCards(turnState.packedTrick(), othersCards);
+					long playable = rollout.playableCards(othersCards);
 					int cardToPlay = get(playable, rng.nextInt(size(playable)));
 					othersCards = remove(othersCards, cardToPlay);
-					tempTurnState = tempTurnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(cardToPlay));
+					rollout.play(cardToPlay);
 				}
 			}
-			updatePointsAndIterations(tempTurnState.packedScore());
+			updatePointsAndIterations(rollout.packedScore());
 		}
 
 		/*
@@ -166,13 +245,14 @@ public final class MctsPlayer implements Player {
 		 * 2. If the node has more possible children, a new child node is added and simulated
 		 * 3. Otherwise, the best child node is chosen to explore further
 		 */
-		private void main(PlayerId ownId, SplittableRandom rng, int c) {
+		private void main(PlayerId ownId, SplittableRandom rng, int c, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			if (childrenNodes.length == 0) {
 				updatePointsAndIterations(turnState.packedScore());
 			} else if (childrenNodes[childrenNodes.length - 1] == null) {
-				addChildNode(ownId, rng);
+				addChildNode(ownId, rng, rollout, endgame);
 			} else {
-				childrenNodes[chooseNodeIndex(c)].main(ownId, rng, c);
+				childrenNodes[chooseNodeIndex(c)].main(ownId, rng, c, rollout, endgame);
 			}
 		}
 	}
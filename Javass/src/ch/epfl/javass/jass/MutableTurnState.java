@@ -0,0 +1,169 @@
+package ch.epfl.javass.jass;
+
+/**
+ * Represents the state of a turn of a Jass game which, unlike TurnState, is
+ * modified in place by playing cards, and can go back to its previous states.
+ * The previous states are kept in a fixed-size stack of packed values, so that
+ * searches can walk through the states of a turn without allocating anything.
+ * Like TurnState.withNewCardPlayedAndTrickCollected, playing a card collects
+ * the trick once it is full
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class MutableTurnState {
+
+	private static final int MAX_DEPTH = Jass.TRICKS_PER_TURN * PlayerId.COUNT;
+	private static final int FRAME_SIZE = 3;
+
+	private long pkScore;
+	private long pkUnplayedCards;
+	private long pkExtTrick;
+	private final long[] undoStack = new long[MAX_DEPTH * FRAME_SIZE];
+	private int depth = 0;
+
+	/**
+	 * Constructs a mutable turn state in the same state as a turn state
+	 *
+	 * @param state (TurnState) : the turn state
+	 */
+	public MutableTurnState(TurnState state) {
+		set(state);
+	}
+
+	/**
+	 * Puts the mutable turn state in the same state as a turn state, and forgets
+	 * its previous states
+	 *
+	 * @param state (TurnState) : the turn state
+	 */
+	public void set(TurnState state) {
+		pkScore = state.packedScore();
+		pkUnplayedCards = state.packedUnplayedCards();
+		pkExtTrick = state.isTerminal() ? PackedExtendedTrick.INVALID
+				: PackedExtendedTrick.ofTrick(state.packedTrick());
+		depth = 0;
+	}
+
+	/**
+	 * Constructs the turn state corresponding to the current state
+	 *
+	 * @return (TurnState) : the turn state in the current state
+	 */
+	public TurnState toTurnState() {
+		return TurnState.ofValidPackedComponents(pkScore, pkUnplayedCards, packedTrick());
+	}
+
+	/**
+	 * Gets the current packed score of the game
+	 *
+	 * @return (long) : the packed score of the game
+	 */
+	public long packedScore() {
+		return pkScore;
+	}
+
+	/**
+	 * Gets the packed set of unplayed cards of the turn
+	 *
+	 * @return (long) : the packed set of unplayed cards of the turn
+	 */
+	public long packedUnplayedCards() {
+		return pkUnplayedCards;
+	}
+
+	/**
+	 * Gets the current packed trick of the turn
+	 *
+	 * @return (int) : the packed trick of the turn, PackedTrick.INVALID if the turn
+	 *         is terminal
+	 */
+	public int packedTrick() {
+		return PackedExtendedTrick.trick(pkExtTrick);
+	}
+
+	/**
+	 * Gets the number of cards played since the state was constructed or set,
+	 * which is the number of states the state can go back to
+	 *
+	 * @return (int) : the number of cards played
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Checks if the turn is terminal (if the last trick has been played)
+	 *
+	 * @return (boolean) : true if the turn is terminal
+	 */
+	public boolean isTerminal() {
+		return pkExtTrick == PackedExtendedTrick.INVALID;
+	}
+
+	/**
+	 * Gets the identity of the player who needs to play the next card
+	 *
+	 * @return (PlayerId) : the identity of the player who needs to play the next
+	 *         card
+	 */
+	public PlayerId nextPlayer() {
+		assert !isTerminal();
+		return PackedTrick.player(packedTrick(), PackedExtendedTrick.size(pkExtTrick));
+	}
+
+	/**
+	 * Determines the cards of a hand which can be played in the current trick
+	 *
+	 * @param pkHand (long) : the packed hand
+	 * @return (long) : the packed set of the playable cards of the hand
+	 */
+	public long playableCards(long pkHand) {
+		assert !isTerminal();
+		return PackedExtendedTrick.playableCards(pkExtTrick, pkHand);
+	}
+
+	/**
+	 * Plays a card, and collects the trick if it is then full
+	 *
+	 * @param pkCard (int) : the packed card played
+	 * @throws IllegalStateException if the turn is terminal
+	 */
+	public void play(int pkCard) throws IllegalStateException {
+		if (isTerminal()) {
+			throw new IllegalStateException();
+		}
+		assert PackedCardSet.contains(pkUnplayedCards, pkCard);
+
+		int frame = depth * FRAME_SIZE;
+		undoStack[frame] = pkScore;
+		undoStack[frame + 1] = pkUnplayedCards;
+		undoStack[frame + 2] = pkExtTrick;
+		++depth;
+
+		pkUnplayedCards = PackedCardSet.remove(pkUnplayedCards, pkCard);
+		pkExtTrick = PackedExtendedTrick.withAddedCard(pkExtTrick, pkCard);
+		if (PackedExtendedTrick.isFull(pkExtTrick)) {
+			pkScore = PackedScore.withAdditionalTrick(pkScore, PackedExtendedTrick.winningPlayer(pkExtTrick).team(),
+					PackedExtendedTrick.points(pkExtTrick));
+			pkExtTrick = PackedExtendedTrick.nextEmpty(pkExtTrick);
+		}
+	}
+
+	/**
+	 * Goes back to the state before the last card was played
+	 *
+	 * @throws IllegalStateException if no card was played since the state was
+	 *                               constructed or set
+	 */
+	public void undo() throws IllegalStateException {
+		if (depth == 0) {
+			throw new IllegalStateException();
+		}
+		--depth;
+		int frame = depth * FRAME_SIZE;
+		pkScore = undoStack[frame];
+		pkUnplayedCards = undoStack[frame + 1];
+		pkExtTrick = undoStack[frame + 2];
+	}
+}
@@ -1,8 +1,6 @@
 package ch.epfl.javass.jass;
 
-import static ch.epfl.javass.bits.Bits32.extract;
-
-import ch.epfl.javass.bits.Bits32;
+import ch.epfl.javass.bits.BitLayout.Field32;
 import ch.epfl.javass.jass.Card.Color;
 import ch.epfl.javass.jass.Card.Rank;
 
@@ -19,11 +17,9 @@ public final class PackedCard {
 	}
 
 	// The following constants determine how a packed card represents a card
-	private static final int RANK_START = 0;
-	private static final int RANK_SIZE = 4;
-	private static final int COLOR_START = RANK_START + RANK_SIZE;
-	private static final int COLOR_SIZE = 2;
-	private static final int UNUSED_BITS_START = RANK_START + RANK_SIZE + COLOR_SIZE;
+	private static final Field32 RANK = Field32.of(0, 4);
+	private static final Field32 COLOR = RANK.next(2);
+	private static final Field32 UNUSED_BITS = COLOR.next(Integer.SIZE - COLOR.end());
 
 	/*
 	 * Array containing the points associated to each card rank (assuming its color
@@ -42,6 +38,58 @@ public final class PackedCard {
 	 */
 	public static final int INVALID = 0b111111;
 
+	/*
+	 * Number of possible values of a packed card, valid or not
+	 */
+	private static final int CARD_VALUES = 1 << COLOR.end();
+
+	/*
+	 * For use in the method isBetter : BETTER[t][l] contains a bit at index r if
+	 * the card l is better than the card r when the trump has ordinal t
+	 */
+	private static final long[][] BETTER = better();
+
+	/*
+	 * For use in the method points : CARD_POINTS[t][c] contains the points of the
+	 * card c when the trump has ordinal t
+	 */
+	private static final int[][] CARD_POINTS = cardPoints();
+
+	private static long[][] better() {
+		long[][] table = new long[Color.COUNT][CARD_VALUES];
+		for (Color trump : Color.ALL) {
+			for (Color colorL : Color.ALL) {
+				for (Rank rankL : Rank.ALL) {
+					long beaten = 0L;
+					for (Color colorR : Color.ALL) {
+						for (Rank rankR : Rank.ALL) {
+							boolean better = colorL == trump
+									? colorR != trump || rankL.trumpOrdinal() > rankR.trumpOrdinal()
+									: colorL == colorR && rankL.ordinal() > rankR.ordinal();
+							if (better) {
+								beaten |= 1L << pack(colorR, rankR);
+							}
+						}
+					}
+					table[trump.ordinal()][pack(colorL, rankL)] = beaten;
+				}
+			}
+		}
+		return table;
+	}
+
+	private static int[][] cardPoints() {
+		int[][] table = new int[Color.COUNT][CARD_VALUES];
+		for (Color trump : Color.ALL) {
+			for (Color c : Color.ALL) {
+				for (Rank r : Rank.ALL) {
+					table[trump.ordinal()][pack(c, r)] = c == trump ? TRUMP_POINTS[r.ordinal()] : POINTS[r.ordinal()];
+				}
+			}
+		}
+		return table;
+	}
+
 	/**
 	 * Determines if a card is valid
 	 * 
@@ -49,8 +97,7 @@ public final class PackedCard {
 	 * @return (boolean) : true if card is valid, false otherwise
 	 */
 	public static boolean isValid(int pkCard) {
-		return (extract(pkCard, UNUSED_BITS_START, Integer.SIZE - UNUSED_BITS_START) == 0
-				&& extract(pkCard, RANK_START, RANK_SIZE) < Rank.COUNT);
+		return UNUSED_BITS.get(pkCard) == 0 && RANK.get(pkCard) < Rank.COUNT;
 	}
 
 	/**
@@ -61,7 +108,7 @@ public final class PackedCard {
 	 * @return (int) packed card with color c and rank r
 	 */
 	public static int pack(Card.Color c, Card.Rank r) {
-		return Bits32.pack(r.ordinal(), RANK_SIZE, c.ordinal(), COLOR_SIZE, 0, Integer.SIZE - UNUSED_BITS_START);
+		return COLOR.with(RANK.with(0, r.ordinal()), c.ordinal());
 	}
 
 	/**
@@ -72,7 +119,7 @@ public final class PackedCard {
 	 */
 	public static Card.Color color(int pkCard) {
 		assert isValid(pkCard);
-		return Color.ALL.get(extract(pkCard, COLOR_START, COLOR_SIZE));
+		return Color.ALL.get(COLOR.get(pkCard));
 	}
 
 	/**
@@ -83,7 +130,7 @@ public final class PackedCard {
 	 */
 	public static Card.Rank rank(int pkCard) {
 		assert isValid(pkCard);
-		return Rank.ALL.get(extract(pkCard, RANK_START, RANK_SIZE));
+		return Rank.ALL.get(RANK.get(pkCard));
 	}
 
 	/**
@@ -97,12 +144,7 @@ public final class PackedCard {
 	 */
 	public static boolean isBetter(Card.Color trump, int pkCardL, int pkCardR) {
 		assert isValid(pkCardL) && isValid(pkCardR);
-
-		Card.Color one = color(pkCardL);
-		Card.Color two = color(pkCardR);
-
-		return one.equals(trump) ? !two.equals(trump) || rank(pkCardL).trumpOrdinal() > rank(pkCardR).trumpOrdinal()
-				: one.equals(two) && rank(pkCardL).ordinal() > rank(pkCardR).ordinal();
+		return (BETTER[trump.ordinal()][pkCardL] & (1L << pkCardR)) != 0;
 	}
 
 	/**
@@ -114,7 +156,7 @@ public final class PackedCard {
 	 */
 	public static int points(Card.Color trump, int pkCard) {
 		assert isValid(pkCard);
-		return color(pkCard).equals(trump) ? TRUMP_POINTS[rank(pkCard).ordinal()] : POINTS[rank(pkCard).ordinal()];
+		return CARD_POINTS[trump.ordinal()][pkCard];
 	}
 
 	/**
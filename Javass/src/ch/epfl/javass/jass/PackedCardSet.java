@@ -29,6 +29,25 @@ public final class PackedCardSet {
 	 */
 	public static final long ALL_CARDS = 0x01FF_01FF_01FF_01FFL;
 
+	/*
+	 * Number of bits used to represent the cards of each color
+	 */
+	private static final int COLOR_SIZE = Long.SIZE / Color.COUNT;
+	private static final int RANKS_MASK = (1 << Rank.COUNT) - 1;
+
+	/*
+	 * For use in the methods colorSizes and voidColors
+	 */
+	private static final int COLOR_SIZES_SIZE = 4;
+	private static final long LOW_BITS_OF_COLORS = 0x7FFF_7FFF_7FFF_7FFFL;
+	private static final long HIGH_BIT_OF_COLORS = 0x8000_8000_8000_8000L;
+
+	/*
+	 * For use in the method get(long pkCardSet, int index) : SELECT[r][i] is the
+	 * index of the i-th one bit of the ranks r of a color
+	 */
+	private final static byte[][] SELECT = select();
+
 	/*
 	 * For use in the method trumpAbove(int pkCard)
 	 */
@@ -39,6 +58,21 @@ public final class PackedCardSet {
 	 */
 	private final static long[] SUBSET_OF_COLOR = subsetOfColor();
 	
+	private final static byte[][] select() {
+		byte[][] array = new byte[RANKS_MASK + 1][];
+
+		for (int ranks = 0; ranks <= RANKS_MASK; ++ranks) {
+			array[ranks] = new byte[Integer.bitCount(ranks)];
+			int rest = ranks;
+			for (int i = 0; rest != 0; ++i) {
+				array[ranks][i] = (byte) Integer.numberOfTrailingZeros(rest);
+				rest &= rest - 1;
+			}
+		}
+
+		return array;
+	}
+
 	private final static long[] trumpAbove() {
 		long[] array = new long[Rank.COUNT];
 		
@@ -132,15 +166,45 @@ public final class PackedCardSet {
 	 * @return (int) : the packed card at the parameter index of the packed card set
 	 */
 	public static int get(long pkCardSet, int index) {
-		assert isValid(pkCardSet);
-		for (int j = 0; j < index; ++j) {
-			pkCardSet -= Long.lowestOneBit(pkCardSet);
+		assert isValid(pkCardSet) && 0 <= index && index < size(pkCardSet);
+
+		// The index of the bit of a card is its packed version, so the card is found
+		// by skipping the colors with fewer cards than the index, then selecting the
+		// bit in the color where it lies
+		for (int c = 0; c < Color.COUNT - 1; ++c) {
+			int ranks = (int) (pkCardSet >>> (c * COLOR_SIZE)) & RANKS_MASK;
+			int count = Integer.bitCount(ranks);
+			if (index < count) {
+				return c * COLOR_SIZE + SELECT[ranks][index];
+			}
+			index -= count;
 		}
+		return (Color.COUNT - 1) * COLOR_SIZE + SELECT[(int) (pkCardSet >>> ((Color.COUNT - 1) * COLOR_SIZE))][index];
+	}
 
-		int i = Long.numberOfTrailingZeros(pkCardSet);
+	/**
+	 * Gets the packed version of the card of index 0 of a non-empty packed card
+	 * set; together with withoutLowestCard, allows to iterate over the cards of a
+	 * set without allocating anything
+	 * 
+	 * @param pkCardSet (long) : the non-empty packed card set
+	 * @return (int) : the packed card of index 0 of the packed card set
+	 */
+	public static int lowestCard(long pkCardSet) {
+		assert isValid(pkCardSet) && pkCardSet != EMPTY;
+		return Long.numberOfTrailingZeros(pkCardSet);
+	}
 
-		return PackedCard.pack(Card.Color.ALL.get(i / (Long.SIZE / Color.COUNT)),
-				Card.Rank.ALL.get(i % (Long.SIZE / Color.COUNT)));
+	/**
+	 * Removes the card of index 0 from a packed card set
+	 * 
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (long) : the packed card set without its card of index 0 (empty if
+	 *         the set was empty)
+	 */
+	public static long withoutLowestCard(long pkCardSet) {
+		assert isValid(pkCardSet);
+		return pkCardSet & (pkCardSet - 1);
 	}
 
 	/**
@@ -239,6 +303,109 @@ public final class PackedCardSet {
 		return SUBSET_OF_COLOR[color.ordinal()] & pkCardSet;
 	}
 
+	/**
+	 * Determines the number of cards of each color of a packed card set
+	 * 
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (int) : the number of cards of the color of ordinal c in the bits 4c
+	 *         to 4c + 3, for each color
+	 */
+	public static int colorSizes(long pkCardSet) {
+		assert isValid(pkCardSet);
+
+		// Counts the bits of each color in parallel, then gathers the counts, which
+		// lie in the 16 bits of each color, in 4 bits
+		long counts = pkCardSet - ((pkCardSet >>> 1) & 0x5555_5555_5555_5555L);
+		counts = (counts & 0x3333_3333_3333_3333L) + ((counts >>> 2) & 0x3333_3333_3333_3333L);
+		counts = (counts + (counts >>> 4)) & 0x0F0F_0F0F_0F0F_0F0FL;
+		counts = (counts + (counts >>> 8)) & 0x000F_000F_000F_000FL;
+		counts |= counts >>> (COLOR_SIZE - COLOR_SIZES_SIZE);
+		counts |= counts >>> (2 * (COLOR_SIZE - COLOR_SIZES_SIZE));
+		return (int) counts & ((1 << (Color.COUNT * COLOR_SIZES_SIZE)) - 1);
+	}
+
+	/**
+	 * Gets the number of cards of a color from the result of colorSizes
+	 * 
+	 * @param colorSizes (int) : the numbers of cards of each color, as returned by
+	 *                   colorSizes
+	 * @param color      (Color) : the color
+	 * @return (int) : the number of cards of the color
+	 */
+	public static int colorSize(int colorSizes, Color color) {
+		return (colorSizes >>> (color.ordinal() * COLOR_SIZES_SIZE)) & ((1 << COLOR_SIZES_SIZE) - 1);
+	}
+
+	/**
+	 * Determines the colors of which a packed card set contains no card
+	 * 
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (int) : an integer whose bit c is 1 if the set contains no card of
+	 *         the color of ordinal c
+	 */
+	public static int voidColors(long pkCardSet) {
+		assert isValid(pkCardSet);
+
+		// Adding the largest value below the highest bit of each color only sets
+		// that bit if the color contains a card; these bits are then gathered
+		long nonEmpty = ((pkCardSet + LOW_BITS_OF_COLORS) & HIGH_BIT_OF_COLORS) >>> (COLOR_SIZE - 1);
+		nonEmpty |= nonEmpty >>> (COLOR_SIZE - 1);
+		nonEmpty |= nonEmpty >>> (2 * (COLOR_SIZE - 1));
+		return ~(int) nonEmpty & ((1 << Color.COUNT) - 1);
+	}
+
+	/**
+	 * Determines the card of highest rank of each color of a packed card set
+	 * 
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (long) : the packed set containing the card of highest rank (for
+	 *         non-trump colors) of each color of the given set
+	 */
+	public static long highestOfEachColor(long pkCardSet) {
+		assert isValid(pkCardSet);
+
+		// Sets all the bits below the highest bit of each color, shifting by at most
+		// 4 so that the bits of a color do not reach the ranks of the one below
+		long below = pkCardSet;
+		below = (below | (below >>> 1)) & ALL_CARDS;
+		below = (below | (below >>> 2)) & ALL_CARDS;
+		below = (below | (below >>> 4)) & ALL_CARDS;
+		below = (below | (below >>> 1)) & ALL_CARDS;
+		return below & ~(below >>> 1) & ALL_CARDS;
+	}
+
+	/**
+	 * Compacts a packed card set by removing the unused bits between its colors,
+	 * so that the card of color c and rank r is represented by the bit 9c + r
+	 * 
+	 * @param pkCardSet (long) : the packed card set
+	 * @return (long) : the compact card set, which only uses the 36 least
+	 *         significant bits
+	 */
+	public static long compact(long pkCardSet) {
+		assert isValid(pkCardSet);
+		long compact = EMPTY;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			compact |= ((pkCardSet >>> (c * COLOR_SIZE)) & RANKS_MASK) << (c * Rank.COUNT);
+		}
+		return compact;
+	}
+
+	/**
+	 * Expands a compact card set, as returned by compact, to a packed card set
+	 * 
+	 * @param compact (long) : the compact card set
+	 * @return (long) : the packed card set
+	 */
+	public static long expand(long compact) {
+		assert (compact >>> (Color.COUNT * Rank.COUNT)) == 0;
+		long pkCardSet = EMPTY;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			pkCardSet |= ((compact >>> (c * Rank.COUNT)) & RANKS_MASK) << (c * COLOR_SIZE);
+		}
+		return pkCardSet;
+	}
+
 	/**
 	 * Returns the textual representation of the packed card set
 	 * 
@@ -250,8 +417,8 @@ public final class PackedCardSet {
 
 		StringJoiner j = new StringJoiner(",", "{", "}");
 
-		for (int i = 0; i < size(pkCardSet); ++i) {
-			j.add(PackedCard.toString(get(pkCardSet, i)));
+		for (long s = pkCardSet; s != EMPTY; s = withoutLowestCard(s)) {
+			j.add(PackedCard.toString(lowestCard(s)));
 		}
 
 		return j.toString();
@@ -0,0 +1,214 @@
+package ch.epfl.javass.jass;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Represents the packed version of a permutation of the colors, and maps the
+ * positions of a Jass game which only differ by a permutation of the colors
+ * other than trump and the base color of the trick to a single canonical
+ * position. Such positions have identical values, so the canonical position can
+ * be used to share the results computed for all of them. A permutation is
+ * packed in an int, whose bits 2c and 2c + 1 contain the image of the color of
+ * ordinal c
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class PackedColorPermutation {
+
+	private PackedColorPermutation() {
+	}
+
+	/**
+	 * The identity permutation
+	 */
+	public static final int IDENTITY = 0b11_10_01_00;
+
+	private static final int COLOR_SIZE = 2;
+	private static final int COLOR_MASK = 0b11;
+	private static final int LANE_SIZE = Long.SIZE / Color.COUNT;
+	private static final long LANE_MASK = (1L << Card.Rank.COUNT) - 1;
+
+	/**
+	 * Checks the validity of a packed permutation
+	 *
+	 * @param pkPermutation (int) : the packed permutation
+	 * @return (boolean) : true if the int represents a bijection of the colors
+	 */
+	public static boolean isValid(int pkPermutation) {
+		if ((pkPermutation & ~((1 << (Color.COUNT * COLOR_SIZE)) - 1)) != 0) {
+			return false;
+		}
+		int images = 0;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			images |= 1 << image(pkPermutation, c);
+		}
+		return images == (1 << Color.COUNT) - 1;
+	}
+
+	/**
+	 * Gets the image of a color by a packed permutation
+	 *
+	 * @param pkPermutation (int) : the packed permutation
+	 * @param color         (Color) : the color
+	 * @return (Color) : the image of the color
+	 */
+	public static Color color(int pkPermutation, Color color) {
+		assert isValid(pkPermutation);
+		return Color.ALL.get(image(pkPermutation, color.ordinal()));
+	}
+
+	/**
+	 * Gets the inverse of a packed permutation
+	 *
+	 * @param pkPermutation (int) : the packed permutation
+	 * @return (int) : the packed inverse permutation
+	 */
+	public static int inverse(int pkPermutation) {
+		assert isValid(pkPermutation);
+		int inverse = 0;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			inverse |= c << (image(pkPermutation, c) * COLOR_SIZE);
+		}
+		return inverse;
+	}
+
+	/**
+	 * Determines the permutation which maps a position to its canonical position.
+	 * The trump and the base color of the trick are left unchanged, and the other
+	 * colors are ordered according to the cards of the hand, then to the unplayed
+	 * cards and finally to the cards of the trick, so that two positions which
+	 * only differ by a permutation of these colors have the same canonical
+	 * position
+	 *
+	 * @param pkTrick         (int) : the packed trick of the position
+	 * @param pkUnplayedCards (long) : the packed set of unplayed cards
+	 * @param pkHand          (long) : the packed hand of the player
+	 * @return (int) : the packed permutation mapping the position to its canonical
+	 *         position
+	 */
+	public static int canonical(int pkTrick, long pkUnplayedCards, long pkHand) {
+		assert PackedTrick.isValid(pkTrick) && PackedCardSet.isValid(pkUnplayedCards)
+				&& PackedCardSet.isValid(pkHand);
+
+		int fixed = 1 << PackedTrick.trump(pkTrick).ordinal();
+		if (!PackedTrick.isEmpty(pkTrick)) {
+			fixed |= 1 << PackedTrick.baseColor(pkTrick).ordinal();
+		}
+
+		long[] keys = new long[Color.COUNT];
+		for (int c = 0; c < Color.COUNT; ++c) {
+			keys[c] = key(c, pkTrick, pkUnplayedCards, pkHand);
+		}
+		return sorting(keys, fixed);
+	}
+
+	/*
+	 * Determines the permutation which leaves the colors whose bits are set in
+	 * fixed unchanged, and sorts the other ones by decreasing key (and by ordinal
+	 * when their keys are equal, in which case they are interchangeable)
+	 */
+	static int sorting(long[] keys, int fixed) {
+		int[] free = new int[Color.COUNT];
+		int freeCount = 0;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			if ((fixed & (1 << c)) == 0) {
+				free[freeCount++] = c;
+			}
+		}
+
+		int[] sorted = free.clone();
+		for (int i = 1; i < freeCount; ++i) {
+			int c = sorted[i];
+			int j = i;
+			while (j > 0 && keys[sorted[j - 1]] < keys[c]) {
+				sorted[j] = sorted[j - 1];
+				--j;
+			}
+			sorted[j] = c;
+		}
+
+		int pkPermutation = IDENTITY;
+		for (int i = 0; i < freeCount; ++i) {
+			int shift = sorted[i] * COLOR_SIZE;
+			pkPermutation = (pkPermutation & ~(COLOR_MASK << shift)) | (free[i] << shift);
+		}
+		return pkPermutation;
+	}
+
+	/**
+	 * Applies a packed permutation to the color of a packed card
+	 *
+	 * @param pkPermutation (int) : the packed permutation
+	 * @param pkCard        (int) : the packed card
+	 * @return (int) : the packed card of the same rank and of the image color
+	 */
+	public static int permuteCard(int pkPermutation, int pkCard) {
+		assert isValid(pkPermutation) && PackedCard.isValid(pkCard);
+		return PackedCard.pack(color(pkPermutation, PackedCard.color(pkCard)), PackedCard.rank(pkCard));
+	}
+
+	/**
+	 * Applies a packed permutation to the colors of the cards of a packed card set
+	 *
+	 * @param pkPermutation (int) : the packed permutation
+	 * @param pkCardSet     (long) : the packed card set
+	 * @return (long) : the packed set of the images of the cards
+	 */
+	public static long permuteCardSet(int pkPermutation, long pkCardSet) {
+		assert isValid(pkPermutation) && PackedCardSet.isValid(pkCardSet);
+		long result = PackedCardSet.EMPTY;
+		for (int c = 0; c < Color.COUNT; ++c) {
+			result |= lane(pkCardSet, c) << (image(pkPermutation, c) * LANE_SIZE);
+		}
+		return result;
+	}
+
+	/**
+	 * Applies a packed permutation to the colors of the cards of a packed trick
+	 *
+	 * @param pkPermutation (int) : the packed permutation, which must leave the
+	 *                      trump of the trick unchanged
+	 * @param pkTrick       (int) : the packed trick
+	 * @return (int) : the packed trick whose cards are the images of the cards of
+	 *         the given trick
+	 */
+	public static int permuteTrick(int pkPermutation, int pkTrick) {
+		assert isValid(pkPermutation) && PackedTrick.isValid(pkTrick);
+		assert color(pkPermutation, PackedTrick.trump(pkTrick)) == PackedTrick.trump(pkTrick);
+		int result = pkTrick;
+		for (int i = 0; i < PackedTrick.size(pkTrick); ++i) {
+			result = PackedTrick.withCard(result, i, permuteCard(pkPermutation, PackedTrick.card(pkTrick, i)));
+		}
+		return result;
+	}
+
+	/*
+	 * Gets the ordinal of the image of the color of ordinal c
+	 */
+	private static int image(int pkPermutation, int c) {
+		return (pkPermutation >>> (c * COLOR_SIZE)) & COLOR_MASK;
+	}
+
+	/*
+	 * Gets the ranks of the cards of the color of ordinal c in a card set
+	 */
+	private static long lane(long pkCardSet, int c) {
+		return (pkCardSet >>> (c * LANE_SIZE)) & LANE_MASK;
+	}
+
+	/*
+	 * Computes a key which only depends on the cards of the color of ordinal c in
+	 * the position, and differs for colors whose cards differ
+	 */
+	private static long key(int c, int pkTrick, long pkUnplayedCards, long pkHand) {
+		long trickSignature = 0;
+		for (int i = 0; i < PackedTrick.size(pkTrick); ++i) {
+			int pkCard = PackedTrick.card(pkTrick, i);
+			if (PackedCard.color(pkCard).ordinal() == c) {
+				trickSignature |= (long) (PackedCard.rank(pkCard).ordinal() + 1) << (i * 4);
+			}
+		}
+		return lane(pkHand, c) << (2 * Card.Rank.COUNT + 16) | lane(pkUnplayedCards, c) << 16 | trickSignature;
+	}
+}
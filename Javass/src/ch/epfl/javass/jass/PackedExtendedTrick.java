@@ -0,0 +1,235 @@
+package ch.epfl.javass.jass;
+
+import ch.epfl.javass.bits.BitLayout.Field64;
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Represents an extended packed version of a trick in a Jass game, in which the
+ * packed trick is stored in the 32 least significant bits of a long along with
+ * the index of its best card, its size and the points of its cards. These are
+ * updated each time a card is added, so that the winner and the points of the
+ * trick are known without going through its cards
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class PackedExtendedTrick {
+
+	private PackedExtendedTrick() {
+	}
+
+	private static final Field64 TRICK = Field64.of(0, Integer.SIZE);
+	private static final Field64 BEST_INDEX = TRICK.next(2);
+	private static final Field64 SIZE = BEST_INDEX.next(3);
+	private static final Field64 POINTS = SIZE.next(6);
+
+	/**
+	 * Represents an invalid extended trick
+	 */
+	public static final long INVALID = -1L;
+
+	/**
+	 * Determines if an extended packed trick is valid, which is the case if its
+	 * packed trick is valid and its additional information corresponds to it
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (boolean) : true if the extended packed trick is valid
+	 */
+	public static boolean isValid(long pkExtTrick) {
+		int pkTrick = trick(pkExtTrick);
+		return PackedTrick.isValid(pkTrick) && ofTrick(pkTrick) == pkExtTrick;
+	}
+
+	/**
+	 * Constructs the extended version of a packed trick
+	 *
+	 * @param pkTrick (int) : the packed trick
+	 * @return (long) : the extended packed trick
+	 */
+	public static long ofTrick(int pkTrick) {
+		assert PackedTrick.isValid(pkTrick);
+		long pkExtTrick = firstEmptyOf(PackedTrick.withoutCards(pkTrick));
+		for (int i = 0; i < PackedTrick.size(pkTrick); ++i) {
+			pkExtTrick = withAddedCard(pkExtTrick, PackedTrick.card(pkTrick, i));
+		}
+		return pkExtTrick;
+	}
+
+	/**
+	 * Gets the packed trick of an extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (int) : the packed trick
+	 */
+	public static int trick(long pkExtTrick) {
+		return (int) pkExtTrick;
+	}
+
+	/**
+	 * Constructs an empty extended packed trick given the trump color and the
+	 * first player
+	 *
+	 * @param trump       (Color) : trump color
+	 * @param firstPlayer (PlayerId) : the first player
+	 * @return (long) : the empty extended packed trick
+	 */
+	public static long firstEmpty(Color trump, PlayerId firstPlayer) {
+		return firstEmptyOf(PackedTrick.firstEmpty(trump, firstPlayer));
+	}
+
+	/**
+	 * Constructs the next empty extended packed trick following a full one
+	 *
+	 * @param pkExtTrick (long) : the previous extended packed trick
+	 * @return (long) : the next empty extended packed trick, or INVALID if the
+	 *         previous one was the last of the turn
+	 */
+	public static long nextEmpty(long pkExtTrick) {
+		assert isValid(pkExtTrick);
+		int pkTrick = trick(pkExtTrick);
+		if (PackedTrick.isLast(pkTrick)) {
+			return INVALID;
+		}
+		return firstEmptyOf(PackedTrick.nextEmpty(pkTrick, winningPlayer(pkExtTrick)));
+	}
+
+	/**
+	 * Constructs the extended packed trick following an extended packed trick with
+	 * a new card played
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @param pkCard     (int) : the packed card played
+	 * @return (long) : the extended packed trick with the card played
+	 */
+	public static long withAddedCard(long pkExtTrick, int pkCard) {
+		assert PackedCard.isValid(pkCard) && !isFull(pkExtTrick);
+
+		int size = size(pkExtTrick);
+		int pkTrick = PackedTrick.withAddedCard(trick(pkExtTrick), pkCard);
+		Color trump = PackedTrick.trump(pkTrick);
+
+		int bestIndex = bestCardIndex(pkExtTrick);
+		if (size > 0 && PackedCard.isBetter(trump, pkCard, PackedTrick.card(pkTrick, bestIndex))) {
+			bestIndex = size;
+		}
+
+		return pack(pkTrick, bestIndex, size + 1, cardPoints(pkExtTrick) + PackedCard.points(trump, pkCard));
+	}
+
+	/**
+	 * Determines the size of an extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (int) : the number of cards of the trick
+	 */
+	public static int size(long pkExtTrick) {
+		return (int) SIZE.get(pkExtTrick);
+	}
+
+	/**
+	 * Determines if an extended packed trick is empty
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (boolean) : true if the trick is empty
+	 */
+	public static boolean isEmpty(long pkExtTrick) {
+		return size(pkExtTrick) == 0;
+	}
+
+	/**
+	 * Determines if an extended packed trick is full
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (boolean) : true if the trick is full
+	 */
+	public static boolean isFull(long pkExtTrick) {
+		return size(pkExtTrick) == PlayerId.COUNT;
+	}
+
+	/**
+	 * Gets the index of the best card of a non-empty extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (int) : the index of the best card of the trick
+	 */
+	public static int bestCardIndex(long pkExtTrick) {
+		return (int) BEST_INDEX.get(pkExtTrick);
+	}
+
+	/**
+	 * Determines the winning player of a non-empty extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (PlayerId) : the player who played the best card
+	 */
+	public static PlayerId winningPlayer(long pkExtTrick) {
+		assert !isEmpty(pkExtTrick);
+		return PackedTrick.player(trick(pkExtTrick), bestCardIndex(pkExtTrick));
+	}
+
+	/**
+	 * Determines the points attributed to an extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (int) : the value of the trick
+	 */
+	public static int points(long pkExtTrick) {
+		int points = cardPoints(pkExtTrick);
+		return PackedTrick.isLast(trick(pkExtTrick)) ? points + Jass.LAST_TRICK_ADDITIONAL_POINTS : points;
+	}
+
+	/**
+	 * Determines the packed set of playable cards given an extended packed trick
+	 * and a hand
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @param pkHand     (long) : set of cards in a player's hand
+	 * @return (long) : the set of playable cards given the trick and hand
+	 */
+	public static long playableCards(long pkExtTrick, long pkHand) {
+		assert PackedCardSet.isValid(pkHand);
+		if (isEmpty(pkExtTrick)) {
+			return pkHand;
+		}
+
+		int pkTrick = trick(pkExtTrick);
+		int trump = PackedTrick.trump(pkTrick).ordinal();
+		long allowedTrumps = PackedTrick.trumpsAbove(trump, PackedTrick.card(pkTrick, bestCardIndex(pkExtTrick)));
+		return PackedTrick.playableCards(trump, PackedTrick.baseColor(pkTrick).ordinal(), allowedTrumps, pkHand);
+	}
+
+	/**
+	 * Returns the textual representation of an extended packed trick
+	 *
+	 * @param pkExtTrick (long) : the extended packed trick
+	 * @return (String) : the textual representation of the trick
+	 */
+	public static String toString(long pkExtTrick) {
+		return PackedTrick.toString(trick(pkExtTrick));
+	}
+
+	/*
+	 * Gets the points of the cards of an extended packed trick, without the
+	 * additional points of the last trick
+	 */
+	private static int cardPoints(long pkExtTrick) {
+		return (int) POINTS.get(pkExtTrick);
+	}
+
+	/*
+	 * Constructs the extended version of an empty packed trick
+	 */
+	private static long firstEmptyOf(int pkTrick) {
+		return pack(pkTrick, 0, 0, 0);
+	}
+
+	/*
+	 * Packs a packed trick with its additional information
+	 */
+	private static long pack(int pkTrick, int bestIndex, int size, int points) {
+		long pkExtTrick = TRICK.with(0L, Integer.toUnsignedLong(pkTrick));
+		pkExtTrick = BEST_INDEX.with(pkExtTrick, bestIndex);
+		pkExtTrick = SIZE.with(pkExtTrick, size);
+		return POINTS.with(pkExtTrick, points);
+	}
+}
@@ -1,11 +1,10 @@
 package ch.epfl.javass.jass;
 
-import static ch.epfl.javass.bits.Bits64.extract;
+import static ch.epfl.javass.Preconditions.checkArgument;
 
 import java.util.StringJoiner;
 
-import ch.epfl.javass.bits.Bits32;
-import ch.epfl.javass.bits.Bits64;
+import ch.epfl.javass.bits.BitLayout.Field64;
 
 /**
  * Represents the packed version of the score of a Jass game
@@ -18,19 +17,25 @@ public final class PackedScore {
 	private PackedScore() {
 	}
 
-	private static final int NB_TRICKS_START = 0;
-	private static final int NB_TRICKS_SIZE = 4;
-	private static final int TURN_POINTS_START = NB_TRICKS_START + NB_TRICKS_SIZE;
-	private static final int TURN_POINTS_SIZE = 9;
-	private static final int GAME_POINTS_START = NB_TRICKS_START + NB_TRICKS_SIZE + TURN_POINTS_SIZE;
-	private static final int GAME_POINTS_SIZE = 11;
-	private static final int UNUSED_BITS_START = NB_TRICKS_START + NB_TRICKS_SIZE + TURN_POINTS_SIZE + GAME_POINTS_SIZE;
-	private static final int UNUSED_BITS_SIZE = 8;
+	// The fields of the score of each team, indexed by the ordinal of the team
+	private static final Field64[] NB_TRICKS = teamFields(Field64.of(0, 4));
+	private static final Field64[] TURN_POINTS = teamFields(NB_TRICKS[0].next(9));
+	private static final Field64[] GAME_POINTS = teamFields(TURN_POINTS[0].next(11));
+	private static final Field64[] UNUSED_BITS = teamFields(GAME_POINTS[0].next(8));
+	/*
+	 * The fields in which the sum of the game and turn points of each team is
+	 * computed : the game points field and the following bit, which can receive
+	 * the carry of the sum
+	 */
+	private static final Field64[] TOTAL_POINTS = teamFields(
+			Field64.of(GAME_POINTS[0].start(), GAME_POINTS[0].size() + 1));
+	private static final long BOTH_TURN_POINTS = TURN_POINTS[0].mask() | TURN_POINTS[1].mask();
+	private static final long BOTH_GAME_POINTS = GAME_POINTS[0].mask() | GAME_POINTS[1].mask();
 	private static final int MAX_TURN_POINTS = 257;
 	private static final int MAX_GAME_POINTS = 2000;
 
-	private static final int teamTwoStart(int i) {
-		return i + Integer.SIZE;
+	private static final Field64[] teamFields(Field64 teamOneField) {
+		return new Field64[] { teamOneField, teamOneField.shiftedBy(Integer.SIZE) };
 	}
 
 	/**
@@ -47,14 +52,13 @@ public final class PackedScore {
 	 * @return (boolean) : true if the packed score is valid, false otherwise
 	 */
 	public static boolean isValid(long pkScore) {
-		return extract(pkScore, UNUSED_BITS_START, UNUSED_BITS_SIZE) == 0
-				&& extract(pkScore, teamTwoStart(UNUSED_BITS_START), UNUSED_BITS_SIZE) == 0
-				&& extract(pkScore, NB_TRICKS_START, NB_TRICKS_SIZE) <= Jass.TRICKS_PER_TURN
-				&& extract(pkScore, teamTwoStart(NB_TRICKS_START), NB_TRICKS_SIZE) <= Jass.TRICKS_PER_TURN
-				&& extract(pkScore, TURN_POINTS_START, TURN_POINTS_SIZE) <= MAX_TURN_POINTS
-				&& extract(pkScore, teamTwoStart(TURN_POINTS_START), TURN_POINTS_SIZE) <= MAX_TURN_POINTS
-				&& extract(pkScore, GAME_POINTS_START, GAME_POINTS_SIZE) <= MAX_GAME_POINTS
-				&& extract(pkScore, teamTwoStart(GAME_POINTS_START), GAME_POINTS_SIZE) <= MAX_GAME_POINTS;
+		for (int t = 0; t < TeamId.COUNT; ++t) {
+			if (UNUSED_BITS[t].get(pkScore) != 0 || NB_TRICKS[t].get(pkScore) > Jass.TRICKS_PER_TURN
+					|| TURN_POINTS[t].get(pkScore) > MAX_TURN_POINTS || GAME_POINTS[t].get(pkScore) > MAX_GAME_POINTS) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -67,14 +71,20 @@ public final class PackedScore {
 	 * @param turnPoints2 (int) : number of points won by team 2 in the current turn
 	 * @param gamePoints2 (int) : current number of points won by team 2 in the game
 	 * @return (long) : packed score
+	 * @throws IllegalArgumentException if one of the values does not fit in its
+	 *                                  field
 	 */
 	public static long pack(int turnTricks1, int turnPoints1, int gamePoints1, int turnTricks2, int turnPoints2,
-			int gamePoints2) {
-		return Bits64.pack(
-				Bits32.pack(turnTricks1, NB_TRICKS_SIZE, turnPoints1, TURN_POINTS_SIZE, gamePoints1, GAME_POINTS_SIZE),
-				Integer.SIZE,
-				Bits32.pack(turnTricks2, NB_TRICKS_SIZE, turnPoints2, TURN_POINTS_SIZE, gamePoints2, GAME_POINTS_SIZE),
-				Integer.SIZE);
+			int gamePoints2) throws IllegalArgumentException {
+		checkArgument(NB_TRICKS[0].fits(turnTricks1) && TURN_POINTS[0].fits(turnPoints1)
+				&& GAME_POINTS[0].fits(gamePoints1) && NB_TRICKS[1].fits(turnTricks2)
+				&& TURN_POINTS[1].fits(turnPoints2) && GAME_POINTS[1].fits(gamePoints2));
+		long pkScore = NB_TRICKS[0].with(INITIAL, turnTricks1);
+		pkScore = TURN_POINTS[0].with(pkScore, turnPoints1);
+		pkScore = GAME_POINTS[0].with(pkScore, gamePoints1);
+		pkScore = NB_TRICKS[1].with(pkScore, turnTricks2);
+		pkScore = TURN_POINTS[1].with(pkScore, turnPoints2);
+		return GAME_POINTS[1].with(pkScore, gamePoints2);
 	}
 
 	/**
@@ -86,8 +96,7 @@ public final class PackedScore {
 	 */
 	public static int turnTricks(long pkScore, TeamId t) {
 		assert isValid(pkScore);
-		return (int) extract(pkScore, t.equals(TeamId.TEAM_1) ? NB_TRICKS_START : teamTwoStart(NB_TRICKS_START),
-				NB_TRICKS_SIZE);
+		return (int) NB_TRICKS[t.ordinal()].get(pkScore);
 	}
 
 	/**
@@ -99,8 +108,7 @@ public final class PackedScore {
 	 */
 	public static int turnPoints(long pkScore, TeamId t) {
 		assert isValid(pkScore);
-		return (int) extract(pkScore, t.equals(TeamId.TEAM_1) ? TURN_POINTS_START : teamTwoStart(TURN_POINTS_START),
-				TURN_POINTS_SIZE);
+		return (int) TURN_POINTS[t.ordinal()].get(pkScore);
 	}
 
 	/**
@@ -113,8 +121,7 @@ public final class PackedScore {
 	 */
 	public static int gamePoints(long pkScore, TeamId t) {
 		assert isValid(pkScore);
-		return (int) extract(pkScore, t.equals(TeamId.TEAM_1) ? GAME_POINTS_START : teamTwoStart(GAME_POINTS_START),
-				GAME_POINTS_SIZE);
+		return (int) GAME_POINTS[t.ordinal()].get(pkScore);
 	}
 
 	/**
@@ -128,7 +135,7 @@ public final class PackedScore {
 	 */
 	public static int totalPoints(long pkScore, TeamId t) {
 		assert isValid(pkScore);
-		return gamePoints(pkScore, t) + turnPoints(pkScore, t);
+		return (int) TOTAL_POINTS[t.ordinal()].get(totals(pkScore));
 	}
 
 	/**
@@ -141,25 +148,14 @@ public final class PackedScore {
 	 */
 	public static long withAdditionalTrick(long pkScore, TeamId winningTeam, int trickPoints) {
 		assert isValid(pkScore);
+		int t = winningTeam.ordinal();
 
-		int newTurnTricks = turnTricks(pkScore, winningTeam) + 1;
-
-		int newWinningTeamTurnPoints = turnPoints(pkScore, winningTeam) + trickPoints;
-
-		if (newTurnTricks == Jass.TRICKS_PER_TURN) {
-			newWinningTeamTurnPoints += Jass.MATCH_ADDITIONAL_POINTS;
-		}
-
-		if (winningTeam.equals(TeamId.TEAM_1)) {
-			return pack(newTurnTricks, newWinningTeamTurnPoints, gamePoints(pkScore, winningTeam),
-					turnTricks(pkScore, winningTeam.other()), turnPoints(pkScore, winningTeam.other()),
-					gamePoints(pkScore, winningTeam.other()));
-
-		} else {
-			return pack(turnTricks(pkScore, winningTeam.other()), turnPoints(pkScore, winningTeam.other()),
-					gamePoints(pkScore, winningTeam.other()), newTurnTricks, newWinningTeamTurnPoints,
-					gamePoints(pkScore, winningTeam));
+		// The fields of the team cannot overflow, so the trick and its points are added in place
+		long newScore = pkScore + (1L << NB_TRICKS[t].start()) + ((long) trickPoints << TURN_POINTS[t].start());
+		if (NB_TRICKS[t].get(newScore) == Jass.TRICKS_PER_TURN) {
+			newScore += (long) Jass.MATCH_ADDITIONAL_POINTS << TURN_POINTS[t].start();
 		}
+		return newScore;
 	}
 
 	/**
@@ -170,7 +166,18 @@ public final class PackedScore {
 	 */
 	public static long nextTurn(long pkScore) {
 		assert isValid(pkScore) && turnTricks(pkScore, TeamId.TEAM_1) + turnTricks(pkScore, TeamId.TEAM_2) == Jass.TRICKS_PER_TURN;
-		return pack(0, 0, totalPoints(pkScore, TeamId.TEAM_1), 0, 0, totalPoints(pkScore, TeamId.TEAM_2));
+		long newScore = totals(pkScore);
+		assert isValid(newScore);
+		return newScore;
+	}
+
+	/*
+	 * Adds the turn points of each team to its game points, for both teams at once,
+	 * and clears the other fields
+	 */
+	private static long totals(long pkScore) {
+		return (pkScore & BOTH_GAME_POINTS)
+				+ ((pkScore & BOTH_TURN_POINTS) << (GAME_POINTS[0].start() - TURN_POINTS[0].start()));
 	}
 
 	/**
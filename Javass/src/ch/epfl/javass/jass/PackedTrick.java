@@ -1,16 +1,11 @@
 package ch.epfl.javass.jass;
 
-import static ch.epfl.javass.bits.Bits32.extract;
-import static ch.epfl.javass.bits.Bits32.mask;
-import static ch.epfl.javass.bits.Bits32.pack;
-import static ch.epfl.javass.jass.PackedCardSet.difference;
-import static ch.epfl.javass.jass.PackedCardSet.intersection;
 import static ch.epfl.javass.jass.PackedCardSet.singleton;
 import static ch.epfl.javass.jass.PackedCardSet.subsetOfColor;
-import static ch.epfl.javass.jass.PackedCardSet.union;
 
 import java.util.StringJoiner;
 
+import ch.epfl.javass.bits.BitLayout.Field32;
 import ch.epfl.javass.jass.Card.Color;
 
 /**
@@ -24,15 +19,53 @@ public final class PackedTrick {
 	private PackedTrick() {
 	}
 
-	private static final int TRICK_START = 0;
 	private static final int CARD_SIZE = 6;
-	private static final int FOUR_CARDS_SIZE = PlayerId.COUNT * CARD_SIZE;
-	private static final int INDEX_START = TRICK_START + CARD_SIZE * 4;
-	private static final int INDEX_SIZE = 4;
-	private static final int FIRST_PLAYER_START = TRICK_START + FOUR_CARDS_SIZE + INDEX_SIZE;
-	private static final int FIRST_PLAYER_SIZE = 2;
-	private static final int TRUMP_START = TRICK_START + FOUR_CARDS_SIZE + INDEX_SIZE + FIRST_PLAYER_SIZE;
-	private static final int TRUMP_SIZE = 2;
+	private static final Field32[] CARDS = { Field32.of(0, CARD_SIZE), Field32.of(CARD_SIZE, CARD_SIZE),
+			Field32.of(2 * CARD_SIZE, CARD_SIZE), Field32.of(3 * CARD_SIZE, CARD_SIZE) };
+	private static final Field32 FOUR_CARDS = Field32.of(0, PlayerId.COUNT * CARD_SIZE);
+	private static final Field32 INDEX = FOUR_CARDS.next(4);
+	private static final Field32 FIRST_PLAYER = INDEX.next(2);
+	private static final Field32 TRUMP = FIRST_PLAYER.next(2);
+
+	/*
+	 * For use in the method playableCards : COLOR_CARDS[c] is the set of all the
+	 * cards of the color of ordinal c, TRUMP_JACK[t] the set containing the Jack
+	 * of the color of ordinal t, and TRUMPS_ABOVE[t][c] the set of the cards of
+	 * the color of ordinal t which can be played over the card c when that color
+	 * is trump (all of them if c is not of that color or is not valid)
+	 */
+	private static final long[] COLOR_CARDS = colorCards();
+	private static final long[] TRUMP_JACK = trumpJack();
+	private static final long[][] TRUMPS_ABOVE = trumpsAbove();
+
+	private static long[] colorCards() {
+		long[] array = new long[Color.COUNT];
+		for (Color c : Color.ALL) {
+			array[c.ordinal()] = subsetOfColor(PackedCardSet.ALL_CARDS, c);
+		}
+		return array;
+	}
+
+	private static long[] trumpJack() {
+		long[] array = new long[Color.COUNT];
+		for (Color c : Color.ALL) {
+			array[c.ordinal()] = singleton(PackedCard.pack(c, Card.Rank.JACK));
+		}
+		return array;
+	}
+
+	private static long[][] trumpsAbove() {
+		long[][] array = new long[Color.COUNT][1 << CARD_SIZE];
+		for (Color trump : Color.ALL) {
+			long[] above = array[trump.ordinal()];
+			for (int pkCard = 0; pkCard < above.length; ++pkCard) {
+				above[pkCard] = PackedCard.isValid(pkCard) && PackedCard.color(pkCard) == trump
+						? PackedCardSet.trumpAbove(pkCard)
+						: subsetOfColor(PackedCardSet.ALL_CARDS, trump);
+			}
+		}
+		return array;
+	}
 
 	/**
 	 * Represents an invalid trick
@@ -48,13 +81,13 @@ public final class PackedTrick {
 	 */
 	public static boolean isValid(int pkTrick) {
 		// Index of the trick must be smaller than 9
-		if (extract(pkTrick, INDEX_START, INDEX_SIZE) >= Jass.TRICKS_PER_TURN) {
+		if (INDEX.get(pkTrick) >= Jass.TRICKS_PER_TURN) {
 		    return false;
 		}
 
 		boolean invalidFound = false;
 		for (int i = 0; i < PlayerId.COUNT; ++i) {
-			int currentCard = extract(pkTrick, i * CARD_SIZE, CARD_SIZE);
+			int currentCard = CARDS[i].get(pkTrick);
 
 			if (!PackedCard.isValid(currentCard)) {
 				invalidFound = true;
@@ -77,9 +110,7 @@ public final class PackedTrick {
 	 * @return (int) : the empty packed trick given a trump color and first player
 	 */
 	public static int firstEmpty(Color trump, PlayerId firstPlayer) {
-		return pack(mask(TRICK_START, FOUR_CARDS_SIZE), FOUR_CARDS_SIZE, 0, INDEX_SIZE,
-				pack(firstPlayer.ordinal(), FIRST_PLAYER_SIZE, trump.ordinal(), TRUMP_SIZE),
-				FIRST_PLAYER_SIZE + TRUMP_SIZE);
+		return TRUMP.with(FIRST_PLAYER.with(FOUR_CARDS.mask(), firstPlayer.ordinal()), trump.ordinal());
 	}
 
 	/**
@@ -91,10 +122,22 @@ public final class PackedTrick {
 	 */
 	public static int nextEmpty(int pkTrick) {
 		assert isValid(pkTrick);
-		return isLast(pkTrick) ? INVALID
-				: pack(mask(TRICK_START, FOUR_CARDS_SIZE), FOUR_CARDS_SIZE, index(pkTrick) + 1, INDEX_SIZE,
-						pack(winningPlayer(pkTrick).ordinal(), FIRST_PLAYER_SIZE, trump(pkTrick).ordinal(), TRUMP_SIZE),
-						FIRST_PLAYER_SIZE + TRUMP_SIZE);
+		return isLast(pkTrick) ? INVALID : nextEmpty(pkTrick, winningPlayer(pkTrick));
+	}
+
+	/*
+	 * Constructs the next empty packed trick following a packed trick which is not
+	 * the last of its turn, given its winning player
+	 */
+	static int nextEmpty(int pkTrick, PlayerId winningPlayer) {
+		return INDEX.with(FIRST_PLAYER.with(pkTrick | FOUR_CARDS.mask(), winningPlayer.ordinal()), index(pkTrick) + 1);
+	}
+
+	/*
+	 * Removes all the cards of a packed trick
+	 */
+	static int withoutCards(int pkTrick) {
+		return pkTrick | FOUR_CARDS.mask();
 	}
 
 	/**
@@ -154,7 +197,7 @@ public final class PackedTrick {
 	 */
 	public static Color trump(int pkTrick) {
 		assert isValid(pkTrick);
-		return Color.ALL.get(extract(pkTrick, TRUMP_START, TRUMP_SIZE));
+		return Color.ALL.get(TRUMP.get(pkTrick));
 	}
 
 	/**
@@ -167,7 +210,7 @@ public final class PackedTrick {
 	 */
 	public static PlayerId player(int pkTrick, int index) {
 		assert isValid(pkTrick);
-		return PlayerId.ALL.get((extract(pkTrick, FIRST_PLAYER_START, FIRST_PLAYER_SIZE) + index) % PlayerId.COUNT);
+		return PlayerId.ALL.get((FIRST_PLAYER.get(pkTrick) + index) % PlayerId.COUNT);
 	}
 
 	/**
@@ -178,7 +221,7 @@ public final class PackedTrick {
 	 */
 	public static int index(int pkTrick) {
 		assert isValid(pkTrick);
-		return extract(pkTrick, INDEX_START, INDEX_SIZE);
+		return INDEX.get(pkTrick);
 	}
 
 	/**
@@ -192,7 +235,7 @@ public final class PackedTrick {
 	 */
 	public static int card(int pkTrick, int index) {
 		assert isValid(pkTrick);
-		return extract(pkTrick, index * CARD_SIZE, CARD_SIZE);
+		return CARDS[index].get(pkTrick);
 	}
 
 	/**
@@ -203,17 +246,17 @@ public final class PackedTrick {
 	 * @return (int) : updated value of the given trick, with the given card played
 	 */
 	public static int withAddedCard(int pkTrick, int pkCard) {
-		assert isValid(pkTrick) && PackedCard.isValid(pkCard);
-
-		int sizeTimesSix = size(pkTrick) * CARD_SIZE;
-		if (sizeTimesSix == 0) {
-			return pack(pkCard, CARD_SIZE, extract(pkTrick, CARD_SIZE, Integer.SIZE - CARD_SIZE),
-					Integer.SIZE - CARD_SIZE);
-		}
+		assert isValid(pkTrick) && !isFull(pkTrick) && PackedCard.isValid(pkCard);
+		return CARDS[size(pkTrick)].with(pkTrick, pkCard);
+	}
 
-		return pack(extract(pkTrick, TRICK_START, sizeTimesSix), sizeTimesSix, pkCard, CARD_SIZE,
-				extract(pkTrick, sizeTimesSix + CARD_SIZE, Integer.SIZE - CARD_SIZE - sizeTimesSix),
-				Integer.SIZE - CARD_SIZE - sizeTimesSix);
+	/*
+	 * Replaces the card at an index of a packed trick, which must already contain
+	 * a card at that index
+	 */
+	static int withCard(int pkTrick, int index, int pkCard) {
+		assert isValid(pkTrick) && index < size(pkTrick) && PackedCard.isValid(pkCard);
+		return CARDS[index].with(pkTrick, pkCard);
 	}
 
 	/**
@@ -243,49 +286,45 @@ public final class PackedTrick {
 			return pkHand;
 		}
 
-		Color trump = trump(pkTrick);
-		Color baseColor = baseColor(pkTrick);
-		long playableCards = subsetOfColor(pkHand, baseColor);
-
-		// If the base color is trump and the only trump card in the hand is the Jack,
-		// or he doesn't have any trumps,
-		// any card in the hand can be played.
-		// But, if he has any other trump card, he has to play a trump card
-		if (trump.equals(baseColor)) {
-			if (singleton(PackedCard.pack(trump, Card.Rank.JACK)) == playableCards
-					|| PackedCardSet.isEmpty(playableCards)) {
-				return pkHand;
-			} else {
-				return playableCards;
-			}
-		}
+		// The trumps which can be played are the ones better than all the trumps of
+		// the trick (empty slots contain the invalid card, which allows all trumps)
+		int trump = TRUMP.get(pkTrick);
+		long allowedTrumps = TRUMPS_ABOVE[trump][card(pkTrick, 0)] & TRUMPS_ABOVE[trump][card(pkTrick, 1)]
+				& TRUMPS_ABOVE[trump][card(pkTrick, 2)];
 
-		long trumpCardsInHand = subsetOfColor(pkHand, trump);
+		return playableCards(trump, PackedCard.color(card(pkTrick, 0)).ordinal(), allowedTrumps, pkHand);
+	}
 
-		// If the player has no base color cards, all the non-trump cards are added to
-		// the playable cards
-		if (PackedCardSet.isEmpty(playableCards)) {
-			playableCards = difference(pkHand, trumpCardsInHand);
+	/*
+	 * Determines the playable cards of a hand in a non-empty trick, given the
+	 * ordinals of its trump and base color and the set of trumps which can be
+	 * played over its cards
+	 */
+	static long playableCards(int trump, int baseColor, long allowedTrumps, long pkHand) {
+		long trumpCardsInHand = pkHand & COLOR_CARDS[trump];
+		long baseColorCardsInHand = pkHand & COLOR_CARDS[baseColor];
+
+		// If the base color is trump, trumps must be played unless the only one in
+		// the hand is the Jack
+		if (baseColor == trump) {
+			return (trumpCardsInHand & ~TRUMP_JACK[trump]) == 0 ? pkHand : trumpCardsInHand;
 		}
 
-		// All the trump cards better than the best trump (if played, otherwise all
-		// trumps are added) are also added
-		int bestCardPlayed = card(pkTrick, bestCardIndex(pkTrick, trump));
-
-		if (PackedCard.color(bestCardPlayed).equals(trump)) {
-			playableCards = union(playableCards,
-					intersection(PackedCardSet.trumpAbove(bestCardPlayed), trumpCardsInHand));
-		} else {
-			playableCards = union(playableCards, trumpCardsInHand);
-		}
+		// Without base color cards, all the non-trump cards can be played
+		long playableCards = (baseColorCardsInHand == 0 ? pkHand & ~trumpCardsInHand : baseColorCardsInHand)
+				| (trumpCardsInHand & allowedTrumps);
 
 		// If the only cards in hand are worse trump cards than the best trump card
 		// already played, any card can be played
-		if (PackedCardSet.isEmpty(playableCards)) {
-			playableCards = pkHand;
-		}
+		return playableCards == 0 ? pkHand : playableCards;
+	}
 
-		return playableCards;
+	/*
+	 * Gets the set of trumps which can be played over a card, given the ordinal of
+	 * the trump
+	 */
+	static long trumpsAbove(int trump, int pkCard) {
+		return TRUMPS_ABOVE[trump][pkCard];
 	}
 
 	/**
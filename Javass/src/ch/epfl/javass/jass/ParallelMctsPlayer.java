@@ -14,22 +14,124 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
-import ch.epfl.javass.jass.Card.Color;;
+import ch.epfl.javass.jass.Card.Color;
 
+/**
+ * Represents a player simulated using several independent MCTS trees searched
+ * in parallel. The chosen card only depends on the seed, the number of
+ * iterations and the number of trees, never on the number of threads used or
+ * on the order in which the trees finish
+ * 
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
 public class ParallelMctsPlayer implements Player {
 	private PlayerId ownId;
 	private SplittableRandom rng;
 	private int iterations;
 	private final static int c = 40;
 	private final int nbTrees;
+	// The number of threads of the player, when it is not searched by a scheduler
+	private int nbThreads;
+	private final IterationBudget budget;
+	private final SearchScheduler.Seat seat;
+	private final long timeLimitNanos;
+	private final DecisionCache cache;
+	private final MctsOptions options;
 
-	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, int iterations, int nbTrees)
-			throws IllegalArgumentException {
-		checkArgument(iterations >= Jass.HAND_SIZE);
+	/*
+	 * Number of iterations of a tree searched between two scheduling decisions,
+	 * when searching with a scheduler
+	 */
+	private static final int SLICE_ITERATIONS = 256;
+
+	private ParallelMctsPlayer(PlayerId ownId, long rngSeed, MctsOptions options, int nbTrees,
+			SearchScheduler.Seat seat, long timeLimitNanos) throws IllegalArgumentException {
+		checkArgument(options != null);
 		this.ownId = ownId;
 		this.rng = new SplittableRandom(rngSeed);
-		this.iterations = iterations;
+		this.iterations = options.iterations();
+		this.budget = options.budget();
 		this.nbTrees = nbTrees;
+		this.seat = seat;
+		this.timeLimitNanos = timeLimitNanos;
+		this.cache = options.cache();
+		this.options = options;
+	}
+
+	/**
+	 * Constructor for a ParallelMctsPlayer
+	 * 
+	 * @param ownId      (PlayerId) : the PlayerId of the player
+	 * @param rngSeed    (long) : the seed from which the generators of all the
+	 *                   trees are split
+	 * @param iterations (int) : the number of iterations of each tree
+	 * @param nbTrees    (int) : the number of trees searched for each card
+	 * @param nbThreads  (int) : the number of threads searching the trees
+	 * @throws IllegalArgumentException if the number of iterations is lower than
+	 *                                  9, or if the number of trees or threads is
+	 *                                  not strictly positive
+	 */
+	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, int iterations, int nbTrees, int nbThreads)
+			throws IllegalArgumentException {
+		this(ownId, rngSeed, MctsOptions.ofIterations(iterations), nbTrees, nbThreads);
+	}
+
+	/**
+	 * Constructor for a ParallelMctsPlayer whose trees are searched with given
+	 * options (see MctsOptions). A decision cache is reused by searches of at
+	 * least as many iterations in total
+	 * 
+	 * @param ownId     (PlayerId) : the PlayerId of the player
+	 * @param rngSeed   (long) : the seed from which the generators of all the
+	 *                  trees are split
+	 * @param options   (MctsOptions) : the options of the search of each tree,
+	 *                  whose budget (if any) must not be shared with another
+	 *                  player
+	 * @param nbTrees   (int) : the number of trees searched for each card
+	 * @param nbThreads (int) : the number of threads searching the trees
+	 * @throws IllegalArgumentException if the options are null, or if the number
+	 *                                  of trees or threads is not strictly
+	 *                                  positive
+	 */
+	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, MctsOptions options, int nbTrees, int nbThreads)
+			throws IllegalArgumentException {
+		this(ownId, rngSeed, options, nbTrees, null, 0);
+		checkArgument(nbTrees > 0 && nbThreads > 0);
+		this.nbThreads = nbThreads;
+	}
+
+	/**
+	 * Constructor for a ParallelMctsPlayer whose trees are searched with given
+	 * options by the workers of a scheduler shared with other players. The search
+	 * of a card is stopped after a given time even if the trees have not received
+	 * all their iterations, in which case the chosen card also depends on the
+	 * load of the scheduler
+	 * 
+	 * @param ownId     (PlayerId) : the PlayerId of the player
+	 * @param rngSeed   (long) : the seed from which the generators of all the
+	 *                  trees are split
+	 * @param options   (MctsOptions) : the options of the search of each tree,
+	 *                  whose budget (if any) must not be shared with another
+	 *                  player
+	 * @param nbTrees   (int) : the number of trees searched for each card
+	 * @param seat      (SearchScheduler.Seat) : the seat of the player in the
+	 *                  scheduler
+	 * @param timeLimit (double) : the maximum time (in seconds) the search of a
+	 *                  card can take
+	 * @throws IllegalArgumentException if the options or the seat are null, or if
+	 *                                  the number of trees or the time limit is
+	 *                                  not strictly positive
+	 */
+	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, MctsOptions options, int nbTrees,
+			SearchScheduler.Seat seat, double timeLimit) throws IllegalArgumentException {
+		this(ownId, rngSeed, options, nbTrees, seat, (long) (timeLimit * 1e9));
+		checkArgument(nbTrees > 0 && seat != null && timeLimit > 0);
+	}
+
+	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, int iterations, int nbTrees)
+			throws IllegalArgumentException {
+		this(ownId, rngSeed, iterations, nbTrees, nbTrees);
 	}
 
 	public ParallelMctsPlayer(PlayerId ownId, long rngSeed, int iterations) {
@@ -40,10 +142,13 @@ public class ParallelMctsPlayer implements Player {
 	public Color chooseTrump(PlayerId chooser, CardSet hand, boolean canPass) {
 		Color mode = null;
 		int highestFreq = 0;
+		int colorSizes = PackedCardSet.colorSizes(hand.packed());
 		
 		for (Color c : Color.ALL) {
-			if (hand.subsetOfColor(c).size() > highestFreq) {
+			int freq = PackedCardSet.colorSize(colorSizes, c);
+			if (freq > highestFreq) {
 				mode = c;
+				highestFreq = freq;
 			}
 		}
 		
@@ -56,68 +161,153 @@ public class ParallelMctsPlayer implements Player {
 
 	@Override
 	public Card cardToPlay(TurnState state, CardSet hand) {
-		ExecutorService executorService = Executors.newWorkStealingPool(nbTrees);
-		List<Future<Pair>> futurePointsToIterationsRatios = new ArrayList<>();
-		List<Pair> pointsToIterationsRatios = new ArrayList<>();
+		long playableCards = PackedTrick.playableCards(state.packedTrick(), hand.packed());
+		int treeIterations = budget == null ? iterations
+				: budget.allot(PackedTrick.index(state.packedTrick()), playableCards);
+		if (treeIterations == 0) {
+			return Card.ofValidPacked(get(playableCards, 0));
+		}
+
+		if (cache != null) {
+			DecisionCache.Decision decision = cache.get(state, hand.packed());
+			if (decision != null && decision.iterations() >= (long) treeIterations * nbTrees) {
+				if (budget != null) {
+					// The cached decision costs no iteration
+					budget.refund(treeIterations);
+				}
+				return Card.ofValidPacked(decision.packedCard());
+			}
+		}
 
+		// The generators are split in tree order on the calling thread, so that
+		// each tree always receives the same one
+		TreeSearch[] searches = new TreeSearch[nbTrees];
 		for (int i = 0; i < nbTrees; ++i) {
-			futurePointsToIterationsRatios.add(
-					executorService.submit(Executor.executor(rng.nextInt(), state, hand, ownId, iterations)::execute));
+			searches[i] = new TreeSearch(new Node(state, hand.packed(), null, ownId), rng.split(), treeIterations);
 		}
 
-		for (Future<Pair> f : futurePointsToIterationsRatios) {
-			try {
-				pointsToIterationsRatios.add(f.get());
-			} catch (InterruptedException | ExecutionException e) {
-				e.printStackTrace();
+		List<Future<?>> futures = new ArrayList<>();
+		ExecutorService executorService = null;
+		if (seat == null) {
+			// Worker w searches the trees w, w + nbWorkers, w + 2 * nbWorkers...
+			int nbWorkers = Math.min(nbThreads, nbTrees);
+			executorService = Executors.newFixedThreadPool(nbWorkers);
+			for (int w = 0; w < nbWorkers; ++w) {
+				int worker = w;
+				futures.add(executorService.submit(() -> {
+					for (int t = worker; t < nbTrees; t += nbWorkers) {
+						while (!searches[t].runSlice()) {
+						}
+					}
+				}));
+			}
+		} else {
+			long deadline = System.nanoTime() + timeLimitNanos;
+			for (TreeSearch search : searches) {
+				futures.add(seat.submit(search, deadline));
+			}
+		}
+
+		try {
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (executorService != null) {
+				executorService.shutdownNow();
 			}
 		}
-		
-		executorService.shutdown();
-		return state.trick().playableCards(hand).get(Pair.bestRatioIndex(pointsToIterationsRatios));
-	}
 
-	@FunctionalInterface
-	private interface Executor {
-		Pair execute();
+		if (budget != null) {
+			int totalUnused = 0;
+			for (TreeSearch search : searches) {
+				totalUnused += treeIterations - search.root.ownIterations;
+			}
+			budget.refund(totalUnused / nbTrees);
+		}
 
-		static Executor executor(int rngSeed, TurnState state, CardSet hand, PlayerId ownId, int iterations) {
-			return () -> {
-				SplittableRandom seed = new SplittableRandom(rngSeed);
-				Node node = new Node(state, hand.packed(), null, ownId);
-				while (node.ownIterations < iterations) {
-					node.main(ownId, seed, c);
-				}
-				int index = node.chooseNodeIndex(0);
-				Node bestChild = node.childrenNodes[index];
-				return Pair.build(index, bestChild.points / (double) bestChild.ownIterations);
-			};
+		int index = bestChildIndex(searches);
+		int pkCard = get(playableCards, index);
+		if (cache != null) {
+			long totalIterations = 0;
+			for (TreeSearch search : searches) {
+				totalIterations += search.root.ownIterations;
+			}
+			cache.put(state, hand.packed(),
+					new DecisionCache.Decision(pkCard, totalIterations, averagePoints(searches, index)));
 		}
+		return Card.ofValidPacked(pkCard);
 	}
-	
-	private static final class Pair {
-		private final int index;
-		private final double ratio;
-		
-		Pair(int index, double ratio) {
-			this.index = index;
-			this.ratio = ratio;
+
+	/*
+	 * Merges the statistics of all the trees by summing them child by child (which
+	 * does not depend on the order of the trees), and returns the index of the
+	 * child with the best average, the lowest index winning ties
+	 */
+	private static int bestChildIndex(TreeSearch[] searches) {
+		int bestIndex = 0;
+		double bestRatio = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < searches[0].root.childrenNodes.length; ++i) {
+			double ratio = averagePoints(searches, i);
+			if (ratio > bestRatio) {
+				bestIndex = i;
+				bestRatio = ratio;
+			}
 		}
-		
-		static Pair build(int index, double ratio) {
-			return new Pair(index, ratio);
+		return bestIndex;
+	}
+
+	/*
+	 * Determines the average points of a child of the root over all the trees, or
+	 * negative infinity if no tree explored it
+	 */
+	private static double averagePoints(TreeSearch[] searches, int index) {
+		long totalPoints = 0, totalIterations = 0;
+		for (TreeSearch search : searches) {
+			Node child = search.root.childrenNodes[index];
+			if (child != null) {
+				totalPoints += child.points;
+				totalIterations += child.ownIterations;
+			}
 		}
-		
-		static int bestRatioIndex(List<Pair> pairs) {
-			int bestIndex = -1;
-			double bestRatio = -1D;
-			for (Pair p : pairs) {
-				if (p.ratio > bestRatio) {
-					bestIndex = p.index;
-					bestRatio = p.ratio;
+		return totalIterations > 0 ? totalPoints / (double) totalIterations : Double.NEGATIVE_INFINITY;
+	}
+
+	/*
+	 * The search of one tree, which can be executed slice by slice
+	 */
+	private final class TreeSearch implements SearchScheduler.Search {
+		private final Node root;
+		private final SplittableRandom treeRng;
+		private final int treeIterations;
+		private final MutableTurnState rollout;
+		private final EndgameSolver endgame;
+
+		TreeSearch(Node root, SplittableRandom treeRng, int treeIterations) {
+			this.root = root;
+			this.treeRng = treeRng;
+			this.treeIterations = treeIterations;
+			this.rollout = new MutableTurnState(root.turnState);
+			this.endgame = options.newEndgameSolver();
+		}
+
+		@Override
+		public boolean runSlice() {
+			int end = Math.min(treeIterations, root.ownIterations + SLICE_ITERATIONS);
+			while (root.ownIterations < end) {
+				// The search can stop early only when an iteration budget is used
+				if (budget != null && IterationBudget.isDecided(root.mostExploredChildIterations(),
+						root.ownIterations, treeIterations)) {
+					return true;
 				}
+				root.main(ownId, treeRng, c, rollout, endgame);
 			}
-			return bestIndex;
+			return root.ownIterations >= treeIterations;
 		}
 	}
 
@@ -128,6 +318,7 @@ public class ParallelMctsPlayer implements Player {
 		private int points;
 		private int ownIterations;
 		private final long playableCards;
+		private long untriedCards;
 		private final Node parent;
 
 		Node(TurnState turnState, long hand, Node parent, PlayerId ownId) {
@@ -144,17 +335,20 @@ public class ParallelMctsPlayer implements Player {
 			}
 
 			childrenNodes = new Node[PackedCardSet.size(playableCards)];
+			untriedCards = playableCards;
 		}
 
 		/*
 		 * Adds a child node to this node and simulates the added node
 		 */
-		private void addChildNode(PlayerId ownId, SplittableRandom rng) {
+		private void addChildNode(PlayerId ownId, SplittableRandom rng, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			// because every node is simulated at least once except for the initial node
 			int k = (parent == null) ? ownIterations : ownIterations - 1;
-			int nodeCard = get(playableCards, k);
-			(childrenNodes[k] = new Node(turnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(nodeCard)),
-					remove(hand, nodeCard), this, ownId)).simulateTurn(ownId, rng);
+			int nodeCard = PackedCardSet.lowestCard(untriedCards);
+			untriedCards = PackedCardSet.withoutLowestCard(untriedCards);
+			(childrenNodes[k] = new Node(turnState.withNewCardPlayedAndTrickCollected(Card.ofValidPacked(nodeCard)),
+					remove(hand, nodeCard), this, ownId)).simulateTurn(ownId, rng, rollout, endgame);
 		}
 
 		/*
@@ -179,6 +373,19 @@ public class ParallelMctsPlayer implements Player {
 			return maxIndex;
 		}
 
+		/*
+		 * Gets the iterations of the most explored child of this node
+		 */
+		private int mostExploredChildIterations() {
+			int max = 0;
+			for (Node child : childrenNodes) {
+				if (child != null && child.ownIterations > max) {
+					max = child.ownIterations;
+				}
+			}
+			return max;
+		}
+
 		/*
 		 * Updates the score associated to this node and propagates the score upwards in
 		 * the tree
@@ -192,26 +399,34 @@ public class ParallelMctsPlayer implements Player {
 		}
 
 		/*
-		 * Simulates a random turn continuing from the node's turn state
+		 * Simulates a random turn continuing from the node's turn state, playing it
+		 * in the given mutable turn state, and ends it with the endgame solver (if
+		 * any) once the last tricks are reached
 		 */
-		private void simulateTurn(PlayerId ownId, SplittableRandom rng) {
+		private void simulateTurn(PlayerId ownId, SplittableRandom rng, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			long othersCards = difference(turnState.packedUnplayedCards(), hand);
 			long currentHand = hand;
-			TurnState tempTurnState = turnState;
-			while (!tempTurnState.isTerminal()) {
-				if (tempTurnState.nextPlayer().equals(ownId)) {
-					long playable = PackedTrick.playableCards(turnState.packedTrick(), currentHand);
+			rollout.set(turnState);
+			while (!rollout.isTerminal()) {
+				if (endgame != null && endgame.covers(rollout.packedTrick())) {
+					updatePointsAndIterations(endgame.finalScore(rollout.packedScore(), rollout.packedTrick(), ownId,
+							currentHand, othersCards, rng));
+					return;
+				}
+				if (rollout.nextPlayer().equals(ownId)) {
+					long playable = rollout.playableCards(currentHand);
 					int cardToPlay = get(playable, rng.nextInt(size(playable)));
 					currentHand = remove(currentHand, cardToPlay);
-					tempTurnState = tempTurnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(cardToPlay));
+					rollout.play(cardToPlay);
 				} else {
-					long playable = PackedTrick.playableCards(turnState.packedTrick(), othersCards);
+					long playable = rollout.playableCards(othersCards);
 					int cardToPlay = get(playable, rng.nextInt(size(playable)));
 					othersCards = remove(othersCards, cardToPlay);
-					tempTurnState = tempTurnState.withNewCardPlayedAndTrickCollected(Card.ofPacked(cardToPlay));
+					rollout.play(cardToPlay);
 				}
 			}
-			updatePointsAndIterations(tempTurnState.packedScore());
+			updatePointsAndIterations(rollout.packedScore());
 		}
 
 		/*
@@ -221,13 +436,14 @@ public class ParallelMctsPlayer implements Player {
 		 * more possible children, a new child node is added and simulated 3. Otherwise,
 		 * the best node is chosen to explore further
 		 */
-		private void main(PlayerId ownId, SplittableRandom rng, int c) {
+		private void main(PlayerId ownId, SplittableRandom rng, int c, MutableTurnState rollout,
+				EndgameSolver endgame) {
 			if (childrenNodes.length == 0) {
 				updatePointsAndIterations(turnState.packedScore());
 			} else if (childrenNodes[childrenNodes.length - 1] == null) {
-				addChildNode(ownId, rng);
+				addChildNode(ownId, rng, rollout, endgame);
 			} else {
-				childrenNodes[chooseNodeIndex(c)].main(ownId, rng, c);
+				childrenNodes[chooseNodeIndex(c)].main(ownId, rng, c, rollout, endgame);
 			}
 		}
 	}
@@ -0,0 +1,321 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the legal sequences of cards of a given length from a complete
+ * position (perft), which measures the speed of the rules of the game and
+ * checks them against other implementations. The sequences are counted by
+ * walking through the tree of the positions with a MutableTurnState, and the
+ * positions visited are counted as well. The number of sequences from a
+ * position met after a complete trick can optionally be kept in a table of
+ * fixed size, so that it is mostly computed only once for all the orders of the
+ * cards leading to that position (transpositions). The count can also be split
+ * among the threads of a fork/join pool
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class Perft {
+
+	private Perft() {
+	}
+
+	// The number of levels of the tree whose positions are counted by different tasks
+	private static final int SPLIT_DEPTH = 2;
+
+	// The number of bits of the number of entries of the table of transpositions
+	private static final int TABLE_BITS = 20;
+
+	// The leader and the depth are stored in the unused bits of the set of
+	// unplayed cards of a key
+	private static final int LEADER_SHIFT = Card.Rank.COUNT, DEPTH_SHIFT = Long.SIZE / 2 + Card.Rank.COUNT;
+
+	/**
+	 * Counts the legal sequences of cards of a given length from a position. The
+	 * sequences which end the turn before that length are counted as well
+	 *
+	 * @param position (Position) : the position
+	 * @param depth    (int) : the number of cards of the sequences
+	 * @return (long) : the number of sequences
+	 * @throws IllegalArgumentException if the depth is negative
+	 */
+	public static long count(Position position, int depth) throws IllegalArgumentException {
+		return count(position, depth, false);
+	}
+
+	/**
+	 * Counts the legal sequences of cards of a given length from a position,
+	 * optionally using a table of the counts of the positions met after a
+	 * complete trick, so that the sequences of the transpositions are computed
+	 * only once
+	 *
+	 * @param position       (Position) : the position
+	 * @param depth          (int) : the number of cards of the sequences
+	 * @param transpositions (boolean) : true to use the table of transpositions
+	 * @return (long) : the number of sequences
+	 * @throws IllegalArgumentException if the depth is negative
+	 */
+	public static long count(Position position, int depth, boolean transpositions)
+			throws IllegalArgumentException {
+		return walk(position, depth, transpositions).sequences();
+	}
+
+	/**
+	 * Counts the legal sequences of cards of a given length from a position,
+	 * splitting the count among the threads of a fork/join pool
+	 *
+	 * @param position       (Position) : the position
+	 * @param depth          (int) : the number of cards of the sequences
+	 * @param transpositions (boolean) : true to use a table of transpositions
+	 *                       shared by the threads
+	 * @param pool           (ForkJoinPool) : the pool executing the count
+	 * @return (long) : the number of sequences
+	 * @throws IllegalArgumentException if the depth is negative
+	 */
+	public static long countInParallel(Position position, int depth, boolean transpositions, ForkJoinPool pool)
+			throws IllegalArgumentException {
+		return walkInParallel(position, depth, transpositions, pool).sequences();
+	}
+
+	/**
+	 * Counts the legal sequences of cards of a given length from a position and
+	 * the positions visited to count them
+	 *
+	 * @param position       (Position) : the position
+	 * @param depth          (int) : the number of cards of the sequences
+	 * @param transpositions (boolean) : true to use the table of transpositions
+	 * @return (Result) : the number of sequences and of positions visited
+	 * @throws IllegalArgumentException if the depth is negative
+	 */
+	public static Result walk(Position position, int depth, boolean transpositions)
+			throws IllegalArgumentException {
+		checkArgument(depth >= 0);
+		Walker walker = new Walker(position, transpositions ? new Table() : null);
+		long sequences = walker.count(depth);
+		return new Result(sequences, walker.nodes);
+	}
+
+	/**
+	 * Counts the legal sequences of cards of a given length from a position and
+	 * the positions visited to count them, splitting the count among the threads
+	 * of a fork/join pool
+	 *
+	 * @param position       (Position) : the position
+	 * @param depth          (int) : the number of cards of the sequences
+	 * @param transpositions (boolean) : true to use a table of transpositions
+	 *                       shared by the threads
+	 * @param pool           (ForkJoinPool) : the pool executing the count
+	 * @return (Result) : the number of sequences and of positions visited
+	 * @throws IllegalArgumentException if the depth is negative
+	 */
+	public static Result walkInParallel(Position position, int depth, boolean transpositions,
+			ForkJoinPool pool) throws IllegalArgumentException {
+		checkArgument(depth >= 0);
+		LongAdder nodes = new LongAdder();
+		long sequences = pool.invoke(new CountTask(position, depth, Math.min(depth, SPLIT_DEPTH),
+				transpositions ? new Table() : null, nodes));
+		return new Result(sequences, nodes.sum());
+	}
+
+	/**
+	 * The result of a count : the number of sequences and the number of positions
+	 * visited to count them. The positions following a position whose count is
+	 * found in the table of transpositions are not visited, nor the last
+	 * positions of the sequences, which are counted as the cards playable before
+	 * them
+	 *
+	 * @author Aman Bansal (297535)
+	 * @author Julian Blackwell (289803)
+	 */
+	public static final class Result {
+		private final long sequences;
+		private final long nodes;
+
+		private Result(long sequences, long nodes) {
+			this.sequences = sequences;
+			this.nodes = nodes;
+		}
+
+		/**
+		 * Gets the number of sequences
+		 *
+		 * @return (long) : the number of sequences
+		 */
+		public long sequences() {
+			return sequences;
+		}
+
+		/**
+		 * Gets the number of positions visited
+		 *
+		 * @return (long) : the number of positions visited
+		 */
+		public long nodes() {
+			return nodes;
+		}
+	}
+
+	/*
+	 * The table of transpositions, of fixed size, which keeps the count of the
+	 * last position met at each index. The three words of the key of the entry i
+	 * are at the indices 3 * i and following, combined with its count by an
+	 * exclusive or, so that an entry which is written by a thread while another
+	 * one reads it is not found instead of being read partially
+	 */
+	private static final class Table {
+		private final long[] keys = new long[3 << TABLE_BITS];
+		// The count of an empty entry is 0, which no position has
+		private final long[] counts = new long[1 << TABLE_BITS];
+
+		long get(long key0, long key1, long key2) {
+			int i = index(key0, key1, key2);
+			long count = counts[i];
+			boolean found = count != 0 && (keys[3 * i] ^ count) == key0 && (keys[3 * i + 1] ^ count) == key1
+					&& (keys[3 * i + 2] ^ count) == key2;
+			return found ? count : 0;
+		}
+
+		void put(long key0, long key1, long key2, long count) {
+			int i = index(key0, key1, key2);
+			keys[3 * i] = key0 ^ count;
+			keys[3 * i + 1] = key1 ^ count;
+			keys[3 * i + 2] = key2 ^ count;
+			counts[i] = count;
+		}
+
+		private static int index(long key0, long key1, long key2) {
+			long h = (key0 * 0x9E3779B97F4A7C15L ^ key1) * 0xC2B2AE3D27D4EB4FL ^ key2;
+			h *= 0x165667B19E3779F9L;
+			return (int) (h >>> (Long.SIZE - TABLE_BITS));
+		}
+	}
+
+	/*
+	 * The walk through the tree of the positions from a given one, which plays
+	 * the cards in place and goes back
+	 */
+	private static final class Walker {
+		private final MutableTurnState state;
+		private final long[] pkHands = new long[PlayerId.COUNT];
+		private final Table table;
+		private long nodes = 0;
+
+		Walker(Position position, Table table) {
+			this.state = new MutableTurnState(position.turnState());
+			for (PlayerId p : PlayerId.ALL) {
+				pkHands[p.ordinal()] = position.packedHand(p);
+			}
+			this.table = table;
+		}
+
+		long count(int depth) {
+			++nodes;
+			if (depth == 0 || state.isTerminal()) {
+				return 1;
+			}
+			int p = state.nextPlayer().ordinal();
+			long playable = state.playableCards(pkHands[p]);
+			if (depth == 1) {
+				return PackedCardSet.size(playable);
+			}
+
+			// The count only depends on the hands, the leader and the depth, the trump
+			// being the same for the whole walk
+			boolean stored = table != null && PackedTrick.isEmpty(state.packedTrick());
+			long key0 = 0, key1 = 0, key2 = 0;
+			if (stored) {
+				key0 = pkHands[1] | pkHands[3];
+				key1 = pkHands[2] | pkHands[3];
+				key2 = pkHands[0] | pkHands[1] | pkHands[2] | pkHands[3]
+						| (long) PackedTrick.player(state.packedTrick(), 0).ordinal() << LEADER_SHIFT
+						| (long) depth << DEPTH_SHIFT;
+				long known = table.get(key0, key1, key2);
+				if (known != 0) {
+					return known;
+				}
+			}
+
+			long count = 0;
+			long hand = pkHands[p];
+			for (long s = playable; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+				int pkCard = PackedCardSet.lowestCard(s);
+				pkHands[p] = PackedCardSet.remove(hand, pkCard);
+				state.play(pkCard);
+				count += count(depth - 1);
+				state.undo();
+			}
+			pkHands[p] = hand;
+
+			if (stored) {
+				table.put(key0, key1, key2, count);
+			}
+			return count;
+		}
+	}
+
+	/*
+	 * The count of the sequences from a position, which forks a task for each
+	 * card playable in the position until the given number of levels is split
+	 */
+	private static final class CountTask extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+
+		private final Position position;
+		private final int depth;
+		private final int splitDepth;
+		private final transient Table table;
+		private final transient LongAdder nodes;
+
+		CountTask(Position position, int depth, int splitDepth, Table table, LongAdder nodes) {
+			this.position = position;
+			this.depth = depth;
+			this.splitDepth = splitDepth;
+			this.table = table;
+			this.nodes = nodes;
+		}
+
+		@Override
+		protected Long compute() {
+			TurnState state = position.turnState();
+			if (splitDepth == 0 || state.isTerminal()) {
+				Walker walker = new Walker(position, table);
+				long count = walker.count(depth);
+				nodes.add(walker.nodes);
+				return count;
+			}
+			nodes.increment();
+
+			PlayerId player = state.nextPlayer();
+			long hand = position.packedHand(player);
+			long[] pkHands = new long[PlayerId.COUNT];
+			for (PlayerId p : PlayerId.ALL) {
+				pkHands[p.ordinal()] = position.packedHand(p);
+			}
+
+			List<CountTask> tasks = new ArrayList<>();
+			MutableTurnState next = new MutableTurnState(state);
+			long playable = next.playableCards(hand);
+			for (long s = playable; s != PackedCardSet.EMPTY; s = PackedCardSet.withoutLowestCard(s)) {
+				int pkCard = PackedCardSet.lowestCard(s);
+				pkHands[player.ordinal()] = PackedCardSet.remove(hand, pkCard);
+				next.play(pkCard);
+				tasks.add(new CountTask(Position.of(next.packedScore(), next.packedUnplayedCards(),
+						next.packedTrick(), pkHands), depth - 1, splitDepth - 1, table, nodes));
+				next.undo();
+			}
+
+			long count = 0;
+			for (CountTask task : invokeAll(tasks)) {
+				count += task.join();
+			}
+			return count;
+		}
+	}
+}
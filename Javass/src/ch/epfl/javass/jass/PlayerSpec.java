@@ -0,0 +1,147 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * The specification of a simulated player, from which a new player is created
+ * for each game. A specification is written as a letter giving the kind of
+ * player followed by its parameters, separated by colons :
+ * <ul>
+ * <li>"m:&lt;iterations&gt;" for an MctsPlayer searching that many iterations
+ * per card,</li>
+ * <li>"p:&lt;iterations&gt;:&lt;trees&gt;" for a ParallelMctsPlayer searching
+ * that many trees of that many iterations per card, on a single thread,</li>
+ * <li>"b:&lt;iterations&gt;" for an MctsPlayer whose iterations per turn are
+ * allotted card by card by an iteration budget,</li>
+ * <li>"t:&lt;iterations&gt;:&lt;seconds&gt;" for a ParallelMctsPlayer searching
+ * one tree of that many iterations per card on the workers of the shared
+ * scheduler, stopped after a time limit.</li>
+ * </ul>
+ * Any specification can end with ":e&lt;tricks&gt;", in which case the random
+ * turns of the searches end by solving exactly the last 1 to 3 tricks (see
+ * MctsOptions).
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class PlayerSpec {
+	private static final String SEPARATOR = ":", ENDGAME_PREFIX = "e";
+
+	private final String spec;
+	private final char kind;
+	private final int iterations;
+	private final int trees;
+	private final double timeLimit;
+	private final int endgameTricks;
+
+	private PlayerSpec(String spec, char kind, int iterations, int trees, double timeLimit, int endgameTricks) {
+		this.spec = spec;
+		this.kind = kind;
+		this.iterations = iterations;
+		this.trees = trees;
+		this.timeLimit = timeLimit;
+		this.endgameTricks = endgameTricks;
+	}
+
+	/**
+	 * Parses the specification of a player
+	 *
+	 * @param spec (String) : the specification, as described above
+	 * @return (PlayerSpec) : the specification
+	 * @throws IllegalArgumentException if the specification is invalid, if its
+	 *                                  number of iterations, trees or seconds is
+	 *                                  too small for its kind of player, or if
+	 *                                  its number of solved tricks is not
+	 *                                  between 1 and 3
+	 */
+	public static PlayerSpec parse(String spec) throws IllegalArgumentException {
+		String[] parts = spec.split(SEPARATOR, -1);
+		checkArgument(parts[0].length() == 1);
+		char kind = parts[0].charAt(0);
+		try {
+			int endgameTricks = 0;
+			if (parts.length > 1 && parts[parts.length - 1].startsWith(ENDGAME_PREFIX)) {
+				endgameTricks = Integer.parseInt(parts[parts.length - 1].substring(ENDGAME_PREFIX.length()));
+				checkArgument(0 < endgameTricks && endgameTricks <= EndgameSolver.MAX_TRICKS);
+				parts = Arrays.copyOf(parts, parts.length - 1);
+			}
+			switch (kind) {
+			case 'm':
+				checkArgument(parts.length == 2);
+				int iterations = Integer.parseInt(parts[1]);
+				checkArgument(iterations >= Jass.HAND_SIZE);
+				return new PlayerSpec(spec, kind, iterations, 1, 0, endgameTricks);
+			case 'p':
+				checkArgument(parts.length == 3);
+				iterations = Integer.parseInt(parts[1]);
+				int trees = Integer.parseInt(parts[2]);
+				checkArgument(iterations >= Jass.HAND_SIZE && trees > 0);
+				return new PlayerSpec(spec, kind, iterations, trees, 0, endgameTricks);
+			case 'b':
+				checkArgument(parts.length == 2);
+				iterations = Integer.parseInt(parts[1]);
+				checkArgument(iterations >= Jass.TRICKS_PER_TURN * Jass.HAND_SIZE);
+				return new PlayerSpec(spec, kind, iterations, 1, 0, endgameTricks);
+			case 't':
+				checkArgument(parts.length == 3);
+				iterations = Integer.parseInt(parts[1]);
+				double timeLimit = Double.parseDouble(parts[2]);
+				checkArgument(iterations >= Jass.HAND_SIZE && timeLimit > 0);
+				return new PlayerSpec(spec, kind, iterations, 1, timeLimit, endgameTricks);
+			default:
+				throw new IllegalArgumentException();
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Creates a new player following the specification, for a single game
+	 *
+	 * @param ownId   (PlayerId) : the PlayerId of the player
+	 * @param rngSeed (long) : the seed of the player
+	 * @return (Player) : the new player
+	 */
+	public Player newPlayer(PlayerId ownId, long rngSeed) {
+		MctsOptions options = (kind == 'b' ? MctsOptions.ofBudget(new IterationBudget(iterations))
+				: MctsOptions.ofIterations(iterations)).withEndgameTricks(endgameTricks);
+		switch (kind) {
+		case 'm':
+		case 'b':
+			return new MctsPlayer(ownId, rngSeed, options);
+		case 'p':
+			return new ParallelMctsPlayer(ownId, rngSeed, options, trees, 1);
+		default:
+			return new ParallelMctsPlayer(ownId, rngSeed, options, trees, SearchScheduler.shared().newSeat(false),
+					timeLimit);
+		}
+	}
+
+	/**
+	 * Checks if the players of the specification choose their cards only
+	 * according to their seed, and not to the time their searches take
+	 *
+	 * @return (boolean) : true if the players are deterministic
+	 */
+	public boolean isDeterministic() {
+		return kind != 't';
+	}
+
+	@Override
+	public boolean equals(Object that) {
+		return that instanceof PlayerSpec && spec.equals(((PlayerSpec) that).spec);
+	}
+
+	@Override
+	public int hashCode() {
+		return spec.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return spec;
+	}
+}
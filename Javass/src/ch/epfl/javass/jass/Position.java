@@ -0,0 +1,262 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import ch.epfl.javass.bits.BitLayout.Field32;
+import ch.epfl.javass.bits.BitLayout.Field64;
+
+/**
+ * Represents a complete position of a Jass game, that is the state of the turn
+ * and the hands of the four players, packed in three longs. Since every
+ * unplayed card belongs to exactly one player, the hands are stored as two bit
+ * planes giving the two bits of the ordinal of the owner of each unplayed card.
+ * The words of a position only depend on the position, so that they can be
+ * used as keys of caches or written as records of fixed size. They contain :
+ * <ul>
+ * <li>word 0 : the low bits of the owners (36 bits), the score of team 1 (24
+ * bits) and the index of the trick (4 bits)</li>
+ * <li>word 1 : the high bits of the owners (36 bits) and the score of team 2
+ * (24 bits)</li>
+ * <li>word 2 : the unplayed cards (36 bits) and the rest of the trick (28
+ * bits)</li>
+ * </ul>
+ * The card sets are stored in the compact form of PackedCardSet.compact
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class Position {
+
+	/**
+	 * The number of longs in which a position is packed
+	 */
+	public static final int WORDS = 3;
+
+	private static final int CARD_COUNT = Card.Color.COUNT * Card.Rank.COUNT;
+
+	// The fields of the words of a position
+	private static final Field64 CARDS = Field64.of(0, CARD_COUNT);
+	private static final Field64 SCORE = CARDS.next(24);
+	private static final Field64 TRICK_INDEX = SCORE.next(4);
+	private static final Field64 TRICK_REST = CARDS.next(28);
+
+	// The fields of the score of a team and of the trick which are stored apart
+	private static final Field64[] TEAM_SCORE = { Field64.of(0, 24), Field64.of(Integer.SIZE, 24) };
+	private static final Field32 TRICK_CARDS = Field32.of(0, 24);
+	private static final Field32 INDEX = TRICK_CARDS.next(4);
+	private static final Field32 PLAYERS_AND_TRUMP = INDEX.next(4);
+
+	private final long word0;
+	private final long word1;
+	private final long word2;
+
+	private Position(long word0, long word1, long word2) {
+		this.word0 = word0;
+		this.word1 = word1;
+		this.word2 = word2;
+	}
+
+	/**
+	 * Packs a position given the packed components of its turn state and the
+	 * packed hands of the players
+	 *
+	 * @param pkScore         (long) : the packed score of the game
+	 * @param pkUnplayedCards (long) : the packed set of unplayed cards
+	 * @param pkTrick         (int) : the packed trick, PackedTrick.INVALID if the
+	 *                        turn is terminal
+	 * @param pkHands         (long[]) : the packed hands, indexed by the ordinal of
+	 *                        the players
+	 * @return (Position) : the position
+	 * @throws IllegalArgumentException if a component is invalid, or if the hands
+	 *                                  are not disjoint or their union is not the
+	 *                                  set of unplayed cards
+	 */
+	public static Position of(long pkScore, long pkUnplayedCards, int pkTrick, long[] pkHands)
+			throws IllegalArgumentException {
+		checkArgument(PackedScore.isValid(pkScore) && PackedCardSet.isValid(pkUnplayedCards)
+				&& (pkTrick == PackedTrick.INVALID || PackedTrick.isValid(pkTrick))
+				&& pkHands.length == PlayerId.COUNT);
+
+		long union = PackedCardSet.EMPTY;
+		long lowBits = PackedCardSet.EMPTY;
+		long highBits = PackedCardSet.EMPTY;
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			checkArgument(PackedCardSet.isValid(pkHands[p]) && PackedCardSet.intersection(union, pkHands[p]) == 0);
+			union |= pkHands[p];
+			if ((p & 1) != 0) {
+				lowBits |= pkHands[p];
+			}
+			if ((p & 2) != 0) {
+				highBits |= pkHands[p];
+			}
+		}
+		checkArgument(union == pkUnplayedCards);
+
+		long word0 = CARDS.with(0, PackedCardSet.compact(lowBits));
+		word0 = SCORE.with(word0, TEAM_SCORE[0].get(pkScore));
+		word0 = TRICK_INDEX.with(word0, INDEX.get(pkTrick));
+		long word1 = CARDS.with(0, PackedCardSet.compact(highBits));
+		word1 = SCORE.with(word1, TEAM_SCORE[1].get(pkScore));
+		long word2 = CARDS.with(0, PackedCardSet.compact(pkUnplayedCards));
+		word2 = TRICK_REST.with(word2,
+				TRICK_CARDS.get(pkTrick) | PLAYERS_AND_TRUMP.get(pkTrick) << TRICK_CARDS.size());
+		return new Position(word0, word1, word2);
+	}
+
+	/**
+	 * Packs a position given its turn state and the hands of the players
+	 *
+	 * @param state (TurnState) : the state of the turn
+	 * @param hands (Map<PlayerId, CardSet>) : the hands of the players
+	 * @return (Position) : the position
+	 * @throws IllegalArgumentException if the hands are not disjoint or their
+	 *                                  union is not the set of unplayed cards
+	 */
+	public static Position of(TurnState state, Map<PlayerId, CardSet> hands) throws IllegalArgumentException {
+		checkArgument(hands.keySet().containsAll(PlayerId.ALL));
+		long[] pkHands = new long[PlayerId.COUNT];
+		for (PlayerId p : PlayerId.ALL) {
+			pkHands[p.ordinal()] = hands.get(p).packed();
+		}
+		return of(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), pkHands);
+	}
+
+	/**
+	 * Gets a position given its words, as returned by word
+	 *
+	 * @param word0 (long) : the first word of the position
+	 * @param word1 (long) : the second word of the position
+	 * @param word2 (long) : the third word of the position
+	 * @return (Position) : the position
+	 * @throws IllegalArgumentException if the words are not those of a position
+	 */
+	public static Position ofWords(long word0, long word1, long word2) throws IllegalArgumentException {
+		// The words are those of a position if and only if packing it again gives them back
+		Position position = new Position(word0, word1, word2);
+		long[] pkHands = new long[PlayerId.COUNT];
+		for (PlayerId p : PlayerId.ALL) {
+			pkHands[p.ordinal()] = position.packedHand(p);
+		}
+		checkArgument(of(position.packedScore(), position.packedUnplayedCards(), position.packedTrick(), pkHands)
+				.equals(position));
+		return position;
+	}
+
+	/**
+	 * Gets one of the words in which the position is packed
+	 *
+	 * @param index (int) : the index of the word, between 0 (included) and WORDS
+	 *              (excluded)
+	 * @return (long) : the word
+	 * @throws IndexOutOfBoundsException if the index is not between 0 (included)
+	 *                                   and WORDS (excluded)
+	 */
+	public long word(int index) throws IndexOutOfBoundsException {
+		switch (index) {
+		case 0:
+			return word0;
+		case 1:
+			return word1;
+		case 2:
+			return word2;
+		default:
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Gets the packed score of the position
+	 *
+	 * @return (long) : the packed score
+	 */
+	public long packedScore() {
+		return TEAM_SCORE[0].with(0, SCORE.get(word0)) | TEAM_SCORE[1].with(0, SCORE.get(word1));
+	}
+
+	/**
+	 * Gets the packed set of unplayed cards of the position
+	 *
+	 * @return (long) : the packed set of unplayed cards
+	 */
+	public long packedUnplayedCards() {
+		return PackedCardSet.expand(CARDS.get(word2));
+	}
+
+	/**
+	 * Gets the packed trick of the position
+	 *
+	 * @return (int) : the packed trick, PackedTrick.INVALID if the turn is terminal
+	 */
+	public int packedTrick() {
+		int rest = (int) TRICK_REST.get(word2);
+		int pkTrick = TRICK_CARDS.with(0, TRICK_CARDS.get(rest));
+		pkTrick = INDEX.with(pkTrick, (int) TRICK_INDEX.get(word0));
+		return PLAYERS_AND_TRUMP.with(pkTrick, rest >>> TRICK_CARDS.size());
+	}
+
+	/**
+	 * Gets the packed hand of a player in the position
+	 *
+	 * @param player (PlayerId) : the player
+	 * @return (long) : the packed hand of the player
+	 */
+	public long packedHand(PlayerId player) {
+		int p = player.ordinal();
+		long lowBits = CARDS.get(word0);
+		long highBits = CARDS.get(word1);
+		long hand = CARDS.get(word2) & ((p & 1) != 0 ? lowBits : ~lowBits) & ((p & 2) != 0 ? highBits : ~highBits);
+		return PackedCardSet.expand(hand);
+	}
+
+	/**
+	 * Gets the state of the turn of the position
+	 *
+	 * @return (TurnState) : the state of the turn
+	 */
+	public TurnState turnState() {
+		return TurnState.ofValidPackedComponents(packedScore(), packedUnplayedCards(), packedTrick());
+	}
+
+	/**
+	 * Gets the hands of the players in the position
+	 *
+	 * @return (Map<PlayerId, CardSet>) : the hands of the players
+	 */
+	public Map<PlayerId, CardSet> hands() {
+		Map<PlayerId, CardSet> hands = new EnumMap<>(PlayerId.class);
+		for (PlayerId p : PlayerId.ALL) {
+			hands.put(p, CardSet.ofValidPacked(packedHand(p)));
+		}
+		return hands;
+	}
+
+	@Override
+	public boolean equals(Object that) {
+		if (!(that instanceof Position)) {
+			return false;
+		}
+		Position o = (Position) that;
+		return word0 == o.word0 && word1 == o.word1 && word2 == o.word2;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = word0 * 0x9E3779B97F4A7C15L ^ word1 * 0xC2B2AE3D27D4EB4FL ^ word2 * 0x165667B19E3779F9L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner j = new StringJoiner(", ", "{", "}");
+		j.add(PackedScore.toString(packedScore()));
+		j.add(packedTrick() == PackedTrick.INVALID ? "-" : PackedTrick.toString(packedTrick()));
+		for (PlayerId p : PlayerId.ALL) {
+			j.add(p + " " + PackedCardSet.toString(packedHand(p)));
+		}
+		return j.toString();
+	}
+}
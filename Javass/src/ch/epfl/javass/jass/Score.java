@@ -32,7 +32,16 @@ public final class Score {
 	 */
 	public static Score ofPacked(long packed) throws IllegalArgumentException {
 		checkArgument(PackedScore.isValid(packed));
-		return new Score(packed);
+		return ofValidPacked(packed);
+	}
+
+	/*
+	 * Gets a score representing a packed score known to be valid, without checking
+	 * it, and shares the instance of the initial score
+	 */
+	static Score ofValidPacked(long packed) {
+		assert PackedScore.isValid(packed);
+		return packed == PackedScore.INITIAL ? INITIAL : new Score(packed);
 	}
 
 	/**
@@ -98,7 +107,7 @@ public final class Score {
 	 */
 	public Score withAdditionalTrick(TeamId winningTeam, int trickPoints) throws IllegalArgumentException {
 		checkArgument(trickPoints >= 0);
-		return new Score(PackedScore.withAdditionalTrick(pkScore, winningTeam, trickPoints));
+		return ofValidPacked(PackedScore.withAdditionalTrick(pkScore, winningTeam, trickPoints));
 	}
 
 	/**
@@ -107,7 +116,7 @@ public final class Score {
 	 * @return (Score) : the updated score
 	 */
 	public Score nextTurn() {
-		return new Score(PackedScore.nextTurn(pkScore));
+		return ofValidPacked(PackedScore.nextTurn(pkScore));
 	}
 
 	@Override
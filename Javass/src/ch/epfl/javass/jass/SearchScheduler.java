@@ -0,0 +1,268 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares a fixed number of worker threads between the searches of many
+ * simulated players (seats), possibly playing at different tables. Searches are
+ * executed slice by slice, and after each slice the worker picks the next one
+ * from the searches of the seats whose human opponents are waiting first, then
+ * from the seat which has received the least worker time, so that each seat
+ * receives a fair share of the workers. A search whose deadline has passed is
+ * stopped after its current slice, which lets the searches degrade gracefully
+ * when the workers are overloaded. A scheduler must be closed once its seats
+ * no longer submit searches, which stops its workers
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class SearchScheduler implements AutoCloseable {
+
+	private static final int LATENCY_HISTORY_SIZE = 1024;
+
+	private static SearchScheduler shared = null;
+
+	private final PriorityBlockingQueue<Job> queue;
+	private final Thread[] workers;
+	private final AtomicLong jobCount = new AtomicLong();
+	private final long[] latencies = new long[LATENCY_HISTORY_SIZE];
+	// The number of latencies recorded, which does not overflow in practice
+	private long latencyCount = 0;
+	private volatile long virtualTime = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructs a scheduler with a given number of worker threads
+	 *
+	 * @param nbWorkers (int) : the number of worker threads
+	 * @throws IllegalArgumentException if the number of workers is not strictly
+	 *                                  positive
+	 */
+	public SearchScheduler(int nbWorkers) throws IllegalArgumentException {
+		checkArgument(nbWorkers > 0);
+		queue = new PriorityBlockingQueue<>(nbWorkers, Comparator.<Job>comparingInt(j -> j.interactive ? 0 : 1)
+				.thenComparingLong(j -> j.priority).thenComparingLong(j -> j.deadline).thenComparingLong(j -> j.number));
+		workers = new Thread[nbWorkers];
+		for (int i = 0; i < nbWorkers; ++i) {
+			workers[i] = new Thread(this::work, "search-worker-" + i);
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Gets the scheduler shared by the whole process, which has one worker per
+	 * available processor and must never be closed
+	 *
+	 * @return (SearchScheduler) : the shared scheduler
+	 */
+	public static synchronized SearchScheduler shared() {
+		if (shared == null) {
+			shared = new SearchScheduler(Runtime.getRuntime().availableProcessors());
+		}
+		return shared;
+	}
+
+	/**
+	 * Registers a new seat, to which the worker time used by its searches is
+	 * accounted
+	 *
+	 * @param interactive (boolean) : true if human players are waiting for the
+	 *                    searches of this seat
+	 * @return (Seat) : the new seat
+	 */
+	public Seat newSeat(boolean interactive) {
+		return new Seat(this, interactive);
+	}
+
+	/**
+	 * Gets the number of searches waiting for a worker
+	 *
+	 * @return (int) : the number of searches waiting for a worker
+	 */
+	public int queueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Determines a percentile of the time elapsed between the submission and the
+	 * completion of the most recent searches
+	 *
+	 * @param percentile (double) : the percentile, between 0 and 100 (both
+	 *                   included)
+	 * @return (long) : the percentile of the latencies in nanoseconds, or 0 if no
+	 *         search has completed yet
+	 * @throws IllegalArgumentException if the percentile is not between 0 and 100
+	 */
+	public long latencyPercentile(double percentile) throws IllegalArgumentException {
+		checkArgument(0 <= percentile && percentile <= 100);
+		long[] sorted;
+		synchronized (latencies) {
+			sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_HISTORY_SIZE));
+		}
+		if (sorted.length == 0) {
+			return 0;
+		}
+		Arrays.sort(sorted);
+		return sorted[Math.max(0, (int) Math.ceil(percentile / 100 * sorted.length) - 1)];
+	}
+
+	/**
+	 * Stops the workers once they have executed their current slice and waits
+	 * for them to terminate. The searches which are not stopped yet, and those
+	 * submitted afterwards, are cancelled
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (Thread worker : workers) {
+			worker.interrupt();
+		}
+		try {
+			for (Thread worker : workers) {
+				worker.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		cancelQueuedJobs();
+	}
+
+	/*
+	 * Cancels the searches waiting for a worker
+	 */
+	private void cancelQueuedJobs() {
+		for (Job job = queue.poll(); job != null; job = queue.poll()) {
+			job.result.cancel(false);
+		}
+	}
+
+	/*
+	 * Main loop of the worker threads
+	 */
+	private void work() {
+		while (!closed) {
+			Job job;
+			try {
+				job = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			virtualTime = job.priority;
+
+			boolean finished;
+			long start = System.nanoTime();
+			try {
+				finished = job.search.runSlice();
+			} catch (RuntimeException | Error e) {
+				job.result.completeExceptionally(e);
+				continue;
+			}
+			long end = System.nanoTime();
+			long served = job.seat.served.addAndGet(end - start);
+
+			if (finished || end - job.deadline >= 0) {
+				synchronized (latencies) {
+					latencies[(int) (latencyCount++ % LATENCY_HISTORY_SIZE)] = end - job.submission;
+				}
+				job.result.complete(null);
+			} else {
+				job.priority = served;
+				job.interactive = job.seat.interactive;
+				queue.add(job);
+			}
+		}
+	}
+
+	/**
+	 * A search which can be executed slice by slice
+	 */
+	@FunctionalInterface
+	public interface Search {
+
+		/**
+		 * Executes a slice of the search, which should only take a short time
+		 *
+		 * @return (boolean) : true if the search is finished
+		 */
+		boolean runSlice();
+	}
+
+	/**
+	 * A seat submitting searches to a scheduler, to which the worker time used by
+	 * its searches is accounted
+	 *
+	 * @author Aman Bansal (297535)
+	 * @author Julian Blackwell (289803)
+	 */
+	public static final class Seat {
+		private final SearchScheduler scheduler;
+		private final AtomicLong served;
+		private volatile boolean interactive;
+
+		private Seat(SearchScheduler scheduler, boolean interactive) {
+			this.scheduler = scheduler;
+			// A new seat starts level with the seats currently served, so that it
+			// does not take over the workers until it catches up with them
+			this.served = new AtomicLong(scheduler.virtualTime);
+			this.interactive = interactive;
+		}
+
+		/**
+		 * Changes whether human players are waiting for the searches of this seat
+		 *
+		 * @param interactive (boolean) : true if human players are waiting
+		 */
+		public void setInteractive(boolean interactive) {
+			this.interactive = interactive;
+		}
+
+		/**
+		 * Submits a search which is executed until it is finished or its deadline
+		 * has passed, in which case it is stopped after the current slice (at least
+		 * one slice is always executed)
+		 *
+		 * @param search        (Search) : the search
+		 * @param deadlineNanos (long) : the deadline of the search, as given by
+		 *                      System.nanoTime()
+		 * @return (Future<?>) : a future completed when the search is stopped, or
+		 *         cancelled if the scheduler is closed before
+		 */
+		public Future<?> submit(Search search, long deadlineNanos) {
+			Job job = new Job(this, search, deadlineNanos, scheduler.jobCount.getAndIncrement());
+			scheduler.queue.add(job);
+			if (scheduler.closed) {
+				scheduler.cancelQueuedJobs();
+			}
+			return job.result;
+		}
+	}
+
+	private static final class Job {
+		private final Seat seat;
+		private final Search search;
+		private final long deadline;
+		private final long number;
+		private final long submission = System.nanoTime();
+		private final CompletableFuture<Void> result = new CompletableFuture<>();
+		// The keys of a job are only updated while it is out of the queue
+		private long priority;
+		private boolean interactive;
+
+		Job(Seat seat, Search search, long deadline, long number) {
+			this.seat = seat;
+			this.search = search;
+			this.deadline = deadline;
+			this.number = number;
+			this.priority = seat.served.get();
+			this.interactive = seat.interactive;
+		}
+	}
+}
@@ -0,0 +1,556 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import ch.epfl.javass.jass.Card.Color;
+
+/**
+ * Plays complete games of Jass between simulated players without any user
+ * interface, in parallel on the threads of an executor, and gathers the winner
+ * and the points of each game together with the time each player took to play
+ * each card. The seed of each game and of its players only depends on the seed
+ * of the simulation and on the index of the game, so that the games of
+ * deterministic players are the same whatever the number of threads. In
+ * duplicate mode, each game is played a second time with the same seed and the
+ * players of the two teams exchanged, so that each team is dealt the cards the
+ * other team was dealt, which removes most of the luck of the cards from the
+ * difference between the teams
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class Simulation {
+
+	/*
+	 * The quantile of the standard normal distribution of the 95% confidence
+	 * intervals
+	 */
+	private static final double Z_95 = 1.959964;
+
+	private final Map<PlayerId, PlayerSpec> specs;
+
+	/**
+	 * Constructs a simulation
+	 *
+	 * @param specs (Map<PlayerId, PlayerSpec>) : the specification of the player
+	 *              of each seat
+	 * @throws IllegalArgumentException if a seat has no specification
+	 */
+	public Simulation(Map<PlayerId, PlayerSpec> specs) throws IllegalArgumentException {
+		checkArgument(specs.keySet().containsAll(PlayerId.ALL));
+		this.specs = Collections.unmodifiableMap(new EnumMap<>(specs));
+	}
+
+	/**
+	 * Gets the specification of the player of each seat
+	 *
+	 * @return (Map<PlayerId, PlayerSpec>) : the specification of the player of
+	 *         each seat
+	 */
+	public Map<PlayerId, PlayerSpec> specs() {
+		return specs;
+	}
+
+	/**
+	 * Plays a number of games in parallel
+	 *
+	 * @param rngSeed  (long) : the seed of the simulation
+	 * @param games    (int) : the number of games
+	 * @param executor (ExecutorService) : the executor playing the games
+	 * @return (Result) : the result of the games
+	 * @throws IllegalArgumentException if the number of games is negative
+	 */
+	public Result run(long rngSeed, int games, ExecutorService executor) throws IllegalArgumentException {
+		return run(gameSeeds(rngSeed, games), false, executor);
+	}
+
+	/**
+	 * Plays a number of deals in duplicate mode in parallel, each deal being made
+	 * of a game and of the same game with the teams exchanged. The result is seen
+	 * from the players of the first team of this simulation, whichever seats they
+	 * occupy, and the games of a deal follow each other
+	 *
+	 * @param rngSeed  (long) : the seed of the simulation
+	 * @param deals    (int) : the number of deals
+	 * @param executor (ExecutorService) : the executor playing the games
+	 * @return (Result) : the result of the games, with two games per deal
+	 * @throws IllegalArgumentException if the number of deals is negative
+	 */
+	public Result runDuplicate(long rngSeed, int deals, ExecutorService executor) throws IllegalArgumentException {
+		return run(gameSeeds(rngSeed, deals), true, executor);
+	}
+
+	/**
+	 * Plays the deals of given seeds in parallel, either as single games or in
+	 * duplicate mode
+	 *
+	 * @param gameSeeds (long[]) : the seeds of the deals
+	 * @param duplicate (boolean) : true if the deals are played in duplicate mode
+	 * @param executor  (ExecutorService) : the executor playing the games
+	 * @return (Result) : the result of the games, in the order of their seeds
+	 */
+	public Result run(long[] gameSeeds, boolean duplicate, ExecutorService executor) {
+		LongFunction<Result> deal = duplicate ? this::playDuplicate : this::play;
+		long start = System.nanoTime();
+		List<Future<Result>> futures = new ArrayList<>();
+		for (long gameSeed : gameSeeds) {
+			futures.add(executor.submit(() -> deal.apply(gameSeed)));
+		}
+		List<Result> results = new ArrayList<>();
+		try {
+			for (Future<Result> f : futures) {
+				results.add(f.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+		return Result.combine(results).withElapsedNanos(System.nanoTime() - start);
+	}
+
+	/**
+	 * Determines the seeds of the deals of a simulation, which run and
+	 * runDuplicate play
+	 *
+	 * @param rngSeed (long) : the seed of the simulation
+	 * @param deals   (int) : the number of deals
+	 * @return (long[]) : the seeds of the deals
+	 * @throws IllegalArgumentException if the number of deals is negative
+	 */
+	public static long[] gameSeeds(long rngSeed, int deals) throws IllegalArgumentException {
+		checkArgument(deals >= 0);
+		long[] gameSeeds = new long[deals];
+		SplittableRandom rng = new SplittableRandom(rngSeed);
+		for (int i = 0; i < deals; ++i) {
+			gameSeeds[i] = rng.nextLong();
+		}
+		return gameSeeds;
+	}
+
+	/**
+	 * Plays a single deal in duplicate mode on the calling thread
+	 *
+	 * @param gameSeed (long) : the seed of both games of the deal
+	 * @return (Result) : the result of the deal, seen from the players of the
+	 *         first team of this simulation
+	 */
+	public Result playDuplicate(long gameSeed) {
+		// The players of the seats of ordinal 2k and 2k + 1, which belong to
+		// different teams, exchange their seats
+		Map<PlayerId, PlayerSpec> exchanged = new EnumMap<>(PlayerId.class);
+		for (PlayerId p : PlayerId.ALL) {
+			exchanged.put(p, specs.get(PlayerId.ALL.get(p.ordinal() ^ 1)));
+		}
+		Result first = play(gameSeed);
+		Result second = new Simulation(exchanged).play(gameSeed).exchanged();
+		return first.merge(second).withGamesPerDeal(2);
+	}
+
+	/**
+	 * Plays a single game on the calling thread
+	 *
+	 * @param gameSeed (long) : the seed of the game, from which the seeds of the
+	 *                 players are derived
+	 * @return (Result) : the result of the game
+	 */
+	public Result play(long gameSeed) {
+		SplittableRandom rng = new SplittableRandom(gameSeed);
+		long jassSeed = rng.nextLong();
+		Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+		Map<PlayerId, String> names = new EnumMap<>(PlayerId.class);
+		List<TimedPlayer> timedPlayers = new ArrayList<>();
+		for (PlayerId p : PlayerId.ALL) {
+			TimedPlayer player = new TimedPlayer(specs.get(p).newPlayer(p, rng.nextLong()));
+			timedPlayers.add(player);
+			players.put(p, player);
+			names.put(p, specs.get(p).toString());
+		}
+
+		long start = System.nanoTime();
+		JassGame game = new JassGame(jassSeed, players, names);
+		while (!game.isGameOver()) {
+			game.advanceToEndOfNextTrick();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		// All the players receive the final score, so the first one is enough
+		TimedPlayer first = timedPlayers.get(0);
+		long[][] latencies = new long[PlayerId.COUNT][];
+		for (int p = 0; p < PlayerId.COUNT; ++p) {
+			latencies[p] = timedPlayers.get(p).latencies();
+		}
+		int[] wins = new int[TeamId.COUNT];
+		++wins[first.winningTeam.ordinal()];
+		int difference = first.score.totalPoints(TeamId.TEAM_1) - first.score.totalPoints(TeamId.TEAM_2);
+		return new Result(wins, new int[] { difference }, latencies, 1, elapsed);
+	}
+
+	/**
+	 * The result of a number of games
+	 */
+	public static final class Result {
+
+		/**
+		 * The result of no game
+		 */
+		public static final Result EMPTY = new Result(new int[TeamId.COUNT], new int[0],
+				new long[PlayerId.COUNT][0], 1, 0);
+
+		private final int[] wins;
+		private final int[] pointDifferences;
+		private final long[][] latencies;
+		private final int gamesPerDeal;
+		private final long elapsedNanos;
+
+		private Result(int[] wins, int[] pointDifferences, long[][] latencies, int gamesPerDeal,
+				long elapsedNanos) {
+			this.wins = wins;
+			this.pointDifferences = pointDifferences;
+			this.latencies = latencies;
+			this.gamesPerDeal = gamesPerDeal;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Combines the games of several results, in the order of the results
+		 *
+		 * @param results (List<Result>) : the results
+		 * @return (Result) : the result of the games of all the results, which took
+		 *         the sum of their times
+		 * @throws IllegalArgumentException if the results which have games do not
+		 *                                  all have the same number of games per
+		 *                                  deal
+		 */
+		public static Result combine(List<Result> results) throws IllegalArgumentException {
+			int games = 0, gamesPerDeal = 0;
+			int[] moves = new int[PlayerId.COUNT];
+			for (Result r : results) {
+				if (r.games() > 0) {
+					checkArgument(gamesPerDeal == 0 || gamesPerDeal == r.gamesPerDeal);
+					gamesPerDeal = r.gamesPerDeal;
+				}
+				games += r.games();
+				for (int p = 0; p < PlayerId.COUNT; ++p) {
+					moves[p] += r.latencies[p].length;
+				}
+			}
+
+			int[] wins = new int[TeamId.COUNT];
+			int[] pointDifferences = new int[games];
+			long[][] latencies = new long[PlayerId.COUNT][];
+			for (int p = 0; p < PlayerId.COUNT; ++p) {
+				latencies[p] = new long[moves[p]];
+			}
+			long elapsedNanos = 0;
+			games = 0;
+			Arrays.fill(moves, 0);
+			for (Result r : results) {
+				for (int t = 0; t < TeamId.COUNT; ++t) {
+					wins[t] += r.wins[t];
+				}
+				System.arraycopy(r.pointDifferences, 0, pointDifferences, games, r.games());
+				games += r.games();
+				for (int p = 0; p < PlayerId.COUNT; ++p) {
+					System.arraycopy(r.latencies[p], 0, latencies[p], moves[p], r.latencies[p].length);
+					moves[p] += r.latencies[p].length;
+				}
+				elapsedNanos += r.elapsedNanos;
+			}
+			return new Result(wins, pointDifferences, latencies, Math.max(gamesPerDeal, 1), elapsedNanos);
+		}
+
+		/**
+		 * Combines the games of this result with the games of another one, which
+		 * are considered to have been played after them
+		 *
+		 * @param that (Result) : the other result
+		 * @return (Result) : the result of the games of both results
+		 * @throws IllegalArgumentException if both results have games but not the
+		 *                                  same number of games per deal
+		 */
+		public Result merge(Result that) throws IllegalArgumentException {
+			return combine(Arrays.asList(this, that));
+		}
+
+		/*
+		 * Replaces the time taken by the games, when they were played in parallel
+		 */
+		private Result withElapsedNanos(long elapsedNanos) {
+			return new Result(wins, pointDifferences, latencies, gamesPerDeal, elapsedNanos);
+		}
+
+		/*
+		 * Groups the games into deals of a given number of games
+		 */
+		private Result withGamesPerDeal(int gamesPerDeal) {
+			assert games() % gamesPerDeal == 0;
+			return new Result(wins, pointDifferences, latencies, gamesPerDeal, elapsedNanos);
+		}
+
+		/*
+		 * Sees the games played with the seats of ordinal 2k and 2k + 1 exchanged
+		 * from the players of the original seats, by exchanging the teams and these
+		 * seats back
+		 */
+		private Result exchanged() {
+			int[] wins = { this.wins[1], this.wins[0] };
+			int[] pointDifferences = new int[this.pointDifferences.length];
+			for (int i = 0; i < pointDifferences.length; ++i) {
+				pointDifferences[i] = -this.pointDifferences[i];
+			}
+			long[][] latencies = new long[PlayerId.COUNT][];
+			for (int p = 0; p < PlayerId.COUNT; ++p) {
+				latencies[p] = this.latencies[p ^ 1];
+			}
+			return new Result(wins, pointDifferences, latencies, gamesPerDeal, elapsedNanos);
+		}
+
+		/**
+		 * Gets the number of games
+		 *
+		 * @return (int) : the number of games
+		 */
+		public int games() {
+			return pointDifferences.length;
+		}
+
+		/**
+		 * Gets the number of games won by a team
+		 *
+		 * @param team (TeamId) : the team
+		 * @return (int) : the number of games won by the team
+		 */
+		public int wins(TeamId team) {
+			return wins[team.ordinal()];
+		}
+
+		/**
+		 * Gets the share of the games won by a team
+		 *
+		 * @param team (TeamId) : the team
+		 * @return (double) : the share of the games won by the team, or NaN if no
+		 *         game was played
+		 */
+		public double winRate(TeamId team) {
+			return wins(team) / (double) games();
+		}
+
+		/**
+		 * Gets the half-width of the 95% confidence interval of the share of the
+		 * games won by a team, using the normal approximation
+		 *
+		 * @param team (TeamId) : the team
+		 * @return (double) : the half-width of the confidence interval
+		 */
+		public double winRateMargin(TeamId team) {
+			double p = winRate(team);
+			return Z_95 * Math.sqrt(p * (1 - p) / games());
+		}
+
+		/**
+		 * Gets the difference between the total points of the first team and the
+		 * total points of the second team at the end of each game, in the order of
+		 * the games
+		 *
+		 * @return (int[]) : the point difference of each game
+		 */
+		public int[] pointDifferences() {
+			return pointDifferences.clone();
+		}
+
+		/**
+		 * Gets the number of games of each deal, which is 2 in duplicate mode and 1
+		 * otherwise
+		 *
+		 * @return (int) : the number of games per deal
+		 */
+		public int gamesPerDeal() {
+			return gamesPerDeal;
+		}
+
+		/**
+		 * Gets the number of deals
+		 *
+		 * @return (int) : the number of deals
+		 */
+		public int deals() {
+			return games() / gamesPerDeal;
+		}
+
+		/**
+		 * Gets the sum of the point differences of the games of each deal, in the
+		 * order of the deals
+		 *
+		 * @return (int[]) : the point difference of each deal
+		 */
+		public int[] dealDifferences() {
+			int[] differences = new int[deals()];
+			for (int i = 0; i < pointDifferences.length; ++i) {
+				differences[i / gamesPerDeal] += pointDifferences[i];
+			}
+			return differences;
+		}
+
+		/**
+		 * Gets the mean point difference of the deals
+		 *
+		 * @return (double) : the mean point difference of the deals, or NaN if no
+		 *         deal was played
+		 */
+		public double meanDealDifference() {
+			long sum = 0;
+			for (int d : dealDifferences()) {
+				sum += d;
+			}
+			return sum / (double) deals();
+		}
+
+		/**
+		 * Gets the half-width of the 95% confidence interval of the mean point
+		 * difference of the deals, using the normal approximation
+		 *
+		 * @return (double) : the half-width of the confidence interval, or NaN if
+		 *         less than two deals were played
+		 */
+		public double dealDifferenceMargin() {
+			double mean = meanDealDifference();
+			double squares = 0;
+			for (int d : dealDifferences()) {
+				squares += (d - mean) * (d - mean);
+			}
+			return Z_95 * Math.sqrt(squares / (deals() - 1) / deals());
+		}
+
+		/**
+		 * Gets the time the games took
+		 *
+		 * @return (long) : the time in nanoseconds
+		 */
+		public long elapsedNanos() {
+			return elapsedNanos;
+		}
+
+		/**
+		 * Gets the number of games played per second
+		 *
+		 * @return (double) : the number of games played per second
+		 */
+		public double gamesPerSecond() {
+			return games() / (elapsedNanos / 1e9);
+		}
+
+		/**
+		 * Gets the number of cards played by the player of a seat
+		 *
+		 * @param player (PlayerId) : the seat
+		 * @return (int) : the number of cards played
+		 */
+		public int moves(PlayerId player) {
+			return latencies[player.ordinal()].length;
+		}
+
+		/**
+		 * Determines a percentile of the time the player of a seat took to choose
+		 * its cards
+		 *
+		 * @param player     (PlayerId) : the seat
+		 * @param percentile (double) : the percentile, between 0 and 100 (both
+		 *                   included)
+		 * @return (long) : the percentile of the latencies in nanoseconds, or 0 if
+		 *         the player did not play
+		 * @throws IllegalArgumentException if the percentile is not between 0 and
+		 *                                  100
+		 */
+		public long latencyPercentile(PlayerId player, double percentile) throws IllegalArgumentException {
+			checkArgument(0 <= percentile && percentile <= 100);
+			long[] sorted = latencies[player.ordinal()].clone();
+			if (sorted.length == 0) {
+				return 0;
+			}
+			Arrays.sort(sorted);
+			return sorted[Math.max(0, (int) Math.ceil(percentile / 100 * sorted.length) - 1)];
+		}
+	}
+
+	/*
+	 * A player which measures the time its underlying player takes to choose each
+	 * card, and remembers the end of the game
+	 */
+	private static final class TimedPlayer implements Player {
+		private final Player underlyingPlayer;
+		private long[] latencies = new long[Jass.HAND_SIZE];
+		private int moves = 0;
+		private Score score = Score.INITIAL;
+		private TeamId winningTeam = null;
+
+		TimedPlayer(Player underlyingPlayer) {
+			this.underlyingPlayer = underlyingPlayer;
+		}
+
+		long[] latencies() {
+			return Arrays.copyOf(latencies, moves);
+		}
+
+		@Override
+		public Card cardToPlay(TurnState state, CardSet hand) {
+			long start = System.nanoTime();
+			Card card = underlyingPlayer.cardToPlay(state, hand);
+			if (moves == latencies.length) {
+				latencies = Arrays.copyOf(latencies, 2 * moves);
+			}
+			latencies[moves++] = System.nanoTime() - start;
+			return card;
+		}
+
+		@Override
+		public void setPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+			underlyingPlayer.setPlayers(ownId, playerNames);
+		}
+
+		@Override
+		public void updateHand(CardSet newHand) {
+			underlyingPlayer.updateHand(newHand);
+		}
+
+		@Override
+		public void setTrump(Color trump) {
+			underlyingPlayer.setTrump(trump);
+		}
+
+		@Override
+		public void updateTrick(Trick newTrick) {
+			underlyingPlayer.updateTrick(newTrick);
+		}
+
+		@Override
+		public void updateScore(Score score) {
+			this.score = score;
+			underlyingPlayer.updateScore(score);
+		}
+
+		@Override
+		public void setWinningTeam(TeamId winningTeam) {
+			this.winningTeam = winningTeam;
+			underlyingPlayer.setWinningTeam(winningTeam);
+		}
+
+		@Override
+		public Color chooseTrump(PlayerId chooser, CardSet hand, boolean canPass) {
+			return underlyingPlayer.chooseTrump(chooser, hand, canPass);
+		}
+	}
+}
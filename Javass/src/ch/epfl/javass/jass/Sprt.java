@@ -0,0 +1,212 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.javass.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A sequential probability ratio test (SPRT) deciding between two hypotheses
+ * on how much stronger the players of the first team of a simulation are than
+ * the players of the second team, from the results of its games as they come.
+ * The hypotheses are either two Elo differences, tested on the winners of the
+ * games, or two mean point differences per deal, tested on the point
+ * differences of the deals with the normal approximation, once enough deals
+ * are played for their variance to be estimated. A test is written
+ * "e:&lt;elo0&gt;:&lt;elo1&gt;:&lt;alpha&gt;:&lt;beta&gt;" or
+ * "d:&lt;difference0&gt;:&lt;difference1&gt;:&lt;alpha&gt;:&lt;beta&gt;", where
+ * alpha and beta are the probabilities of wrongly accepting the second and the
+ * first hypothesis. The games are played until the log-likelihood ratio of the
+ * hypotheses leaves the interval given by these error bounds, so a clear
+ * difference is decided after few games and a close one receives as many as
+ * needed
+ *
+ * @author Aman Bansal (297535)
+ * @author Julian Blackwell (289803)
+ */
+public final class Sprt {
+	private static final String SEPARATOR = ":";
+
+	/*
+	 * Number of deals below which the variance of the point differences is too
+	 * uncertain for the normal approximation, and the tests on point differences
+	 * are not decided
+	 */
+	private static final int MIN_DEALS = 30;
+
+	/**
+	 * The decision of a test
+	 */
+	public enum Decision {
+		ACCEPT_H0, ACCEPT_H1, CONTINUE;
+	}
+
+	private final boolean elo;
+	private final double h0, h1;
+	private final double lowerBound, upperBound;
+
+	private Sprt(boolean elo, double h0, double h1, double alpha, double beta) {
+		checkArgument(h0 < h1 && 0 < alpha && 0 < beta && alpha + beta < 1);
+		this.elo = elo;
+		this.h0 = h0;
+		this.h1 = h1;
+		this.lowerBound = Math.log(beta / (1 - alpha));
+		this.upperBound = Math.log((1 - beta) / alpha);
+	}
+
+	/**
+	 * Creates a test between two Elo differences of the first team over the
+	 * second, on the winners of the games
+	 *
+	 * @param elo0  (double) : the Elo difference of the first hypothesis
+	 * @param elo1  (double) : the Elo difference of the second hypothesis
+	 * @param alpha (double) : the probability of accepting the second hypothesis
+	 *              when the first one holds
+	 * @param beta  (double) : the probability of accepting the first hypothesis
+	 *              when the second one holds
+	 * @return (Sprt) : the test
+	 * @throws IllegalArgumentException if elo0 is not smaller than elo1, or if the
+	 *                                  error bounds are not strictly positive or
+	 *                                  their sum is not smaller than 1
+	 */
+	public static Sprt ofElo(double elo0, double elo1, double alpha, double beta) throws IllegalArgumentException {
+		return new Sprt(true, elo0, elo1, alpha, beta);
+	}
+
+	/**
+	 * Creates a test between two mean point differences per deal of the first
+	 * team over the second
+	 *
+	 * @param difference0 (double) : the mean point difference of the first
+	 *                    hypothesis
+	 * @param difference1 (double) : the mean point difference of the second
+	 *                    hypothesis
+	 * @param alpha       (double) : the probability of accepting the second
+	 *                    hypothesis when the first one holds
+	 * @param beta        (double) : the probability of accepting the first
+	 *                    hypothesis when the second one holds
+	 * @return (Sprt) : the test
+	 * @throws IllegalArgumentException if difference0 is not smaller than
+	 *                                  difference1, or if the error bounds are
+	 *                                  not strictly positive or their sum is not
+	 *                                  smaller than 1
+	 */
+	public static Sprt ofPointDifference(double difference0, double difference1, double alpha, double beta)
+			throws IllegalArgumentException {
+		return new Sprt(false, difference0, difference1, alpha, beta);
+	}
+
+	/**
+	 * Parses a test
+	 *
+	 * @param spec (String) : the test, as described above
+	 * @return (Sprt) : the test
+	 * @throws IllegalArgumentException if the test is invalid
+	 */
+	public static Sprt parse(String spec) throws IllegalArgumentException {
+		String[] parts = spec.split(SEPARATOR, -1);
+		checkArgument(parts.length == 5 && (parts[0].equals("e") || parts[0].equals("d")));
+		try {
+			return new Sprt(parts[0].equals("e"), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+					Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Gets the log-likelihood ratio under which the first hypothesis is accepted
+	 *
+	 * @return (double) : the lower bound of the log-likelihood ratio
+	 */
+	public double lowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Gets the log-likelihood ratio over which the second hypothesis is accepted
+	 *
+	 * @return (double) : the upper bound of the log-likelihood ratio
+	 */
+	public double upperBound() {
+		return upperBound;
+	}
+
+	/**
+	 * Computes the log-likelihood ratio of the second hypothesis over the first
+	 * one given the results of games
+	 *
+	 * @param result (Simulation.Result) : the results of the games
+	 * @return (double) : the log-likelihood ratio, which is 0 while the games do
+	 *         not tell the hypotheses apart
+	 */
+	public double llr(Simulation.Result result) {
+		if (elo) {
+			double p0 = expectedScore(h0), p1 = expectedScore(h1);
+			return result.wins(TeamId.TEAM_1) * Math.log(p1 / p0)
+					+ result.wins(TeamId.TEAM_2) * Math.log((1 - p1) / (1 - p0));
+		}
+
+		int n = result.deals();
+		if (n < MIN_DEALS) {
+			return 0;
+		}
+		double mean = result.meanDealDifference();
+		double variance = 0;
+		for (int d : result.dealDifferences()) {
+			variance += (d - mean) * (d - mean);
+		}
+		variance /= n;
+		return variance == 0 ? 0 : n * (h1 - h0) * (mean - (h0 + h1) / 2) / variance;
+	}
+
+	/**
+	 * Decides between the hypotheses given the results of games
+	 *
+	 * @param result (Simulation.Result) : the results of the games
+	 * @return (Decision) : the accepted hypothesis, or CONTINUE if more games
+	 *         are needed
+	 */
+	public Decision decision(Simulation.Result result) {
+		double llr = llr(result);
+		return llr <= lowerBound ? Decision.ACCEPT_H0 : llr >= upperBound ? Decision.ACCEPT_H1 : Decision.CONTINUE;
+	}
+
+	/**
+	 * Plays the deals of a simulation in parallel batches until a hypothesis is
+	 * accepted or a maximum number of deals is reached. The deals are the first
+	 * ones a simulation of the maximum number of deals plays, whatever the size
+	 * of the batches
+	 *
+	 * @param simulation (Simulation) : the simulation
+	 * @param rngSeed    (long) : the seed of the simulation
+	 * @param maxDeals   (int) : the maximum number of deals
+	 * @param batchDeals (int) : the number of deals played between two decisions
+	 * @param duplicate  (boolean) : true if the deals are played in duplicate
+	 *                   mode
+	 * @param executor   (ExecutorService) : the executor playing the games
+	 * @return (Simulation.Result) : the result of the deals played
+	 * @throws IllegalArgumentException if the maximum number of deals is negative
+	 *                                  or the number of deals per batch is not
+	 *                                  strictly positive
+	 */
+	public Simulation.Result run(Simulation simulation, long rngSeed, int maxDeals, int batchDeals,
+			boolean duplicate, ExecutorService executor) throws IllegalArgumentException {
+		checkArgument(batchDeals > 0);
+		long[] gameSeeds = Simulation.gameSeeds(rngSeed, maxDeals);
+		Simulation.Result result = Simulation.Result.EMPTY;
+		for (int from = 0; from < maxDeals && decision(result) == Decision.CONTINUE; from += batchDeals) {
+			long[] batch = Arrays.copyOfRange(gameSeeds, from, Math.min(from + batchDeals, maxDeals));
+			result = result.merge(simulation.run(batch, duplicate, executor));
+		}
+		return result;
+	}
+
+	/*
+	 * Gets the expected score of a player against another one whose Elo rating
+	 * is lower by a given difference
+	 */
+	private static double expectedScore(double eloDifference) {
+		return 1 / (1 + Math.pow(10, -eloDifference / 400));
+	}
+}
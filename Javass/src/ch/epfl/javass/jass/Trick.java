@@ -16,12 +16,32 @@ public final class Trick {
 	 */
 	public final static Trick INVALID = new Trick(PackedTrick.INVALID);
 
+	/*
+	 * The only instances of the empty tricks, indexed by their index, the ordinal
+	 * of their first player and the ordinal of their trump
+	 */
+	private final static Trick[][][] EMPTY_TRICKS = emptyTricks();
+
 	private final int pkTrick;
 
 	private Trick(int pkTrick) {
 		this.pkTrick = pkTrick;
 	}
 
+	private static Trick[][][] emptyTricks() {
+		Trick[][][] array = new Trick[Jass.TRICKS_PER_TURN][PlayerId.COUNT][Card.Color.COUNT];
+		for (PlayerId p : PlayerId.ALL) {
+			for (Card.Color c : Card.Color.ALL) {
+				int pkTrick = PackedTrick.firstEmpty(c, p);
+				for (int i = 0; i < Jass.TRICKS_PER_TURN; ++i) {
+					array[i][p.ordinal()][c.ordinal()] = new Trick(pkTrick);
+					pkTrick = PackedTrick.nextEmpty(pkTrick, p);
+				}
+			}
+		}
+		return array;
+	}
+
 	/**
 	 * Constructs an empty trick with given a trump color and a first player
 	 * 
@@ -30,7 +50,7 @@ public final class Trick {
 	 * @return (Trick) : the empty trick given a trump color and first player
 	 */
 	public static Trick firstEmpty(Card.Color trump, PlayerId firstPlayer) {
-		return new Trick(PackedTrick.firstEmpty(trump, firstPlayer));
+		return EMPTY_TRICKS[0][firstPlayer.ordinal()][trump.ordinal()];
 	}
 
 	/**
@@ -42,7 +62,23 @@ public final class Trick {
 	 */
 	public static Trick ofPacked(int packed) throws IllegalArgumentException {
 		checkArgument(PackedTrick.isValid(packed));
-		return new Trick(packed);
+		return ofValidPacked(packed);
+	}
+
+	/*
+	 * Gets a trick representing a packed trick known to be valid (or invalid
+	 * trick), without checking it, and shares the instances of the invalid and
+	 * empty tricks
+	 */
+	static Trick ofValidPacked(int packed) {
+		if (packed == PackedTrick.INVALID) {
+			return INVALID;
+		}
+		assert PackedTrick.isValid(packed);
+		return PackedTrick.isEmpty(packed)
+				? EMPTY_TRICKS[PackedTrick.index(packed)][PackedTrick.player(packed, 0).ordinal()][PackedTrick
+						.trump(packed).ordinal()]
+				: new Trick(packed);
 	}
 
 	/**
@@ -66,7 +102,7 @@ public final class Trick {
 			throw new IllegalStateException();
 		}
 
-		return new Trick(PackedTrick.nextEmpty(pkTrick));
+		return ofValidPacked(PackedTrick.nextEmpty(pkTrick));
 	}
 
 	/**
@@ -149,7 +185,7 @@ public final class Trick {
 	 */
 	public Card card(int index) throws IndexOutOfBoundsException {
 		checkIndex(index, PackedTrick.size(pkTrick));
-		return Card.ofPacked(PackedTrick.card(pkTrick, index));
+		return Card.ofValidPacked(PackedTrick.card(pkTrick, index));
 	}
 
 	/**
@@ -193,7 +229,7 @@ public final class Trick {
 			throw new IllegalStateException();
 		}
 
-		return CardSet.ofPacked(PackedTrick.playableCards(pkTrick, hand.packed()));
+		return CardSet.ofValidPacked(PackedTrick.playableCards(pkTrick, hand.packed()));
 	}
 
 	/**
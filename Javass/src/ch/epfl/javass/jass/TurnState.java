@@ -52,6 +52,16 @@ public final class TurnState {
 		return new TurnState(pkScore, pkUnplayedCards, pkTrick);
 	}
 
+	/*
+	 * Creates a turn state from packed values which are known to be valid, which
+	 * unlike ofPackedComponents also accepts the invalid trick of a terminal turn
+	 */
+	static TurnState ofValidPackedComponents(long pkScore, long pkUnplayedCards, int pkTrick) {
+		assert PackedScore.isValid(pkScore) && PackedCardSet.isValid(pkUnplayedCards)
+				&& (pkTrick == PackedTrick.INVALID || PackedTrick.isValid(pkTrick));
+		return new TurnState(pkScore, pkUnplayedCards, pkTrick);
+	}
+
 	/**
 	 * Gets the current score (packed) of the game
 	 * 
@@ -85,7 +95,7 @@ public final class TurnState {
 	 * @return (Score) : the current score of the game
 	 */
 	public Score score() {
-		return Score.ofPacked(pkScore);
+		return Score.ofValidPacked(pkScore);
 	}
 
 	/**
@@ -94,7 +104,7 @@ public final class TurnState {
 	 * @return (CardSet) : the set of unplayed cards of the turn
 	 */
 	public CardSet unplayedCards() {
-		return CardSet.ofPacked(pkUnplayedCards);
+		return CardSet.ofValidPacked(pkUnplayedCards);
 	}
 
 	/**
@@ -103,7 +113,7 @@ public final class TurnState {
 	 * @return (Trick) : the current trick of the turn
 	 */
 	public Trick trick() {
-		return Trick.ofPacked(pkTrick);
+		return Trick.ofValidPacked(pkTrick);
 	}
 
 	/**
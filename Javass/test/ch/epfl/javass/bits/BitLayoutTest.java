@@ -0,0 +1,99 @@
+package ch.epfl.javass.bits;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.bits.BitLayout.Field32;
+import ch.epfl.javass.bits.BitLayout.Field64;
+
+public final class BitLayoutTest {
+    @Test
+    void field32FailsWithInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> Field32.of(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> Field32.of(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Field32.of(30, 3));
+        assertThrows(IllegalArgumentException.class, () -> Field32.of(28, 4).next(1));
+    }
+
+    @Test
+    void field64FailsWithInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> Field64.of(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> Field64.of(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Field64.of(60, 5));
+        assertThrows(IllegalArgumentException.class, () -> Field64.of(0, 40).shiftedBy(32));
+    }
+
+    @Test
+    void field32MatchesBits32() {
+        SplittableRandom rng = newRandom();
+        for (int size = 1; size <= Integer.SIZE; ++size) {
+            for (int start = 0; start <= Integer.SIZE - size; ++start) {
+                Field32 f = Field32.of(start, size);
+                assertEquals(Bits32.mask(start, size), f.mask());
+                assertEquals(start + size, f.end());
+                for (int i = 0; i < RANDOM_ITERATIONS / 100; ++i) {
+                    int bits = rng.nextInt();
+                    int value = rng.nextInt() & Bits32.mask(0, size);
+                    assertEquals(Bits32.extract(bits, start, size), f.get(bits));
+                    int updated = f.with(bits, value);
+                    assertEquals(value, f.get(updated));
+                    assertEquals(bits & ~f.mask(), updated & ~f.mask());
+                }
+            }
+        }
+    }
+
+    @Test
+    void field64MatchesBits64() {
+        SplittableRandom rng = newRandom();
+        for (int size = 1; size <= Long.SIZE; ++size) {
+            for (int start = 0; start <= Long.SIZE - size; ++start) {
+                Field64 f = Field64.of(start, size);
+                assertEquals(Bits64.mask(start, size), f.mask());
+                assertEquals(start + size, f.end());
+                for (int i = 0; i < RANDOM_ITERATIONS / 100; ++i) {
+                    long bits = rng.nextLong();
+                    long value = rng.nextLong() & Bits64.mask(0, size);
+                    assertEquals(Bits64.extract(bits, start, size), f.get(bits));
+                    long updated = f.with(bits, value);
+                    assertEquals(value, f.get(updated));
+                    assertEquals(bits & ~f.mask(), updated & ~f.mask());
+                }
+            }
+        }
+    }
+
+    @Test
+    void fitsChecksValueSize() {
+        Field32 a = Field32.of(3, 5);
+        assertTrue(a.fits(0));
+        assertTrue(a.fits(31));
+        assertFalse(a.fits(32));
+        assertFalse(a.fits(-1));
+        assertTrue(Field32.of(0, Integer.SIZE).fits(-1));
+        Field64 b = Field64.of(10, 20);
+        assertTrue(b.fits((1L << 20) - 1));
+        assertFalse(b.fits(1L << 20));
+        assertFalse(b.fits(-1L));
+        assertTrue(Field64.of(0, Long.SIZE).fits(Long.MIN_VALUE));
+    }
+
+    @Test
+    void nextFieldStartsAfterField() {
+        Field32 a = Field32.of(3, 5);
+        assertEquals(8, a.next(7).start());
+        assertEquals(7, a.next(7).size());
+        Field64 b = Field64.of(10, 20);
+        assertEquals(30, b.next(4).start());
+        assertEquals(42, b.shiftedBy(32).start());
+        assertEquals(20, b.shiftedBy(32).size());
+    }
+}
@@ -4,6 +4,7 @@ import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
 import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -255,4 +256,12 @@ public final class CardSetTest {
             assertEquals(s1.hashCode(), s2.hashCode());
         }
     }
+
+    @Test
+    void emptyAndFullSetsAreShared() {
+        assertSame(CardSet.EMPTY, CardSet.ofPacked(PackedCardSet.EMPTY));
+        assertSame(CardSet.ALL_CARDS, CardSet.ofPacked(PackedCardSet.ALL_CARDS));
+        assertSame(CardSet.EMPTY, CardSet.ALL_CARDS.difference(CardSet.ALL_CARDS));
+        assertSame(CardSet.ALL_CARDS, CardSet.EMPTY.complement());
+    }
 }
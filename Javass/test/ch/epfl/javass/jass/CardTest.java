@@ -3,6 +3,7 @@ package ch.epfl.javass.jass;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
@@ -226,4 +227,15 @@ public final class CardTest {
         for (int i = 1; i < allHashCodes.length; ++i)
             assertTrue(allHashCodes[i] != allHashCodes[i - 1]);
     }
+
+    @Test
+    void cardsAreCanonicalInstances() {
+        for (Card.Color c: Card.Color.ALL) {
+            for (Card.Rank r: Card.Rank.ALL) {
+                Card card = Card.of(c, r);
+                assertSame(card, Card.of(c, r));
+                assertSame(card, Card.ofPacked(card.packed()));
+            }
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class CardTrackerTest {
+    private static void assertConsistent(CardTracker tracker, PlayerId ownId, TurnState state, long[] hands,
+            Color trump) {
+        assertEquals(state.packedUnplayedCards(), tracker.packedUnplayedCards());
+        assertEquals(state.packedUnplayedCards() & ~hands[ownId.ordinal()], tracker.packedUnseenCards());
+        int trumpJack = PackedCard.pack(trump, Rank.JACK);
+        for (PlayerId p : PlayerId.ALL) {
+            long hand = hands[p.ordinal()];
+            assertEquals(PackedCardSet.size(hand), tracker.handSize(p));
+            assertEquals(hand, hand & tracker.packedPossibleCards(p));
+            for (Color c : Color.ALL) {
+                if (tracker.isVoid(p, c)) {
+                    long held = PackedCardSet.subsetOfColor(hand, c);
+                    assertTrue(held == 0 || (c == trump && held == PackedCardSet.singleton(trumpJack)));
+                }
+            }
+        }
+        assertEquals(hands[ownId.ordinal()], tracker.packedPossibleCards(ownId));
+    }
+
+    @Test
+    void trackerIsConsistentWithRandomTurns() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            PlayerId ownId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            CardTracker tracker = new CardTracker(ownId);
+            // Several turns are played with the same tracker, as in a game
+            for (int turn = 0; turn < 2; ++turn) {
+                long[] hands = randomHands(rng);
+                Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+                TurnState state = TurnState.initial(trump, Score.INITIAL, PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+                tracker.updateHand(CardSet.ofPacked(hands[ownId.ordinal()]));
+                tracker.setTrump(trump);
+
+                while (!state.isTerminal()) {
+                    tracker.updateTrick(state.trick());
+                    for (int k = 0; k < PlayerId.COUNT; ++k) {
+                        PlayerId p = state.nextPlayer();
+                        long playable = PackedTrick.playableCards(state.packedTrick(), hands[p.ordinal()]);
+                        int c = PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)));
+                        hands[p.ordinal()] = PackedCardSet.remove(hands[p.ordinal()], c);
+                        state = state.withNewCardPlayed(Card.ofPacked(c));
+                        if (p == ownId) {
+                            tracker.updateHand(CardSet.ofPacked(hands[p.ordinal()]));
+                        }
+                        tracker.updateTrick(state.trick());
+                        assertConsistent(tracker, ownId, state, hands, trump);
+                    }
+                    state = state.withTrickCollected();
+
+                    if (!state.isTerminal()) {
+                        DealSampler sampler = tracker.dealSampler();
+                        assertFalse(sampler.isRelaxed());
+                        assertTrue(sampler.dealCount() >= 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void voidIsDetectedWhenColorIsNotFollowed() {
+        CardTracker tracker = new CardTracker(PlayerId.PLAYER_1);
+        tracker.updateHand(CardSet.EMPTY.add(Card.of(Color.SPADE, Rank.SIX)));
+        tracker.setTrump(Color.HEART);
+
+        Trick trick = Trick.firstEmpty(Color.HEART, PlayerId.PLAYER_2);
+        tracker.updateTrick(trick);
+        trick = trick.withAddedCard(Card.of(Color.CLUB, Rank.ACE));
+        tracker.updateTrick(trick);
+        // The third player trumps, which does not say anything
+        trick = trick.withAddedCard(Card.of(Color.HEART, Rank.SIX));
+        tracker.updateTrick(trick);
+        // The fourth player neither follows nor trumps
+        trick = trick.withAddedCard(Card.of(Color.DIAMOND, Rank.KING));
+        tracker.updateTrick(trick);
+
+        assertFalse(tracker.isVoid(PlayerId.PLAYER_2, Color.CLUB));
+        assertFalse(tracker.isVoid(PlayerId.PLAYER_3, Color.CLUB));
+        assertTrue(tracker.isVoid(PlayerId.PLAYER_4, Color.CLUB));
+        assertEquals(PackedCardSet.EMPTY, PackedCardSet.subsetOfColor(
+                tracker.packedPossibleCards(PlayerId.PLAYER_4), Color.CLUB));
+        assertTrue(tracker.hasPlayedTrump(PlayerId.PLAYER_3));
+        assertFalse(tracker.hasPlayedTrump(PlayerId.PLAYER_4));
+        assertEquals(Jass.HAND_SIZE - 1, tracker.handSize(PlayerId.PLAYER_4));
+        assertEquals(Jass.HAND_SIZE, tracker.handSize(PlayerId.PLAYER_1));
+    }
+
+    @Test
+    void jackOfTrumpIsStillPossibleWhenTrumpIsNotFollowed() {
+        CardTracker tracker = new CardTracker(PlayerId.PLAYER_1);
+        tracker.updateHand(CardSet.EMPTY);
+        tracker.setTrump(Color.SPADE);
+        Trick trick = Trick.firstEmpty(Color.SPADE, PlayerId.PLAYER_2)
+                .withAddedCard(Card.of(Color.SPADE, Rank.ACE))
+                .withAddedCard(Card.of(Color.HEART, Rank.SIX));
+        tracker.updateTrick(trick);
+
+        assertTrue(tracker.isVoid(PlayerId.PLAYER_3, Color.SPADE));
+        assertEquals(PackedCardSet.singleton(PackedCard.pack(Color.SPADE, Rank.JACK)),
+                PackedCardSet.subsetOfColor(tracker.packedPossibleCards(PlayerId.PLAYER_3), Color.SPADE));
+    }
+}
@@ -0,0 +1,169 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class DealParticleFilterTest {
+    private static final int TURNS = 50;
+    private static final int PARTICLES = 500;
+    private static final int SAMPLES = 200;
+
+    // Plays the most valuable card which is not a trump on a trick won by the
+    // partner, and otherwise the cheapest card taking the trick, or the cheapest card
+    private static int greedyCard(TurnState state, long playable) {
+        Color trump = state.trick().trump();
+        int pkTrick = state.packedTrick();
+        PlayerId player = state.nextPlayer();
+        if (!PackedTrick.isEmpty(pkTrick) && PackedTrick.winningPlayer(pkTrick).team() == player.team()) {
+            int chosen = PackedCard.INVALID;
+            for (int i = 0; i < PackedCardSet.size(playable); ++i) {
+                int c = PackedCardSet.get(playable, i);
+                if (PackedCard.color(c) != trump && (chosen == PackedCard.INVALID
+                        || PackedCard.points(trump, c) > PackedCard.points(trump, chosen))) {
+                    chosen = c;
+                }
+            }
+            if (chosen != PackedCard.INVALID) {
+                return chosen;
+            }
+        }
+
+        int chosen = PackedCard.INVALID;
+        boolean chosenWins = false;
+        for (int i = 0; i < PackedCardSet.size(playable); ++i) {
+            int c = PackedCardSet.get(playable, i);
+            boolean wins = !PackedTrick.isEmpty(pkTrick)
+                    && PackedTrick.winningPlayer(PackedTrick.withAddedCard(pkTrick, c)) == player;
+            if (chosen == PackedCard.INVALID || (wins && !chosenWins) || (wins == chosenWins
+                    && PackedCard.points(trump, c) < PackedCard.points(trump, chosen))) {
+                chosen = c;
+                chosenWins = wins;
+            }
+        }
+        return chosen;
+    }
+
+    // Plays half a turn, the other players being greedy, and returns the fraction
+    // of the unseen cards which the samples give to the right player
+    private static double[] accuracies(SplittableRandom rng) {
+        PlayerId ownId = PlayerId.PLAYER_1;
+        long[] hands = randomHands(rng);
+        Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+        DealParticleFilter filter = new DealParticleFilter(ownId, PARTICLES, 0.2, rng.split());
+        filter.updateHand(CardSet.ofPacked(hands[ownId.ordinal()]));
+        filter.setTrump(trump);
+
+        TurnState state = TurnState.initial(trump, Score.INITIAL, ownId);
+        for (int k = 0; k < Jass.TRICKS_PER_TURN / 2 * PlayerId.COUNT; ++k) {
+            filter.updateTrick(state.trick());
+            PlayerId p = state.nextPlayer();
+            long playable = PackedTrick.playableCards(state.packedTrick(), hands[p.ordinal()]);
+            int c = p == ownId ? PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)))
+                    : greedyCard(state, playable);
+            hands[p.ordinal()] = PackedCardSet.remove(hands[p.ordinal()], c);
+            state = state.withNewCardPlayed(Card.ofPacked(c));
+            if (p == ownId) {
+                filter.updateHand(CardSet.ofPacked(hands[p.ordinal()]));
+            }
+            filter.updateTrick(state.trick());
+            if (state.trick().isFull()) {
+                state = state.withTrickCollected();
+            }
+        }
+
+        DealSampler sampler = filter.tracker().dealSampler();
+        long[] deal = new long[PlayerId.COUNT];
+        double filtered = 0, uniform = 0;
+        for (int i = 0; i < SAMPLES; ++i) {
+            filter.sample(rng, deal);
+            filtered += matches(hands, deal);
+            sampler.sample(rng, deal);
+            uniform += matches(hands, deal);
+        }
+        int unseen = PackedCardSet.size(filter.tracker().packedUnseenCards());
+        return new double[] { filtered / (SAMPLES * unseen), uniform / (SAMPLES * unseen) };
+    }
+
+    private static int matches(long[] hands, long[] deal) {
+        int count = 0;
+        for (int p = 0; p < PlayerId.COUNT; ++p) {
+            count += PackedCardSet.size(hands[p] & deal[p]);
+        }
+        return count;
+    }
+
+    @Test
+    void samplesRespectWhatIsKnown() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < TURNS; ++i) {
+            PlayerId ownId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            long[] hands = randomHands(rng);
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            DealParticleFilter filter = new DealParticleFilter(ownId, 50, 0.5, rng.split());
+            filter.updateHand(CardSet.ofPacked(hands[ownId.ordinal()]));
+            filter.setTrump(trump);
+
+            TurnState state = TurnState.initial(trump, Score.INITIAL, PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+            long[] deal = new long[PlayerId.COUNT];
+            while (!state.isTerminal()) {
+                filter.updateTrick(state.trick());
+                PlayerId p = state.nextPlayer();
+                long playable = PackedTrick.playableCards(state.packedTrick(), hands[p.ordinal()]);
+                int c = PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)));
+                hands[p.ordinal()] = PackedCardSet.remove(hands[p.ordinal()], c);
+                state = state.withNewCardPlayed(Card.ofPacked(c));
+                if (p == ownId) {
+                    filter.updateHand(CardSet.ofPacked(hands[p.ordinal()]));
+                }
+                filter.updateTrick(state.trick());
+
+                CardTracker tracker = filter.tracker();
+                assertTrue(filter.effectiveSize() > 0);
+                filter.sample(rng, deal);
+                long union = PackedCardSet.EMPTY;
+                for (PlayerId q : PlayerId.ALL) {
+                    long hand = deal[q.ordinal()];
+                    assertEquals(q == ownId ? 0 : tracker.handSize(q), PackedCardSet.size(hand));
+                    assertEquals(hand, hand & tracker.packedPossibleCards(q));
+                    union |= hand;
+                }
+                assertEquals(tracker.packedUnseenCards(), union);
+
+                if (state.trick().isFull()) {
+                    state = state.withTrickCollected();
+                }
+            }
+        }
+    }
+
+    @Test
+    void inferenceOfGreedyPlayersIsBetterThanUniformSampling() {
+        SplittableRandom rng = newRandom();
+        double filtered = 0, uniform = 0;
+        for (int i = 0; i < TURNS; ++i) {
+            double[] accuracies = accuracies(rng);
+            filtered += accuracies[0];
+            uniform += accuracies[1];
+        }
+        assertTrue(filtered > uniform * 1.05, filtered / TURNS + " " + uniform / TURNS);
+    }
+
+    @Test
+    void constructorFailsOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new DealParticleFilter(PlayerId.PLAYER_1, 0, 0.5, newRandom());
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new DealParticleFilter(PlayerId.PLAYER_1, 10, 0, newRandom());
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class DealSamplerTest {
+    private static final long ALL = PackedCardSet.ALL_CARDS;
+
+    private static long cards(int... pkCards) {
+        long set = PackedCardSet.EMPTY;
+        for (int c : pkCards) {
+            set = PackedCardSet.add(set, c);
+        }
+        return set;
+    }
+
+    private static boolean respects(long[] hands, int[] sizes, long[] known, long[] possible) {
+        for (int p = 0; p < PlayerId.COUNT; ++p) {
+            if (PackedCardSet.size(hands[p]) != sizes[p] || (known[p] & ~hands[p]) != 0
+                    || (hands[p] & ~known[p] & ~possible[p]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Enumerates all the deals of the unseen cards respecting the constraints
+    private static void enumerate(long unseen, long[] hands, int[] sizes, long[] known, long[] possible,
+            List<List<Long>> deals) {
+        if (unseen == PackedCardSet.EMPTY) {
+            if (respects(hands, sizes, known, possible)) {
+                List<Long> deal = new ArrayList<>();
+                for (long h : hands) {
+                    deal.add(h);
+                }
+                deals.add(deal);
+            }
+            return;
+        }
+        int c = PackedCardSet.get(unseen, 0);
+        for (int q = 0; q < PlayerId.COUNT; ++q) {
+            if (PackedCardSet.size(hands[q]) < sizes[q]) {
+                hands[q] = PackedCardSet.add(hands[q], c);
+                enumerate(PackedCardSet.remove(unseen, c), hands, sizes, known, possible, deals);
+                hands[q] = PackedCardSet.remove(hands[q], c);
+            }
+        }
+    }
+
+    private static List<List<Long>> allDeals(long unseen, int[] sizes, long[] known, long[] possible) {
+        List<List<Long>> deals = new ArrayList<>();
+        enumerate(unseen, new long[PlayerId.COUNT], sizes, known, possible, deals);
+        return deals;
+    }
+
+    @Test
+    void samplesAreUniformAmongValidDeals() {
+        int s6 = PackedCard.pack(Color.SPADE, Rank.SIX), s7 = PackedCard.pack(Color.SPADE, Rank.SEVEN);
+        int h6 = PackedCard.pack(Color.HEART, Rank.SIX), h7 = PackedCard.pack(Color.HEART, Rank.SEVEN);
+        int d6 = PackedCard.pack(Color.DIAMOND, Rank.SIX), c6 = PackedCard.pack(Color.CLUB, Rank.SIX);
+        int c7 = PackedCard.pack(Color.CLUB, Rank.SEVEN);
+        long unseen = cards(s6, s7, h6, h7, d6, c6, c7);
+        int[] sizes = { 0, 3, 2, 2 };
+        long[] known = { 0, cards(c7), 0, 0 };
+        // The second player is void in spades, the fourth one in hearts
+        long[] possible = { ALL, ALL & ~PackedCardSet.subsetOfColor(ALL, Color.SPADE), ALL,
+                ALL & ~PackedCardSet.subsetOfColor(ALL, Color.HEART) };
+
+        List<List<Long>> deals = allDeals(unseen, sizes, known, possible);
+        DealSampler sampler = new DealSampler(unseen, sizes, known, possible);
+        assertFalse(sampler.isRelaxed());
+        assertEquals(deals.size(), sampler.dealCount(), 1e-9);
+
+        Map<List<Long>, Integer> counts = new HashMap<>();
+        for (List<Long> deal : deals) {
+            counts.put(deal, 0);
+        }
+        SplittableRandom rng = newRandom();
+        int samples = deals.size() * 1000;
+        long[] hands = new long[PlayerId.COUNT];
+        for (int i = 0; i < samples; ++i) {
+            sampler.sample(rng, hands);
+            List<Long> deal = new ArrayList<>();
+            for (long h : hands) {
+                deal.add(h);
+            }
+            assertTrue(counts.containsKey(deal));
+            counts.merge(deal, 1, Integer::sum);
+        }
+        // Each count follows a binomial law of mean 1000 and standard deviation
+        // about 31, so it is between 800 and 1200 unless something is wrong
+        for (int count : counts.values()) {
+            assertTrue(800 < count && count < 1200, "count " + count);
+        }
+    }
+
+    @Test
+    void samplesRespectConstraintsOfRandomPositions() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            // Deals the cards, then hides those of the three other players
+            long[] real = randomHands(rng);
+            long unseen = real[1] | real[2] | real[3];
+            int[] sizes = { 0, 9, 9, 9 };
+            long[] known = { 0, 0, 0, 0 };
+            long[] possible = new long[PlayerId.COUNT];
+            for (int p = 1; p < PlayerId.COUNT; ++p) {
+                possible[p] = ALL;
+                // Players are void in the colors they really do not have
+                for (Color c : Color.ALL) {
+                    if (PackedCardSet.subsetOfColor(real[p], c) == 0) {
+                        possible[p] &= ~PackedCardSet.subsetOfColor(ALL, c);
+                    }
+                }
+                // And one of their cards is known
+                known[p] = PackedCardSet.singleton(PackedCardSet.get(real[p], rng.nextInt(9)));
+            }
+
+            DealSampler sampler = new DealSampler(unseen, sizes, known, possible);
+            assertFalse(sampler.isRelaxed());
+            long[] hands = new long[PlayerId.COUNT];
+            sampler.sample(rng, hands);
+            assertTrue(respects(hands, sizes, known, possible));
+            assertEquals(unseen, hands[0] | hands[1] | hands[2] | hands[3]);
+        }
+    }
+
+    @Test
+    void contradictoryConstraintsAreRelaxed() {
+        long spades = PackedCardSet.subsetOfColor(ALL, Color.SPADE);
+        long hearts = PackedCardSet.subsetOfColor(ALL, Color.HEART);
+        long unseen = spades | hearts;
+        int[] sizes = { 0, 9, 9, 0 };
+        long[] known = { 0, 0, 0, 0 };
+        // Nobody can hold the spades
+        long[] possible = { ALL, hearts, hearts, ALL };
+
+        DealSampler sampler = new DealSampler(unseen, sizes, known, possible);
+        assertTrue(sampler.isRelaxed());
+        long[] hands = new long[PlayerId.COUNT];
+        sampler.sample(newRandom(), hands);
+        assertTrue(respects(hands, sizes, known, new long[] { ALL, ALL, ALL, ALL }));
+        assertEquals(unseen, hands[1] | hands[2]);
+    }
+
+    @Test
+    void constructorFailsOnInconsistentSizes() {
+        long unseen = PackedCardSet.subsetOfColor(ALL, Color.SPADE);
+        long[] none = new long[PlayerId.COUNT];
+        long[] any = { ALL, ALL, ALL, ALL };
+        assertThrows(IllegalArgumentException.class, () -> {
+            new DealSampler(unseen, new int[] { 0, 3, 3, 2 }, none, any);
+        });
+        long[] tooMany = { 0, PackedCardSet.subsetOfColor(unseen, Color.SPADE), 0, 0 };
+        assertThrows(IllegalArgumentException.class, () -> {
+            new DealSampler(unseen, new int[] { 0, 3, 3, 3 }, tooMany, any);
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class DecisionCacheTest {
+    private static TurnState state(int cardsPlayed) {
+        TurnState s = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        for (int i = 0; i < cardsPlayed; ++i) {
+            long unplayed = s.packedUnplayedCards();
+            s = s.withNewCardPlayedAndTrickCollected(
+                    Card.ofPacked(PackedCardSet.get(unplayed, i % PackedCardSet.size(unplayed))));
+        }
+        return s;
+    }
+
+    private static long hand(TurnState s) {
+        long h = PackedCardSet.EMPTY;
+        for (int i = 0; i < 3; ++i) {
+            h = PackedCardSet.add(h, PackedCardSet.get(s.packedUnplayedCards(), i));
+        }
+        return h;
+    }
+
+    @Test
+    void constructorFailsWithNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new DecisionCache(0);
+        });
+    }
+
+    @Test
+    void storedDecisionsCanBeRetrieved() {
+        DecisionCache c = new DecisionCache(10);
+        for (int i = 0; i < 5; ++i) {
+            TurnState s = state(i);
+            c.put(s, hand(s), new DecisionCache.Decision(i, 100 * i, i / 2d));
+        }
+        for (int i = 0; i < 5; ++i) {
+            TurnState s = state(i);
+            DecisionCache.Decision d = c.get(s, hand(s));
+            assertEquals(i, d.packedCard());
+            assertEquals(100 * i, d.iterations());
+            assertEquals(i / 2d, d.averagePoints());
+        }
+        assertEquals(null, c.get(state(6), hand(state(6))));
+    }
+
+    @Test
+    void leastRecentlyUsedDecisionIsEvicted() {
+        DecisionCache c = new DecisionCache(3);
+        for (int i = 0; i < 3; ++i) {
+            TurnState s = state(i);
+            c.put(s, hand(s), new DecisionCache.Decision(i, 1, 0));
+        }
+        c.get(state(0), hand(state(0)));
+        c.put(state(3), hand(state(3)), new DecisionCache.Decision(3, 1, 0));
+        assertEquals(3, c.size());
+        assertEquals(null, c.get(state(1), hand(state(1))));
+        assertEquals(0, c.get(state(0), hand(state(0))).packedCard());
+    }
+
+    @Test
+    void savedDecisionsCanBeLoaded() throws Exception {
+        DecisionCache c = new DecisionCache(100);
+        for (int i = 0; i < 20; ++i) {
+            TurnState s = state(i);
+            c.put(s, hand(s), new DecisionCache.Decision(PackedCardSet.get(PackedCardSet.ALL_CARDS, i), 1000 + i, i * 1.5));
+        }
+        Path p = Files.createTempFile("decisions", ".bin");
+        try {
+            c.save(p);
+            DecisionCache d = new DecisionCache(100);
+            d.load(p);
+            assertEquals(20, d.size());
+            for (int i = 0; i < 20; ++i) {
+                TurnState s = state(i);
+                assertEquals(PackedCardSet.get(PackedCardSet.ALL_CARDS, i), d.get(s, hand(s)).packedCard());
+                assertEquals(1000 + i, d.get(s, hand(s)).iterations());
+                assertEquals(i * 1.5, d.get(s, hand(s)).averagePoints());
+            }
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    void decisionIsFoundForPositionWithPermutedColors() {
+        DecisionCache c = new DecisionCache(4);
+        TurnState s = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_1);
+        long hand = PackedCardSet.EMPTY;
+        for (Card.Rank r : Card.Rank.ALL) {
+            hand = PackedCardSet.add(hand, PackedCard.pack(r.ordinal() < 5 ? Color.SPADE : Color.CLUB, r));
+        }
+        c.put(s, hand, new DecisionCache.Decision(PackedCard.pack(Color.CLUB, Rank.ACE), 1_000, 0));
+
+        int swap = 0b00_10_01_11;
+        long swappedHand = PackedColorPermutation.permuteCardSet(swap, hand);
+        assertEquals(1, c.size());
+        assertEquals(PackedCard.pack(Color.SPADE, Rank.ACE), c.get(s, swappedHand).packedCard());
+        assertEquals(PackedCard.pack(Color.CLUB, Rank.ACE), c.get(s, hand).packedCard());
+    }
+
+    @Test
+    void playerReusesDecisionsOfLargerSearches() {
+        DecisionCache c = new DecisionCache(10);
+        TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.JACK));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.SPADE, Rank.EIGHT))
+                .add(Card.of(Color.SPADE, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.SEVEN))
+                .add(Card.of(Color.HEART, Rank.EIGHT))
+                .add(Card.of(Color.HEART, Rank.NINE))
+                .add(Card.of(Color.HEART, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.JACK));
+        int ten = Card.of(Color.HEART, Rank.TEN).packed();
+        c.put(state, hand.packed(), new DecisionCache.Decision(ten, 1_000, 0));
+        assertEquals(ten, new MctsPlayer(PlayerId.PLAYER_2, 0, MctsOptions.ofIterations(1_000).withCache(c)).cardToPlay(state, hand).packed());
+        Card searched = new MctsPlayer(PlayerId.PLAYER_2, 0, MctsOptions.ofIterations(2_000).withCache(c)).cardToPlay(state, hand);
+        assertEquals(searched.packed(), c.get(state, hand.packed()).packedCard());
+        assertTrue(c.get(state, hand.packed()).iterations() >= 2_000);
+    }
+
+    @Test
+    void cachedDecisionsDoNotConsumeBudget() {
+        DecisionCache c = new DecisionCache(10);
+        TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.HEART, Rank.SIX));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.HEART, Rank.SEVEN))
+                .add(Card.of(Color.HEART, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.ACE))
+                .add(Card.of(Color.SPADE, Rank.SIX))
+                .add(Card.of(Color.DIAMOND, Rank.SEVEN))
+                .add(Card.of(Color.DIAMOND, Rank.KING))
+                .add(Card.of(Color.CLUB, Rank.EIGHT))
+                .add(Card.of(Color.CLUB, Rank.NINE))
+                .add(Card.of(Color.CLUB, Rank.QUEEN));
+        int ace = Card.of(Color.HEART, Rank.ACE).packed();
+        c.put(state, hand.packed(), new DecisionCache.Decision(ace, 1_000_000, 0));
+
+        IterationBudget budget = new IterationBudget(9 * 1_000);
+        MctsOptions options = MctsOptions.ofBudget(budget).withCache(c);
+        assertEquals(ace, new MctsPlayer(PlayerId.PLAYER_2, 0, options).cardToPlay(state, hand).packed());
+        assertEquals(budget.turnIterations(), budget.remaining());
+
+        IterationBudget parallelBudget = new IterationBudget(9 * 1_000);
+        MctsOptions parallelOptions = MctsOptions.ofBudget(parallelBudget).withCache(c);
+        assertEquals(ace,
+                new ParallelMctsPlayer(PlayerId.PLAYER_2, 0, parallelOptions, 2, 1).cardToPlay(state, hand).packed());
+        assertEquals(parallelBudget.turnIterations(), parallelBudget.remaining());
+    }
+}
@@ -0,0 +1,75 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class DoubleDummyAnalyzerTest {
+    private static Position randomDeal(SplittableRandom rng, boolean trumpsToFirstPlayer) {
+        Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+        long[] hands = trumpsToFirstPlayer
+                ? randomHands(rng, PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, trump))
+                : randomHands(rng);
+        return DoubleDummyAnalyzer.deal(hands, trump, PlayerId.PLAYER_1);
+    }
+
+    @Test
+    void formatAndParseAreInverse() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Position deal = randomDeal(rng, false);
+            assertEquals(deal, DoubleDummyAnalyzer.parseDeal(DoubleDummyAnalyzer.formatDeal(deal)));
+        }
+        assertEquals("1ff 1ff0000 1ff00000000 1ff000000000000 SPADE PLAYER_1",
+                DoubleDummyAnalyzer.formatDeal(DoubleDummyAnalyzer.deal(
+                        new long[] { 0x1ffL, 0x1ff0000L, 0x1ff00000000L, 0x1ff000000000000L }, Color.SPADE,
+                        PlayerId.PLAYER_1)));
+    }
+
+    @Test
+    void parseFailsOnInvalidDeals() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            DoubleDummyAnalyzer.parseDeal("1ff 1ff0000 1ff00000000 SPADE PLAYER_1");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            DoubleDummyAnalyzer.parseDeal("1ff 1ff0000 1ff00000000 1ff00000000 SPADE PLAYER_1");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            DoubleDummyAnalyzer.parseDeal("1ff 1ff0000 1ff00000000 1ff000000000000 TRUMP PLAYER_1");
+        });
+    }
+
+    @Test
+    void analyzeWritesParsInOrder() throws IOException {
+        SplittableRandom rng = newRandom();
+        List<Position> deals = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            deals.add(randomDeal(rng, true));
+        }
+        StringWriter out = new StringWriter();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        assertEquals(deals.size(), DoubleDummyAnalyzer.analyze(deals.iterator(), pool, out));
+        pool.shutdown();
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(deals.size(), lines.length);
+        for (int i = 0; i < deals.size(); ++i) {
+            // The first player holds all the trumps and makes all the tricks
+            assertEquals(DoubleDummyAnalyzer.formatDeal(deals.get(i)) + " " + (157 + Jass.MATCH_ADDITIONAL_POINTS),
+                    lines[i]);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static ch.epfl.test.TestRandomizer.randomPosition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class DoubleDummySolverTest {
+    private static final int POSITIONS = 100;
+    private static final int DEEP_POSITIONS = 20;
+
+    // Solves with a plain alpha-beta on the immutable TurnState, without table
+    // nor move ordering
+    private static int referenceSolve(TurnState state, long[] hands, int alpha, int beta) {
+        if (state.isTerminal()) {
+            return state.score().turnPoints(TeamId.TEAM_1);
+        }
+        int p = state.nextPlayer().ordinal();
+        boolean maximizing = state.nextPlayer().team() == TeamId.TEAM_1;
+        long hand = hands[p];
+        long playable = PackedTrick.playableCards(state.packedTrick(), hand);
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < PackedCardSet.size(playable) && alpha < beta; ++i) {
+            int c = PackedCardSet.get(playable, i);
+            hands[p] = PackedCardSet.remove(hand, c);
+            int value = referenceSolve(state.withNewCardPlayedAndTrickCollected(Card.ofPacked(c)), hands, alpha, beta);
+            if (maximizing) {
+                best = Math.max(best, value);
+                alpha = Math.max(alpha, value);
+            } else {
+                best = Math.min(best, value);
+                beta = Math.min(beta, value);
+            }
+        }
+        hands[p] = hand;
+        return best;
+    }
+
+    private static int referenceSolve(Position position) {
+        long[] hands = new long[PlayerId.COUNT];
+        for (PlayerId p : PlayerId.ALL) {
+            hands[p.ordinal()] = position.packedHand(p);
+        }
+        return referenceSolve(position.turnState(), hands, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void solveIsSameAsMinimaxOnEndgames() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, 24 + rng.nextInt(13));
+            assertEquals(referenceSolve(position), solver.solve(position));
+        }
+    }
+
+    @Test
+    void solveIsSameAsMinimaxWithFourTricksLeft() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int i = 0; i < DEEP_POSITIONS; ++i) {
+            Position position = randomPosition(rng, 20 + rng.nextInt(PlayerId.COUNT));
+            assertEquals(referenceSolve(position), solver.solve(position));
+        }
+    }
+
+    @Test
+    void solveIsSameAsMinimaxWithFiveTricksLeft() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int i = 0; i < DEEP_POSITIONS / 4; ++i) {
+            Position position = randomPosition(rng, 16 + rng.nextInt(PlayerId.COUNT));
+            assertEquals(referenceSolve(position), solver.solve(position));
+        }
+    }
+
+    @Test
+    void solveIsSameWithWarmTable() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        Position[] positions = new Position[DEEP_POSITIONS];
+        int[] values = new int[DEEP_POSITIONS];
+        for (int i = 0; i < DEEP_POSITIONS; ++i) {
+            positions[i] = randomPosition(rng, 16 + rng.nextInt(3 * PlayerId.COUNT));
+            values[i] = solver.solve(positions[i]);
+            assertEquals(values[i], solver.solve(positions[i]));
+        }
+        for (int i = DEEP_POSITIONS - 1; i >= 0; --i) {
+            assertEquals(values[i], solver.solve(positions[i]));
+            assertEquals(values[i], new DoubleDummySolver().solve(positions[i]));
+        }
+    }
+
+    @Test
+    void playerHoldingAllTrumpsMakesMatch() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int i = 0; i < 10; ++i) {
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            long[] hands = randomHands(rng, PackedCardSet.subsetOfColor(PackedCardSet.ALL_CARDS, trump));
+            Position position = Position.of(PackedScore.INITIAL, PackedCardSet.ALL_CARDS,
+                    PackedTrick.firstEmpty(trump, PlayerId.PLAYER_1), hands);
+            assertEquals(157 + Jass.MATCH_ADDITIONAL_POINTS, solver.solve(position));
+        }
+    }
+
+    @Test
+    void solveOfTerminalPositionIsItsScore() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, Jass.TRICKS_PER_TURN * PlayerId.COUNT);
+            assertEquals(PackedScore.turnPoints(position.packedScore(), TeamId.TEAM_1), solver.solve(position));
+        }
+    }
+}
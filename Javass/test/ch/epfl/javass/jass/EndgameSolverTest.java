@@ -0,0 +1,192 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomPosition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class EndgameSolverTest {
+
+    // Deals the cards of the other players as the endgame solver does
+    private static long[] deal(Position position, PlayerId ownId, int tricks, SplittableRandom rng) {
+        long[] hands = new long[PlayerId.COUNT];
+        long others = PackedCardSet.difference(position.packedUnplayedCards(), position.packedHand(ownId));
+        for (PlayerId p : PlayerId.ALL) {
+            if (p == ownId) {
+                hands[p.ordinal()] = position.packedHand(p);
+                continue;
+            }
+            for (int i = 0; i < tricks; ++i) {
+                int c = PackedCardSet.get(others, rng.nextInt(PackedCardSet.size(others)));
+                others = PackedCardSet.remove(others, c);
+                hands[p.ordinal()] = PackedCardSet.add(hands[p.ordinal()], c);
+            }
+        }
+        return hands;
+    }
+
+    // Solves the final score exhaustively, the first team maximizing its points
+    // and, at equal points, preventing a match of the second team
+    private static long referenceScore(long score, int trick, long[] hands) {
+        if (trick == PackedTrick.INVALID) {
+            return score;
+        }
+        if (PackedTrick.isFull(trick)) {
+            long next = PackedScore.withAdditionalTrick(score, PackedTrick.winningPlayer(trick).team(),
+                    PackedTrick.points(trick));
+            return referenceScore(next, PackedTrick.nextEmpty(trick), hands);
+        }
+        PlayerId player = PackedTrick.player(trick, PackedTrick.size(trick));
+        long hand = hands[player.ordinal()];
+        long playable = PackedTrick.playableCards(trick, hand);
+        long best = 0;
+        for (int i = 0; i < PackedCardSet.size(playable); ++i) {
+            int c = PackedCardSet.get(playable, i);
+            hands[player.ordinal()] = PackedCardSet.remove(hand, c);
+            long s = referenceScore(score, PackedTrick.withAddedCard(trick, c), hands);
+            hands[player.ordinal()] = hand;
+            if (i == 0 || (player.team() == TeamId.TEAM_1 ? value(s) > value(best) : value(s) < value(best))) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    private static int value(long score) {
+        boolean match2 = PackedScore.turnTricks(score, TeamId.TEAM_2) == Jass.TRICKS_PER_TURN;
+        return 2 * PackedScore.turnPoints(score, TeamId.TEAM_1) + (match2 ? 0 : 1);
+    }
+
+    private static long hand(Card... cards) {
+        long hand = PackedCardSet.EMPTY;
+        for (Card c : cards) {
+            hand = PackedCardSet.add(hand, c.packed());
+        }
+        return hand;
+    }
+
+    private static int trick8(PlayerId first) {
+        int trick = PackedTrick.firstEmpty(Color.SPADE, first);
+        for (int i = 0; i < Jass.TRICKS_PER_TURN - 2; ++i) {
+            trick = PackedTrick.nextEmpty(trick, first);
+        }
+        return trick;
+    }
+
+    // The first player leads the ace of trumps or a six of heart : the hearts
+    // give a trick without points to the next player, and the ace then wins all
+    // the points with the last trick
+    private static long[] blockingHands(PlayerId first) {
+        long[] hands = new long[PlayerId.COUNT];
+        hands[first.ordinal()] = hand(Card.of(Color.SPADE, Rank.ACE), Card.of(Color.HEART, Rank.SIX));
+        hands[(first.ordinal() + 1) % PlayerId.COUNT] = hand(Card.of(Color.HEART, Rank.NINE),
+                Card.of(Color.DIAMOND, Rank.NINE));
+        hands[(first.ordinal() + 2) % PlayerId.COUNT] = hand(Card.of(Color.HEART, Rank.SEVEN),
+                Card.of(Color.DIAMOND, Rank.SEVEN));
+        hands[(first.ordinal() + 3) % PlayerId.COUNT] = hand(Card.of(Color.HEART, Rank.EIGHT),
+                Card.of(Color.DIAMOND, Rank.EIGHT));
+        return hands;
+    }
+
+    @Test
+    void constructorFailsWithInvalidNumberOfTricks() {
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(0));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(EndgameSolver.MAX_TRICKS + 1));
+    }
+
+    @Test
+    void coversOnlyFirstOfLastTricks() {
+        SplittableRandom rng = newRandom();
+        for (int tricks = 1; tricks <= EndgameSolver.MAX_TRICKS; ++tricks) {
+            EndgameSolver endgame = new EndgameSolver(tricks);
+            for (int played = 0; played <= Jass.TRICKS_PER_TURN * PlayerId.COUNT; ++played) {
+                Position position = randomPosition(rng, played);
+                assertEquals(played == (Jass.TRICKS_PER_TURN - tricks) * PlayerId.COUNT,
+                        endgame.covers(position.packedTrick()));
+            }
+        }
+        assertFalse(new EndgameSolver(1).covers(PackedTrick.INVALID));
+    }
+
+    @Test
+    void finalScoreGivesSolvedPointsOfDealtHands() {
+        SplittableRandom rng = newRandom();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        for (int tricks = 1; tricks <= EndgameSolver.MAX_TRICKS; ++tricks) {
+            EndgameSolver endgame = new EndgameSolver(tricks);
+            for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+                Position position = randomPosition(rng, (Jass.TRICKS_PER_TURN - tricks) * PlayerId.COUNT);
+                PlayerId ownId = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+                long ownHand = position.packedHand(ownId);
+                long others = PackedCardSet.difference(position.packedUnplayedCards(), ownHand);
+                long seed = rng.nextLong();
+
+                long score = endgame.finalScore(position.packedScore(), position.packedTrick(), ownId, ownHand, others,
+                        new SplittableRandom(seed));
+                long[] hands = deal(position, ownId, tricks, new SplittableRandom(seed));
+                int expected = solver.solve(Position.of(position.packedScore(), position.packedUnplayedCards(),
+                        position.packedTrick(), hands));
+                assertEquals(expected, PackedScore.turnPoints(score, TeamId.TEAM_1));
+
+                int tricks1 = PackedScore.turnTricks(score, TeamId.TEAM_1);
+                int tricks2 = PackedScore.turnTricks(score, TeamId.TEAM_2);
+                assertEquals(Jass.TRICKS_PER_TURN, tricks1 + tricks2);
+                boolean match = tricks1 == Jass.TRICKS_PER_TURN || tricks2 == Jass.TRICKS_PER_TURN;
+                assertEquals(157 + (match ? Jass.MATCH_ADDITIONAL_POINTS : 0),
+                        PackedScore.turnPoints(score, TeamId.TEAM_1) + PackedScore.turnPoints(score, TeamId.TEAM_2));
+                assertTrue(PackedScore.isValid(score));
+            }
+        }
+    }
+
+    @Test
+    void trickWithoutPointsOfSecondTeamPreventsMatchOfFirstTeam() {
+        long score = PackedScore.pack(Jass.TRICKS_PER_TURN - 2, 141, 0, 0, 0, 0);
+        long finalScore = new EndgameSolver(2).finalScore(score, trick8(PlayerId.PLAYER_1),
+                blockingHands(PlayerId.PLAYER_1));
+        assertEquals(PackedScore.pack(Jass.TRICKS_PER_TURN - 1, 157, 0, 1, 0, 0), finalScore);
+    }
+
+    @Test
+    void trickWithoutPointsOfFirstTeamPreventsMatchOfSecondTeam() {
+        long score = PackedScore.pack(0, 0, 0, Jass.TRICKS_PER_TURN - 2, 141, 0);
+        long finalScore = new EndgameSolver(2).finalScore(score, trick8(PlayerId.PLAYER_2),
+                blockingHands(PlayerId.PLAYER_2));
+        assertEquals(PackedScore.pack(1, 0, 0, Jass.TRICKS_PER_TURN - 1, 157, 0), finalScore);
+    }
+
+    @Test
+    void finalScoreIsSameAsReferenceWhenOneTeamHasAllTricks() {
+        SplittableRandom rng = newRandom();
+        for (int tricks = 1; tricks <= EndgameSolver.MAX_TRICKS; ++tricks) {
+            EndgameSolver endgame = new EndgameSolver(tricks);
+            for (int i = 0; i < RANDOM_ITERATIONS / 10; ++i) {
+                Position position = randomPosition(rng, (Jass.TRICKS_PER_TURN - tricks) * PlayerId.COUNT);
+                int points = PackedScore.turnPoints(position.packedScore(), TeamId.TEAM_1)
+                        + PackedScore.turnPoints(position.packedScore(), TeamId.TEAM_2);
+                long score = i % 2 == 0 ? PackedScore.pack(Jass.TRICKS_PER_TURN - tricks, points, 0, 0, 0, 0)
+                        : PackedScore.pack(0, 0, 0, Jass.TRICKS_PER_TURN - tricks, points, 0);
+                long[] hands = new long[PlayerId.COUNT];
+                for (PlayerId p : PlayerId.ALL) {
+                    hands[p.ordinal()] = position.packedHand(p);
+                }
+
+                long expected = referenceScore(score, position.packedTrick(), hands);
+                long actual = endgame.finalScore(score, position.packedTrick(), hands);
+                for (TeamId t : TeamId.ALL) {
+                    assertEquals(PackedScore.turnPoints(expected, t), PackedScore.turnPoints(actual, t));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class HandIndexTest {
+    private static long nextHand(SplittableRandom rng, int size) {
+        long all = PackedCardSet.ALL_CARDS;
+        long hand = PackedCardSet.EMPTY;
+        for (int i = 0; i < size; ++i) {
+            int c = PackedCardSet.get(all, rng.nextInt(PackedCardSet.size(all)));
+            all = PackedCardSet.remove(all, c);
+            hand = PackedCardSet.add(hand, c);
+        }
+        return hand;
+    }
+
+    @Test
+    void countIsBinomial() {
+        assertEquals(1, HandIndex.count(0));
+        assertEquals(36, HandIndex.count(1));
+        assertEquals(94_143_280L, HandIndex.count(9));
+        assertEquals(1, HandIndex.count(36));
+        assertThrows(IllegalArgumentException.class, () -> HandIndex.count(37));
+        assertThrows(IllegalArgumentException.class, () -> HandIndex.count(-1));
+    }
+
+    @Test
+    void rankIsABijectionForPairs() {
+        boolean[] seen = new boolean[(int) HandIndex.count(2)];
+        long all = PackedCardSet.ALL_CARDS;
+        for (int i = 0; i < 36; ++i) {
+            for (int j = i + 1; j < 36; ++j) {
+                long hand = PackedCardSet.add(PackedCardSet.singleton(PackedCardSet.get(all, i)),
+                        PackedCardSet.get(all, j));
+                int r = (int) HandIndex.rank(hand);
+                assertFalse(seen[r]);
+                seen[r] = true;
+                assertEquals(hand, HandIndex.unrank(r, 2));
+            }
+        }
+    }
+
+    @Test
+    void unrankInvertsRank() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            int size = rng.nextInt(37);
+            long hand = nextHand(rng, size);
+            long r = HandIndex.rank(hand);
+            assertEquals(hand, HandIndex.unrank(r, size));
+            long r2 = rng.nextLong(HandIndex.count(size));
+            assertEquals(r2, HandIndex.rank(HandIndex.unrank(r2, size)));
+        }
+    }
+
+    @Test
+    void unrankFailsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> HandIndex.unrank(HandIndex.count(9), 9));
+        assertThrows(IllegalArgumentException.class, () -> HandIndex.unrank(-1, 9));
+    }
+
+    @Test
+    void rankInSupersetIsABijection() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long superset = nextHand(rng, 4 + rng.nextInt(8));
+            int size = rng.nextInt(4);
+            boolean[] seen = new boolean[(int) HandIndex.count(size, superset)];
+            for (int r = 0; r < seen.length; ++r) {
+                long hand = HandIndex.unrank(r, size, superset);
+                assertEquals(size, PackedCardSet.size(hand));
+                assertEquals(PackedCardSet.EMPTY, PackedCardSet.difference(hand, superset));
+                int r2 = (int) HandIndex.rank(hand, superset);
+                assertFalse(seen[r2]);
+                seen[r2] = true;
+                assertEquals(r, r2);
+            }
+        }
+    }
+
+    @Test
+    void rankInAllCardsIsRank() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = nextHand(rng, rng.nextInt(10));
+            assertEquals(HandIndex.rank(hand), HandIndex.rank(hand, PackedCardSet.ALL_CARDS));
+        }
+        assertThrows(IllegalArgumentException.class, () -> HandIndex.count(3, nextHand(newRandom(), 2)));
+    }
+
+    @Test
+    void permutedHandsHaveSameCanonicalRank() {
+        SplittableRandom rng = newRandom();
+        List<Color> images = new ArrayList<>(Color.ALL);
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = nextHand(rng, 9);
+            Collections.shuffle(images, new Random(rng.nextLong()));
+            int p = 0;
+            for (Color c : Color.ALL) {
+                p |= images.get(c.ordinal()).ordinal() << (2 * c.ordinal());
+            }
+            long permuted = PackedColorPermutation.permuteCardSet(p, hand);
+            assertEquals(HandIndex.canonicalRank(hand), HandIndex.canonicalRank(permuted));
+        }
+    }
+
+    @Test
+    void handsPermutedAroundTrumpHaveSameCanonicalRank() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long hand = nextHand(rng, 9);
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            List<Color> others = new ArrayList<>(Color.ALL);
+            others.remove(trump);
+            List<Color> shuffled = new ArrayList<>(others);
+            Collections.shuffle(shuffled, new Random(rng.nextLong()));
+            int p = trump.ordinal() << (2 * trump.ordinal());
+            for (int j = 0; j < others.size(); ++j) {
+                p |= shuffled.get(j).ordinal() << (2 * others.get(j).ordinal());
+            }
+            long permuted = PackedColorPermutation.permuteCardSet(p, hand);
+            assertEquals(HandIndex.canonicalRank(hand, trump), HandIndex.canonicalRank(permuted, trump));
+            assertEquals(trump, PackedColorPermutation.color(HandIndex.canonicalPermutation(hand, trump), trump));
+        }
+    }
+}
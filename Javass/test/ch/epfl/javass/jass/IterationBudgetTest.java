@@ -0,0 +1,99 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class IterationBudgetTest {
+    private static final int TURN_ITERATIONS = 90_000;
+
+    private static long randomSet(SplittableRandom rng, int size) {
+        long set = PackedCardSet.EMPTY;
+        while (PackedCardSet.size(set) < size) {
+            set = PackedCardSet.add(set, PackedCardSet.get(PackedCardSet.ALL_CARDS, rng.nextInt(36)));
+        }
+        return set;
+    }
+
+    @Test
+    void constructorFailsWithTooFewIterations() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new IterationBudget(80);
+        });
+    }
+
+    @Test
+    void forcedCardsReceiveNoIterations() {
+        IterationBudget b = new IterationBudget(TURN_ITERATIONS);
+        for (int i = 0; i < Jass.TRICKS_PER_TURN; ++i) {
+            assertEquals(0, b.allot(i, PackedCardSet.singleton(0)));
+            assertEquals(TURN_ITERATIONS, b.remaining());
+        }
+    }
+
+    @Test
+    void allottedIterationsAtLeastCoverThePlayableCards() {
+        SplittableRandom rng = newRandom();
+        IterationBudget b = new IterationBudget(Jass.TRICKS_PER_TURN * Jass.HAND_SIZE);
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            int trick = i % Jass.TRICKS_PER_TURN;
+            int size = 2 + rng.nextInt(Jass.TRICKS_PER_TURN - 1);
+            assertTrue(b.allot(trick, randomSet(rng, size)) >= size);
+        }
+    }
+
+    @Test
+    void turnTotalDoesNotExceedAllowance() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            IterationBudget b = new IterationBudget(TURN_ITERATIONS);
+            int total = 0;
+            for (int trick = 0; trick < Jass.TRICKS_PER_TURN; ++trick) {
+                int handSize = Jass.TRICKS_PER_TURN - trick;
+                total += b.allot(trick, randomSet(rng, 1 + rng.nextInt(handSize)));
+            }
+            assertTrue(total <= TURN_ITERATIONS);
+        }
+    }
+
+    @Test
+    void unusedIterationsAreCarriedForward() {
+        IterationBudget b = new IterationBudget(TURN_ITERATIONS);
+        long hand = randomSet(newRandom(), Jass.HAND_SIZE);
+        int first = b.allot(0, hand);
+        b.refund(first);
+        assertEquals(TURN_ITERATIONS, b.remaining());
+        IterationBudget c = new IterationBudget(TURN_ITERATIONS);
+        c.allot(0, hand);
+        assertTrue(b.allot(1, PackedCardSet.remove(hand, PackedCardSet.get(hand, 0))) > c
+                .allot(1, PackedCardSet.remove(hand, PackedCardSet.get(hand, 0))));
+    }
+
+    @Test
+    void newTurnRestoresAllowance() {
+        IterationBudget b = new IterationBudget(TURN_ITERATIONS);
+        long hand = randomSet(newRandom(), Jass.HAND_SIZE);
+        for (int trick = 0; trick < 5; ++trick) {
+            b.allot(trick, hand);
+        }
+        b.allot(0, hand);
+        IterationBudget c = new IterationBudget(TURN_ITERATIONS);
+        c.allot(0, hand);
+        assertEquals(c.remaining(), b.remaining());
+    }
+
+    @Test
+    void searchIsDecidedOnlyAtChecksAfterHalfOfItsIterations() {
+        assertTrue(IterationBudget.isDecided(960, 1_024, 2_000));
+        assertFalse(IterationBudget.isDecided(960, 1_000, 2_000));
+        assertFalse(IterationBudget.isDecided(512, 1_024, 2_000));
+        assertFalse(IterationBudget.isDecided(960, 1_024, 4_000));
+    }
+}
@@ -0,0 +1,78 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class MctsOptionsTest {
+
+    @Test
+    void ofIterationsFailsWithTooFewIterations() {
+        for (int i = -10; i < Jass.HAND_SIZE; ++i) {
+            int iterations = i;
+            assertThrows(IllegalArgumentException.class, () -> MctsOptions.ofIterations(iterations));
+        }
+    }
+
+    @Test
+    void ofBudgetFailsWithoutBudget() {
+        assertThrows(IllegalArgumentException.class, () -> MctsOptions.ofBudget(null));
+    }
+
+    @Test
+    void withEndgameTricksFailsWithInvalidNumberOfTricks() {
+        MctsOptions o = MctsOptions.ofIterations(100);
+        assertThrows(IllegalArgumentException.class, () -> o.withEndgameTricks(-1));
+        assertThrows(IllegalArgumentException.class, () -> o.withEndgameTricks(EndgameSolver.MAX_TRICKS + 1));
+    }
+
+    @Test
+    void optionsCombineWithoutChangingOthers() {
+        IterationBudget budget = new IterationBudget(9_000);
+        DecisionCache cache = new DecisionCache(10);
+        MctsOptions o = MctsOptions.ofBudget(budget).withEndgameTricks(2).withCache(cache);
+        assertEquals(0, o.iterations());
+        assertSame(budget, o.budget());
+        assertSame(cache, o.cache());
+        assertNotNull(o.newEndgameSolver());
+        assertNull(o.withEndgameTricks(0).newEndgameSolver());
+        assertSame(cache, o.withEndgameTricks(0).cache());
+
+        MctsOptions i = MctsOptions.ofIterations(100);
+        assertEquals(100, i.iterations());
+        assertNull(i.budget());
+        assertNull(i.cache());
+        assertNull(i.newEndgameSolver());
+    }
+
+    @Test
+    void playerWithBudgetCacheAndEndgamePlaysAndStoresPlayableCard() {
+        TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.HEART, Rank.TEN));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.HEART, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.ACE))
+                .add(Card.of(Color.SPADE, Rank.JACK))
+                .add(Card.of(Color.SPADE, Rank.SIX))
+                .add(Card.of(Color.DIAMOND, Rank.KING))
+                .add(Card.of(Color.DIAMOND, Rank.SEVEN))
+                .add(Card.of(Color.CLUB, Rank.QUEEN))
+                .add(Card.of(Color.CLUB, Rank.NINE))
+                .add(Card.of(Color.CLUB, Rank.EIGHT));
+        DecisionCache cache = new DecisionCache(10);
+        MctsOptions options = MctsOptions.ofBudget(new IterationBudget(9 * 2_000)).withCache(cache)
+                .withEndgameTricks(EndgameSolver.MAX_TRICKS);
+
+        Card card = new MctsPlayer(PlayerId.PLAYER_2, 0, options).cardToPlay(state, hand);
+        assertTrue(state.trick().playableCards(hand).contains(card));
+        assertEquals(card.packed(), cache.get(state, hand.packed()).packedCard());
+    }
+}
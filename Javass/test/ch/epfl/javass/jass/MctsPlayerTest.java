@@ -26,6 +26,16 @@ public class MctsPlayerTest {
         }
     }
 
+    @Test
+    void constructorFailsWithoutBudget() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MctsPlayer(PlayerId.PLAYER_1, 0, MctsOptions.ofBudget(null));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new MctsPlayer(PlayerId.PLAYER_1, 0, (MctsOptions) null);
+        });
+    }
+
     @Test
     void MctsPlayerPlaysCorrectly1() {
         // Opponent team will win this trick, we have to minimize loss
@@ -398,4 +408,51 @@ public class MctsPlayerTest {
             s = s.withNewCardPlayedAndTrickCollected(cards.get(i));
         return s;
     }
+
+    @Test
+    void MctsPlayerWithBudgetPlaysCorrectly() {
+        // Opponent team will win this trick, we have to minimize loss
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_2, SEED, MctsOptions.ofBudget(new IterationBudget(9 * ITERATIONS)));
+        TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.JACK));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.SPADE, Rank.EIGHT))
+                .add(Card.of(Color.SPADE, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.SEVEN))
+                .add(Card.of(Color.HEART, Rank.EIGHT))
+                .add(Card.of(Color.HEART, Rank.NINE))
+                .add(Card.of(Color.HEART, Rank.TEN))
+                .add(Card.of(Color.HEART, Rank.JACK));
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Card c = p.cardToPlay(state, hand);
+            assertEquals(Card.of(Color.SPADE, Rank.EIGHT), c);
+        });
+    }
+
+    @Test
+    void MctsPlayerChoosesLongestColorAsTrump() {
+        CardSet hand = CardSet.EMPTY;
+        for (Rank r : Rank.ALL) {
+            if (r.ordinal() < 5)
+                hand = hand.add(Card.of(Color.DIAMOND, r));
+        }
+        hand = hand.add(Card.of(Color.SPADE, Rank.ACE)).add(Card.of(Color.SPADE, Rank.KING))
+                .add(Card.of(Color.CLUB, Rank.ACE)).add(Card.of(Color.HEART, Rank.SIX));
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_1, 0, 100);
+        assertEquals(Color.DIAMOND, p.chooseTrump(PlayerId.PLAYER_1, hand, true));
+    }
+
+    @Test
+    void MctsPlayerPassesWithBalancedHand() {
+        CardSet hand = CardSet.EMPTY;
+        for (Rank r : Rank.ALL) {
+            Color c = Color.ALL.get(r.ordinal() % 3);
+            hand = hand.add(Card.of(c, r));
+        }
+        MctsPlayer p = new MctsPlayer(PlayerId.PLAYER_1, 0, 100);
+        assertEquals(null, p.chooseTrump(PlayerId.PLAYER_1, hand, true));
+        assertEquals(Color.SPADE, p.chooseTrump(PlayerId.PLAYER_1, hand, false));
+    }
 }
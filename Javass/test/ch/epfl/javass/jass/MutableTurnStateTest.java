@@ -0,0 +1,115 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class MutableTurnStateTest {
+    private static TurnState randomInitialState(SplittableRandom rng) {
+        Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+        PlayerId first = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+        return TurnState.initial(trump, Score.INITIAL, first);
+    }
+
+    private static void assertSameState(TurnState expected, MutableTurnState actual) {
+        assertEquals(expected.packedScore(), actual.packedScore());
+        assertEquals(expected.packedUnplayedCards(), actual.packedUnplayedCards());
+        assertEquals(expected.packedTrick(), actual.packedTrick());
+        assertEquals(expected.isTerminal(), actual.isTerminal());
+    }
+
+    @Test
+    void playMatchesTurnStateDuringWholeTurns() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState state = randomInitialState(rng);
+            MutableTurnState mutable = new MutableTurnState(state);
+            while (!state.isTerminal()) {
+                assertEquals(state.nextPlayer(), mutable.nextPlayer());
+                long unplayed = state.packedUnplayedCards();
+                assertEquals(PackedTrick.playableCards(state.packedTrick(), unplayed), mutable.playableCards(unplayed));
+
+                int pkCard = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+                state = state.withNewCardPlayedAndTrickCollected(Card.ofPacked(pkCard));
+                mutable.play(pkCard);
+                assertSameState(state, mutable);
+            }
+            assertEquals(Jass.TRICKS_PER_TURN * PlayerId.COUNT, mutable.depth());
+        }
+    }
+
+    @Test
+    void undoGoesBackThroughAllPreviousStates() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState state = randomInitialState(rng);
+            MutableTurnState mutable = new MutableTurnState(state);
+            List<TurnState> states = new ArrayList<>();
+            while (!state.isTerminal()) {
+                states.add(state);
+                long unplayed = state.packedUnplayedCards();
+                int pkCard = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+                state = state.withNewCardPlayedAndTrickCollected(Card.ofPacked(pkCard));
+                mutable.play(pkCard);
+            }
+            for (int k = states.size() - 1; k >= 0; --k) {
+                mutable.undo();
+                assertEquals(k, mutable.depth());
+                assertSameState(states.get(k), mutable);
+            }
+        }
+    }
+
+    @Test
+    void toTurnStateAndSetRoundTrip() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState state = randomInitialState(rng);
+            int plays = rng.nextInt(Jass.TRICKS_PER_TURN * PlayerId.COUNT + 1);
+            for (int k = 0; k < plays; ++k) {
+                long unplayed = state.packedUnplayedCards();
+                state = state.withNewCardPlayedAndTrickCollected(
+                        Card.ofPacked(PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)))));
+            }
+            MutableTurnState mutable = new MutableTurnState(randomInitialState(rng));
+            mutable.set(state);
+            assertEquals(0, mutable.depth());
+            TurnState back = mutable.toTurnState();
+            assertEquals(state.packedScore(), back.packedScore());
+            assertEquals(state.packedUnplayedCards(), back.packedUnplayedCards());
+            assertEquals(state.packedTrick(), back.packedTrick());
+        }
+    }
+
+    @Test
+    void undoFailsWithoutPreviousState() {
+        MutableTurnState mutable = new MutableTurnState(randomInitialState(newRandom()));
+        assertThrows(IllegalStateException.class, () -> {
+            mutable.undo();
+        });
+    }
+
+    @Test
+    void playFailsOnTerminalState() {
+        SplittableRandom rng = newRandom();
+        MutableTurnState mutable = new MutableTurnState(randomInitialState(rng));
+        while (!mutable.isTerminal()) {
+            long unplayed = mutable.packedUnplayedCards();
+            mutable.play(PackedCardSet.get(mutable.playableCards(unplayed), 0));
+        }
+        assertTrue(mutable.isTerminal());
+        assertThrows(IllegalStateException.class, () -> {
+            mutable.play(PackedCard.pack(Color.SPADE, Card.Rank.SIX));
+        });
+    }
+}
@@ -222,6 +222,33 @@ public class PackedCardSetTest {
         }
     }
 
+    @Test
+    void getWorksOnRandomSets() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            long rest = s;
+            for (int j = 0; j < Long.bitCount(s); ++j) {
+                assertEquals(Long.numberOfTrailingZeros(rest), PackedCardSet.get(s, j));
+                rest &= rest - 1;
+            }
+        }
+    }
+
+    @Test
+    void lowestCardIterationVisitsAllCardsInOrder() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            int j = 0;
+            for (long rest = s; rest != EMPTY_SET; rest = PackedCardSet.withoutLowestCard(rest)) {
+                assertEquals(PackedCardSet.get(s, j++), PackedCardSet.lowestCard(rest));
+            }
+            assertEquals(PackedCardSet.size(s), j);
+        }
+        assertEquals(EMPTY_SET, PackedCardSet.withoutLowestCard(EMPTY_SET));
+    }
+
     @Test
     void addCanBuildFullSet() {
         long s = PackedCardSet.EMPTY;
@@ -492,4 +519,61 @@ public class PackedCardSetTest {
             assertEquals(expectedS, PackedCardSet.subsetOfColor(s, c));
         }
     }
+
+    @Test
+    void colorSizesMatchesSubsetsOfColor() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            int sizes = PackedCardSet.colorSizes(s);
+            for (Color c : Color.ALL) {
+                assertEquals(PackedCardSet.size(PackedCardSet.subsetOfColor(s, c)), PackedCardSet.colorSize(sizes, c));
+            }
+        }
+        assertEquals(0x9999, PackedCardSet.colorSizes(FULL_SET));
+        assertEquals(0, PackedCardSet.colorSizes(EMPTY_SET));
+    }
+
+    @Test
+    void voidColorsMatchesSubsetsOfColor() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng) & nextSet(rng) & nextSet(rng);
+            int voids = PackedCardSet.voidColors(s);
+            for (Color c : Color.ALL) {
+                boolean isVoid = PackedCardSet.isEmpty(PackedCardSet.subsetOfColor(s, c));
+                assertEquals(isVoid, (voids & (1 << c.ordinal())) != 0);
+            }
+        }
+        assertEquals(0b1111, PackedCardSet.voidColors(EMPTY_SET));
+        assertEquals(0, PackedCardSet.voidColors(FULL_SET));
+    }
+
+    @Test
+    void highestOfEachColorMatchesSubsetsOfColor() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng) & nextSet(rng);
+            long expected = EMPTY_SET;
+            for (Color c : Color.ALL) {
+                long sub = PackedCardSet.subsetOfColor(s, c);
+                if (!PackedCardSet.isEmpty(sub))
+                    expected = PackedCardSet.add(expected, PackedCardSet.get(sub, PackedCardSet.size(sub) - 1));
+            }
+            assertEquals(expected, PackedCardSet.highestOfEachColor(s));
+        }
+    }
+
+    @Test
+    void expandInvertsCompact() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long s = nextSet(rng);
+            long c = PackedCardSet.compact(s);
+            assertEquals(0, c >>> 36);
+            assertEquals(Long.bitCount(s), Long.bitCount(c));
+            assertEquals(s, PackedCardSet.expand(c));
+        }
+        assertEquals((1L << 36) - 1, PackedCardSet.compact(FULL_SET));
+    }
 }
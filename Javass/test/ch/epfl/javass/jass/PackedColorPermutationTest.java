@@ -0,0 +1,139 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PackedColorPermutationTest {
+    private static int permutation(List<Color> images) {
+        int p = 0;
+        for (Color c : Color.ALL) {
+            p |= images.get(c.ordinal()).ordinal() << (2 * c.ordinal());
+        }
+        return p;
+    }
+
+    private static int randomTrick(SplittableRandom rng, long[] unplayed) {
+        Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+        int t = PackedTrick.firstEmpty(trump, PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT)));
+        int size = rng.nextInt(PlayerId.COUNT);
+        for (int i = 0; i < size; ++i) {
+            int c = PackedCardSet.get(unplayed[0], rng.nextInt(PackedCardSet.size(unplayed[0])));
+            unplayed[0] = PackedCardSet.remove(unplayed[0], c);
+            t = PackedTrick.withAddedCard(t, c);
+        }
+        return t;
+    }
+
+    private static long randomSubset(SplittableRandom rng, long set) {
+        long s = PackedCardSet.EMPTY;
+        for (int i = 0; i < PackedCardSet.size(set); ++i) {
+            if (rng.nextBoolean()) {
+                s = PackedCardSet.add(s, PackedCardSet.get(set, i));
+            }
+        }
+        return s;
+    }
+
+    @Test
+    void identityIsValidAndItsOwnInverse() {
+        assertTrue(PackedColorPermutation.isValid(PackedColorPermutation.IDENTITY));
+        assertEquals(PackedColorPermutation.IDENTITY, PackedColorPermutation.inverse(PackedColorPermutation.IDENTITY));
+        for (Color c : Color.ALL) {
+            assertEquals(c, PackedColorPermutation.color(PackedColorPermutation.IDENTITY, c));
+        }
+    }
+
+    @Test
+    void isValidRejectsNonBijections() {
+        assertFalse(PackedColorPermutation.isValid(0));
+        assertFalse(PackedColorPermutation.isValid(0b11_10_00_00));
+        assertFalse(PackedColorPermutation.isValid(PackedColorPermutation.IDENTITY | 1 << 8));
+    }
+
+    @Test
+    void inverseUndoesPermutation() {
+        SplittableRandom rng = newRandom();
+        List<Color> images = new ArrayList<>(Color.ALL);
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Collections.shuffle(images, new java.util.Random(rng.nextLong()));
+            int p = permutation(images);
+            int inv = PackedColorPermutation.inverse(p);
+            for (int pkCard = 0; pkCard < 64; ++pkCard) {
+                if (PackedCard.isValid(pkCard)) {
+                    assertEquals(pkCard,
+                            PackedColorPermutation.permuteCard(inv, PackedColorPermutation.permuteCard(p, pkCard)));
+                }
+            }
+            long s = randomSubset(rng, PackedCardSet.ALL_CARDS);
+            assertEquals(s, PackedColorPermutation.permuteCardSet(inv, PackedColorPermutation.permuteCardSet(p, s)));
+            assertEquals(PackedCardSet.size(s), PackedCardSet.size(PackedColorPermutation.permuteCardSet(p, s)));
+        }
+    }
+
+    @Test
+    void canonicalFixesTrumpAndBaseColor() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long[] unplayed = { PackedCardSet.ALL_CARDS };
+            int t = randomTrick(rng, unplayed);
+            long hand = randomSubset(rng, unplayed[0]);
+            int p = PackedColorPermutation.canonical(t, unplayed[0], hand);
+            assertTrue(PackedColorPermutation.isValid(p));
+            assertEquals(PackedTrick.trump(t), PackedColorPermutation.color(p, PackedTrick.trump(t)));
+            if (!PackedTrick.isEmpty(t)) {
+                assertEquals(PackedTrick.baseColor(t), PackedColorPermutation.color(p, PackedTrick.baseColor(t)));
+            }
+        }
+    }
+
+    @Test
+    void equivalentPositionsHaveSameCanonicalPosition() {
+        SplittableRandom rng = newRandom();
+        List<Color> images = new ArrayList<>(Color.ALL);
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long[] unplayed = { PackedCardSet.ALL_CARDS };
+            int t = randomTrick(rng, unplayed);
+            long hand = randomSubset(rng, unplayed[0]);
+
+            // Random permutation of the colors other than trump and base color
+            Color trump = PackedTrick.trump(t);
+            Color base = PackedTrick.isEmpty(t) ? trump : PackedTrick.baseColor(t);
+            List<Color> free = new ArrayList<>();
+            for (Color c : Color.ALL) {
+                if (c != trump && c != base) {
+                    free.add(c);
+                }
+            }
+            List<Color> shuffled = new ArrayList<>(free);
+            Collections.shuffle(shuffled, new java.util.Random(rng.nextLong()));
+            images.clear();
+            for (Color c : Color.ALL) {
+                images.add(free.contains(c) ? shuffled.get(free.indexOf(c)) : c);
+            }
+            int q = permutation(images);
+
+            int t2 = PackedColorPermutation.permuteTrick(q, t);
+            long unplayed2 = PackedColorPermutation.permuteCardSet(q, unplayed[0]);
+            long hand2 = PackedColorPermutation.permuteCardSet(q, hand);
+
+            int p1 = PackedColorPermutation.canonical(t, unplayed[0], hand);
+            int p2 = PackedColorPermutation.canonical(t2, unplayed2, hand2);
+            assertEquals(PackedColorPermutation.permuteTrick(p1, t), PackedColorPermutation.permuteTrick(p2, t2));
+            assertEquals(PackedColorPermutation.permuteCardSet(p1, unplayed[0]),
+                    PackedColorPermutation.permuteCardSet(p2, unplayed2));
+            assertEquals(PackedColorPermutation.permuteCardSet(p1, hand), PackedColorPermutation.permuteCardSet(p2, hand2));
+        }
+    }
+}
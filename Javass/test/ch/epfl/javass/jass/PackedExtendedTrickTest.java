@@ -0,0 +1,77 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PackedExtendedTrickTest {
+    private static long nextHand(SplittableRandom rng, long unplayed, int size) {
+        long hand = PackedCardSet.EMPTY;
+        for (int i = 0; i < size && unplayed != PackedCardSet.EMPTY; ++i) {
+            int c = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+            unplayed = PackedCardSet.remove(unplayed, c);
+            hand = PackedCardSet.add(hand, c);
+        }
+        return hand;
+    }
+
+    @Test
+    void invalidIsNotValid() {
+        assertFalse(PackedExtendedTrick.isValid(PackedExtendedTrick.INVALID));
+    }
+
+    @Test
+    void firstEmptyIsEmptyAndMatchesPackedTrick() {
+        for (Color trump : Color.ALL) {
+            for (PlayerId p : PlayerId.ALL) {
+                long t = PackedExtendedTrick.firstEmpty(trump, p);
+                assertTrue(PackedExtendedTrick.isValid(t));
+                assertTrue(PackedExtendedTrick.isEmpty(t));
+                assertEquals(PackedTrick.firstEmpty(trump, p), PackedExtendedTrick.trick(t));
+                assertEquals(0, PackedExtendedTrick.points(t));
+            }
+        }
+    }
+
+    @Test
+    void extendedTrickMatchesPackedTrickDuringWholeTurns() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            PlayerId first = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            int t = PackedTrick.firstEmpty(trump, first);
+            long e = PackedExtendedTrick.firstEmpty(trump, first);
+            long unplayed = PackedCardSet.ALL_CARDS;
+
+            while (t != PackedTrick.INVALID) {
+                for (int k = 0; k < PlayerId.COUNT; ++k) {
+                    long hand = nextHand(rng, unplayed, 9 - PackedTrick.index(t));
+                    assertEquals(PackedTrick.playableCards(t, hand), PackedExtendedTrick.playableCards(e, hand));
+
+                    int c = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+                    unplayed = PackedCardSet.remove(unplayed, c);
+                    t = PackedTrick.withAddedCard(t, c);
+                    e = PackedExtendedTrick.withAddedCard(e, c);
+
+                    assertEquals(t, PackedExtendedTrick.trick(e));
+                    assertEquals(e, PackedExtendedTrick.ofTrick(t));
+                    assertEquals(PackedTrick.size(t), PackedExtendedTrick.size(e));
+                    assertEquals(PackedTrick.points(t), PackedExtendedTrick.points(e));
+                    assertEquals(PackedTrick.winningPlayer(t), PackedExtendedTrick.winningPlayer(e));
+                }
+                assertTrue(PackedExtendedTrick.isFull(e));
+                t = PackedTrick.nextEmpty(t);
+                e = PackedExtendedTrick.nextEmpty(e);
+                assertEquals(t == PackedTrick.INVALID ? PackedExtendedTrick.INVALID : PackedExtendedTrick.ofTrick(t), e);
+            }
+        }
+    }
+}
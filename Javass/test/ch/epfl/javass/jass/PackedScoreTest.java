@@ -4,6 +4,7 @@ import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
 import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.SplittableRandom;
@@ -39,6 +40,16 @@ public class PackedScoreTest {
         assertFalse(PackedScore.isValid(2001L << (32 + 13)));
     }
 
+    @Test
+    void packFailsWithValuesNotFittingTheirFields() {
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(16, 0, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(0, 512, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(0, 0, 2048, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(0, 0, 0, -1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(0, 0, 0, 0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedScore.pack(0, 0, 0, 0, 0, 1 << 11));
+    }
+
     @Test
     void packedScoresCanBeUnpacked() {
         SplittableRandom rng = newRandom();
@@ -154,4 +165,46 @@ public class PackedScoreTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    private static long referenceWithAdditionalTrick(long pkScore, TeamId winningTeam, int trickPoints) {
+        int[] tricks = new int[TeamId.COUNT], turn = new int[TeamId.COUNT], game = new int[TeamId.COUNT];
+        for (TeamId t : TeamId.ALL) {
+            tricks[t.ordinal()] = PackedScore.turnTricks(pkScore, t);
+            turn[t.ordinal()] = PackedScore.turnPoints(pkScore, t);
+            game[t.ordinal()] = PackedScore.gamePoints(pkScore, t);
+        }
+        int w = winningTeam.ordinal();
+        tricks[w] += 1;
+        turn[w] += trickPoints + (tricks[w] == Jass.TRICKS_PER_TURN ? Jass.MATCH_ADDITIONAL_POINTS : 0);
+        return PackedScore.pack(tricks[0], turn[0], game[0], tricks[1], turn[1], game[1]);
+    }
+
+    private static long referenceNextTurn(long pkScore) {
+        return PackedScore.pack(0, 0,
+                PackedScore.gamePoints(pkScore, TeamId.TEAM_1) + PackedScore.turnPoints(pkScore, TeamId.TEAM_1), 0, 0,
+                PackedScore.gamePoints(pkScore, TeamId.TEAM_2) + PackedScore.turnPoints(pkScore, TeamId.TEAM_2));
+    }
+
+    @Test
+    void updatesAreIdenticalToFieldByFieldUpdates() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long pkScore = PackedScore.pack(0, 0, rng.nextInt(1744), 0, 0, rng.nextInt(1744));
+            int remainingPoints = 157;
+            for (int trick = 0; trick < Jass.TRICKS_PER_TURN; ++trick) {
+                TeamId winningTeam = TeamId.ALL.get(rng.nextInt(TeamId.COUNT));
+                int trickPoints = trick == Jass.TRICKS_PER_TURN - 1 ? remainingPoints
+                        : rng.nextInt(Math.min(remainingPoints, 57) + 1);
+                long expected = referenceWithAdditionalTrick(pkScore, winningTeam, trickPoints);
+                pkScore = PackedScore.withAdditionalTrick(pkScore, winningTeam, trickPoints);
+                assertEquals(expected, pkScore);
+                remainingPoints -= trickPoints;
+                for (TeamId t : TeamId.ALL) {
+                    assertEquals(PackedScore.gamePoints(pkScore, t) + PackedScore.turnPoints(pkScore, t),
+                            PackedScore.totalPoints(pkScore, t));
+                }
+            }
+            assertEquals(referenceNextTurn(pkScore), PackedScore.nextTurn(pkScore));
+        }
+    }
+}
@@ -446,6 +446,92 @@ public class PackedTrickTest {
         assertEquals(pkHand, PackedTrick.playableCards(pkTrick, pkHand));
     }
 
+    // Straightforward implementation of the rules, against which the optimized
+    // one is checked
+    private static long referencePlayableCards(int pkTrick, long pkHand) {
+        if (PackedTrick.isEmpty(pkTrick))
+            return pkHand;
+
+        Color trump = PackedTrick.trump(pkTrick);
+        Color baseColor = PackedTrick.baseColor(pkTrick);
+        long playable = PackedCardSet.subsetOfColor(pkHand, baseColor);
+
+        if (trump == baseColor) {
+            if (playable == PackedCardSet.singleton(c(trump, JACK)) || PackedCardSet.isEmpty(playable))
+                return pkHand;
+            return playable;
+        }
+
+        long trumps = PackedCardSet.subsetOfColor(pkHand, trump);
+        if (PackedCardSet.isEmpty(playable))
+            playable = PackedCardSet.difference(pkHand, trumps);
+
+        int best = PackedTrick.card(pkTrick, 0);
+        for (int i = 1; i < PackedTrick.size(pkTrick); ++i) {
+            if (PackedCard.isBetter(trump, PackedTrick.card(pkTrick, i), best))
+                best = PackedTrick.card(pkTrick, i);
+        }
+        if (PackedCard.color(best) == trump)
+            playable = PackedCardSet.union(playable,
+                    PackedCardSet.intersection(PackedCardSet.trumpAbove(best), trumps));
+        else
+            playable = PackedCardSet.union(playable, trumps);
+
+        return PackedCardSet.isEmpty(playable) ? pkHand : playable;
+    }
+
+    private static void checkAgainstReference(SplittableRandom rng, int pkTrick, long unplayed) {
+        int handSize = 9 - PackedTrick.index(pkTrick);
+        long hand = nextCardSet(rng, 36);
+        hand = PackedCardSet.intersection(hand, unplayed);
+        while (PackedCardSet.size(hand) > handSize)
+            hand = PackedCardSet.remove(hand, PackedCardSet.get(hand, rng.nextInt(PackedCardSet.size(hand))));
+        assertEquals(referencePlayableCards(pkTrick, hand), PackedTrick.playableCards(pkTrick, hand));
+    }
+
+    @Test
+    void playableCardsMatchesReferenceForAllTricks() {
+        SplittableRandom rng = newRandom();
+        long all = PackedCardSet.ALL_CARDS;
+        for (Color trump : Color.ALL) {
+            int empty = PackedTrick.firstEmpty(trump, PLAYER_1);
+            checkAgainstReference(rng, empty, all);
+            for (int i = 0; i < 36; ++i) {
+                int c1 = PackedCardSet.get(all, i);
+                int t1 = PackedTrick.withAddedCard(empty, c1);
+                long u1 = PackedCardSet.remove(all, c1);
+                checkAgainstReference(rng, t1, u1);
+                for (int j = 0; j < 35; ++j) {
+                    int c2 = PackedCardSet.get(u1, j);
+                    int t2 = PackedTrick.withAddedCard(t1, c2);
+                    long u2 = PackedCardSet.remove(u1, c2);
+                    checkAgainstReference(rng, t2, u2);
+                    for (int k = 0; k < 34; ++k) {
+                        int c3 = PackedCardSet.get(u2, k);
+                        checkAgainstReference(rng, PackedTrick.withAddedCard(t2, c3), PackedCardSet.remove(u2, c3));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void playableCardsMatchesReferenceForRandomHands() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            long unplayed = PackedCardSet.ALL_CARDS;
+            int pkTrick = PackedTrick.firstEmpty(nextColor(rng), nextPlayerId(rng));
+            int size = rng.nextInt(4);
+            for (int j = 0; j < size; ++j) {
+                int c = PackedCardSet.get(unplayed, rng.nextInt(PackedCardSet.size(unplayed)));
+                unplayed = PackedCardSet.remove(unplayed, c);
+                pkTrick = PackedTrick.withAddedCard(pkTrick, c);
+            }
+            pkTrick = (pkTrick & ~(0b1111 << 24)) | (rng.nextInt(9) << 24);
+            checkAgainstReference(rng, pkTrick, unplayed);
+        }
+    }
+
     @Test
     void pointsSumTo157() {
         SplittableRandom rng = newRandom();
@@ -0,0 +1,93 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class ParallelMctsPlayerTest {
+    private static final int ITERATIONS = 2_000;
+    private static final int TREES = 8;
+
+    @Test
+    void constructorFailsWithTooFewIterations() {
+        for (int i = -10; i < 9; ++i) {
+            int iterations = i;
+            assertThrows(IllegalArgumentException.class, () -> {
+                new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, iterations, TREES, 1);
+            });
+        }
+    }
+
+    @Test
+    void constructorFailsWithNoTreesOrThreads() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, ITERATIONS, 0, 1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, ITERATIONS, TREES, 0);
+        });
+    }
+
+    @Test
+    void constructorFailsWithoutBudget() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, MctsOptions.ofBudget(null), TREES, 1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, (MctsOptions) null, TREES, 1);
+        });
+    }
+
+    @Test
+    void chosenCardDoesNotDependOnNumberOfThreads() {
+        TurnState state = TurnState.initial(Color.DIAMOND, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.EIGHT))
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.SEVEN));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.SPADE, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.TEN))
+                .add(Card.of(Color.CLUB, Rank.SEVEN))
+                .add(Card.of(Color.CLUB, Rank.JACK))
+                .add(Card.of(Color.HEART, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.EIGHT))
+                .add(Card.of(Color.HEART, Rank.NINE))
+                .add(Card.of(Color.DIAMOND, Rank.JACK))
+                .add(Card.of(Color.DIAMOND, Rank.QUEEN));
+        for (long seed = 0; seed < 5; ++seed) {
+            Player p1 = new ParallelMctsPlayer(PlayerId.PLAYER_3, seed, ITERATIONS, TREES, 1);
+            Player p4 = new ParallelMctsPlayer(PlayerId.PLAYER_3, seed, ITERATIONS, TREES, 4);
+            Player p8 = new ParallelMctsPlayer(PlayerId.PLAYER_3, seed, ITERATIONS, TREES, 8);
+            for (int i = 0; i < 3; ++i) {
+                Card c = p1.cardToPlay(state, hand);
+                assertEquals(c, p4.cardToPlay(state, hand));
+                assertEquals(c, p8.cardToPlay(state, hand));
+            }
+        }
+    }
+
+    @Test
+    void trumpIsLongestColorOrPassWithBalancedHand() {
+        CardSet longDiamonds = CardSet.EMPTY
+                .add(Card.of(Color.DIAMOND, Rank.SIX))
+                .add(Card.of(Color.DIAMOND, Rank.SEVEN))
+                .add(Card.of(Color.DIAMOND, Rank.EIGHT))
+                .add(Card.of(Color.DIAMOND, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.ACE))
+                .add(Card.of(Color.SPADE, Rank.KING))
+                .add(Card.of(Color.HEART, Rank.ACE))
+                .add(Card.of(Color.CLUB, Rank.ACE))
+                .add(Card.of(Color.CLUB, Rank.SIX));
+        CardSet balanced = CardSet.EMPTY;
+        for (Rank r : Rank.ALL) {
+            balanced = balanced.add(Card.of(Color.ALL.get(r.ordinal() % 3), r));
+        }
+        ParallelMctsPlayer p = new ParallelMctsPlayer(PlayerId.PLAYER_1, 0, ITERATIONS, 1, 1);
+        assertEquals(Color.DIAMOND, p.chooseTrump(PlayerId.PLAYER_1, longDiamonds, true));
+        assertEquals(null, p.chooseTrump(PlayerId.PLAYER_1, balanced, true));
+        assertEquals(Color.SPADE, p.chooseTrump(PlayerId.PLAYER_1, balanced, false));
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomPosition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class PerftTest {
+    private static final int POSITIONS = 20;
+
+    // Counts the sequences with the immutable TurnState and PackedTrick.playableCards
+    private static long referenceCount(TurnState state, long[] hands, int depth) {
+        if (depth == 0 || state.isTerminal()) {
+            return 1;
+        }
+        int p = state.nextPlayer().ordinal();
+        long playable = PackedTrick.playableCards(state.packedTrick(), hands[p]);
+        long count = 0;
+        long hand = hands[p];
+        for (int i = 0; i < PackedCardSet.size(playable); ++i) {
+            int c = PackedCardSet.get(playable, i);
+            hands[p] = PackedCardSet.remove(hand, c);
+            count += referenceCount(state.withNewCardPlayedAndTrickCollected(Card.ofPacked(c)), hands, depth - 1);
+        }
+        hands[p] = hand;
+        return count;
+    }
+
+    private static long referenceCount(Position position, int depth) {
+        long[] hands = new long[PlayerId.COUNT];
+        for (PlayerId p : PlayerId.ALL) {
+            hands[p.ordinal()] = position.packedHand(p);
+        }
+        return referenceCount(position.turnState(), hands, depth);
+    }
+
+    @Test
+    void countOfFirstCardIsHandSize() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < POSITIONS; ++i) {
+            assertEquals(Jass.HAND_SIZE, Perft.count(randomPosition(rng, 0), 1));
+            assertEquals(1, Perft.count(randomPosition(rng, 0), 0));
+        }
+    }
+
+    @Test
+    void countIsSameAsReferenceCount() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, rng.nextInt(Jass.TRICKS_PER_TURN * PlayerId.COUNT));
+            for (int depth = 0; depth <= 5; ++depth) {
+                assertEquals(referenceCount(position, depth), Perft.count(position, depth));
+            }
+        }
+    }
+
+    @Test
+    void wholeEndgamesAreCountedUntilTheEndOfTheTurn() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, 26 + rng.nextInt(10));
+            assertEquals(referenceCount(position, 36), Perft.count(position, 36));
+        }
+    }
+
+    @Test
+    void transpositionsAndThreadsDoNotChangeCount() {
+        SplittableRandom rng = newRandom();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, 20 + rng.nextInt(8));
+            long count = Perft.count(position, 10);
+            assertEquals(count, Perft.count(position, 10, true));
+            assertEquals(count, Perft.countInParallel(position, 10, false, pool));
+            assertEquals(count, Perft.countInParallel(position, 10, true, pool));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void visitedPositionsAreCounted() {
+        SplittableRandom rng = newRandom();
+        assertEquals(1 + Jass.HAND_SIZE, Perft.walk(randomPosition(rng, 0), 2, false).nodes());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int i = 0; i < POSITIONS; ++i) {
+            Position position = randomPosition(rng, 20 + rng.nextInt(8));
+            Perft.Result result = Perft.walk(position, 10, false);
+            assertEquals(result.nodes(), Perft.walkInParallel(position, 10, false, pool).nodes());
+            assertTrue(Perft.walk(position, 10, true).nodes() <= result.nodes());
+            assertTrue(result.nodes() <= result.sequences() * 10);
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void countFailsOnNegativeDepth() {
+        Position position = randomPosition(newRandom(), 0);
+        assertThrows(IllegalArgumentException.class, () -> {
+            Perft.count(position, -1);
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package ch.epfl.javass.jass;
+
+import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
+import static ch.epfl.test.TestRandomizer.newRandom;
+import static ch.epfl.test.TestRandomizer.randomHands;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+
+public class PositionTest {
+    private static long[] handsOf(Position position) {
+        long[] hands = new long[PlayerId.COUNT];
+        for (PlayerId p : PlayerId.ALL) {
+            hands[p.ordinal()] = position.packedHand(p);
+        }
+        return hands;
+    }
+
+    private static void assertRoundTrip(TurnState state, long[] hands) {
+        Position position = Position.of(state.packedScore(), state.packedUnplayedCards(),
+                state.packedTrick(), hands);
+        assertEquals(state.packedScore(), position.packedScore());
+        assertEquals(state.packedUnplayedCards(), position.packedUnplayedCards());
+        assertEquals(state.packedTrick(), position.packedTrick());
+        assertArrayEquals(hands, handsOf(position));
+
+        Position copy = Position.ofWords(position.word(0), position.word(1), position.word(2));
+        assertEquals(position, copy);
+        assertEquals(position.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    void positionsRoundTripDuringWholeTurns() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            Color trump = Color.ALL.get(rng.nextInt(Color.COUNT));
+            PlayerId first = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+            long score = PackedScore.pack(0, 0, rng.nextInt(2001), 0, 0, rng.nextInt(2001));
+            TurnState state = TurnState.initial(trump, Score.ofPacked(score), first);
+            long[] hands = randomHands(rng);
+            assertRoundTrip(state, hands);
+            while (!state.isTerminal()) {
+                int p = state.nextPlayer().ordinal();
+                long playable = PackedTrick.playableCards(state.packedTrick(), hands[p]);
+                int c = PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)));
+                hands[p] = PackedCardSet.remove(hands[p], c);
+                state = state.withNewCardPlayed(Card.ofPacked(c));
+                assertRoundTrip(state, hands);
+                if (PackedTrick.isFull(state.packedTrick())) {
+                    state = state.withTrickCollected();
+                    assertRoundTrip(state, hands);
+                }
+            }
+        }
+    }
+
+    @Test
+    void turnStateAndHandsAreRecovered() {
+        SplittableRandom rng = newRandom();
+        TurnState state = TurnState.initial(Color.HEART, Score.INITIAL, PlayerId.PLAYER_3);
+        long[] hands = randomHands(rng);
+        Position position = Position.of(state.packedScore(), state.packedUnplayedCards(),
+                state.packedTrick(), hands);
+        assertEquals(position, Position.of(position.turnState(), position.hands()));
+        for (PlayerId p : PlayerId.ALL) {
+            assertEquals(hands[p.ordinal()], position.hands().get(p).packed());
+        }
+    }
+
+    @Test
+    void positionsWithDifferentOwnersDiffer() {
+        SplittableRandom rng = newRandom();
+        for (int i = 0; i < RANDOM_ITERATIONS; ++i) {
+            TurnState state = TurnState.initial(Color.SPADE, Score.INITIAL, PlayerId.PLAYER_1);
+            long[] hands = randomHands(rng);
+            Position position = Position.of(state.packedScore(), state.packedUnplayedCards(),
+                    state.packedTrick(), hands);
+
+            int p1 = rng.nextInt(PlayerId.COUNT);
+            int p2 = (p1 + 1 + rng.nextInt(PlayerId.COUNT - 1)) % PlayerId.COUNT;
+            int c1 = PackedCardSet.get(hands[p1], rng.nextInt(Jass.HAND_SIZE));
+            int c2 = PackedCardSet.get(hands[p2], rng.nextInt(Jass.HAND_SIZE));
+            hands[p1] = PackedCardSet.add(PackedCardSet.remove(hands[p1], c1), c2);
+            hands[p2] = PackedCardSet.add(PackedCardSet.remove(hands[p2], c2), c1);
+            assertNotEquals(position, Position.of(state.packedScore(), state.packedUnplayedCards(),
+                    state.packedTrick(), hands));
+        }
+    }
+
+    @Test
+    void ofFailsWhenHandsDoNotPartitionUnplayedCards() {
+        SplittableRandom rng = newRandom();
+        TurnState state = TurnState.initial(Color.CLUB, Score.INITIAL, PlayerId.PLAYER_1);
+        long[] hands = randomHands(rng);
+        long[] missing = hands.clone();
+        missing[0] = PackedCardSet.remove(missing[0], PackedCardSet.get(missing[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> {
+            Position.of(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), missing);
+        });
+        long[] shared = hands.clone();
+        shared[0] = PackedCardSet.add(shared[0], PackedCardSet.get(shared[1], 0));
+        assertThrows(IllegalArgumentException.class, () -> {
+            Position.of(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), shared);
+        });
+    }
+
+    @Test
+    void ofWordsFailsOnInvalidWords() {
+        SplittableRandom rng = newRandom();
+        TurnState state = TurnState.initial(Color.DIAMOND, Score.INITIAL, PlayerId.PLAYER_2);
+        long[] hands = randomHands(rng);
+        Position position = Position.of(state.packedScore(), state.packedUnplayedCards(),
+                state.packedTrick(), hands);
+        assertThrows(IllegalArgumentException.class, () -> {
+            Position.ofWords(position.word(0), position.word(1) | 1L << 63, position.word(2));
+        });
+        // A card of the fourth player which is not unplayed anymore still has an owner
+        long card = Long.lowestOneBit(PackedCardSet.compact(hands[PlayerId.PLAYER_4.ordinal()]));
+        assertThrows(IllegalArgumentException.class, () -> {
+            Position.ofWords(position.word(0), position.word(1), position.word(2) & ~card);
+        });
+    }
+}
@@ -5,6 +5,7 @@ import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.SplittableRandom;
@@ -87,4 +88,9 @@ public class ScoreTest {
             assertTrue(s1.equals(s2));
         }
     }
+
+    @Test
+    void initialScoreIsShared() {
+        assertSame(Score.INITIAL, Score.ofPacked(PackedScore.INITIAL));
+    }
 }
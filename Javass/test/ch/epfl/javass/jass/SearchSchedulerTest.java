@@ -0,0 +1,120 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.javass.jass.Card.Color;
+import ch.epfl.javass.jass.Card.Rank;
+
+public class SearchSchedulerTest {
+    private static final long FAR_DEADLINE = Long.MAX_VALUE / 2;
+
+    @Test
+    void constructorFailsWithNoWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new SearchScheduler(0);
+        });
+    }
+
+    @Test
+    void searchesRunUntilFinished() throws Exception {
+        try (SearchScheduler s = new SearchScheduler(2)) {
+            List<AtomicInteger> slices = new ArrayList<>();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                SearchScheduler.Seat seat = s.newSeat(i % 2 == 0);
+                AtomicInteger count = new AtomicInteger();
+                int needed = i + 1;
+                slices.add(count);
+                futures.add(seat.submit(() -> count.incrementAndGet() == needed, System.nanoTime() + FAR_DEADLINE));
+            }
+            for (int i = 0; i < 10; ++i) {
+                futures.get(i).get();
+                assertEquals(i + 1, slices.get(i).get());
+            }
+            assertEquals(0, s.queueDepth());
+        }
+    }
+
+    @Test
+    void searchesStopAfterTheirDeadline() throws Exception {
+        try (SearchScheduler s = new SearchScheduler(1)) {
+            AtomicInteger count = new AtomicInteger();
+            s.newSeat(false).submit(() -> {
+                count.incrementAndGet();
+                return false;
+            }, System.nanoTime()).get();
+            assertEquals(1, count.get());
+        }
+    }
+
+    @Test
+    void latencyPercentilesAreOrdered() throws Exception {
+        try (SearchScheduler s = new SearchScheduler(1)) {
+            assertEquals(0, s.latencyPercentile(50));
+            SearchScheduler.Seat seat = s.newSeat(false);
+            for (int i = 0; i < 20; ++i) {
+                seat.submit(() -> true, System.nanoTime() + FAR_DEADLINE).get();
+            }
+            assertTrue(s.latencyPercentile(0) > 0);
+            assertTrue(s.latencyPercentile(50) <= s.latencyPercentile(99));
+            assertTrue(s.latencyPercentile(99) <= s.latencyPercentile(100));
+            assertThrows(IllegalArgumentException.class, () -> {
+                s.latencyPercentile(101);
+            });
+        }
+    }
+
+    @Test
+    void closeStopsWorkersAndCancelsSearches() throws Exception {
+        SearchScheduler s = new SearchScheduler(1);
+        SearchScheduler.Seat seat = s.newSeat(false);
+        AtomicInteger count = new AtomicInteger();
+        Future<?> endless = seat.submit(() -> {
+            count.incrementAndGet();
+            return false;
+        }, System.nanoTime() + FAR_DEADLINE);
+        while (count.get() == 0) {
+            Thread.yield();
+        }
+        s.close();
+        assertTrue(endless.isCancelled());
+        int slices = count.get();
+        assertTrue(seat.submit(() -> true, System.nanoTime() + FAR_DEADLINE).isCancelled());
+        assertEquals(slices, count.get());
+        assertEquals(0, s.queueDepth());
+    }
+
+    @Test
+    void scheduledPlayerPlaysLikeThreadedPlayer() {
+        TurnState state = TurnState.initial(Color.DIAMOND, Score.INITIAL, PlayerId.PLAYER_1)
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.EIGHT))
+                .withNewCardPlayed(Card.of(Color.SPADE, Rank.SEVEN));
+        CardSet hand = CardSet.EMPTY
+                .add(Card.of(Color.SPADE, Rank.NINE))
+                .add(Card.of(Color.SPADE, Rank.TEN))
+                .add(Card.of(Color.CLUB, Rank.SEVEN))
+                .add(Card.of(Color.CLUB, Rank.JACK))
+                .add(Card.of(Color.HEART, Rank.SIX))
+                .add(Card.of(Color.HEART, Rank.EIGHT))
+                .add(Card.of(Color.HEART, Rank.NINE))
+                .add(Card.of(Color.DIAMOND, Rank.JACK))
+                .add(Card.of(Color.DIAMOND, Rank.QUEEN));
+        try (SearchScheduler s = new SearchScheduler(3)) {
+            for (long seed = 0; seed < 3; ++seed) {
+                Player threaded = new ParallelMctsPlayer(PlayerId.PLAYER_3, seed, 2_000, 4, 2);
+                Player scheduled = new ParallelMctsPlayer(PlayerId.PLAYER_3, seed, MctsOptions.ofIterations(2_000),
+                        4, s.newSeat(true), 1_000);
+                assertEquals(threaded.cardToPlay(state, hand), scheduled.cardToPlay(state, hand));
+            }
+        }
+    }
+}
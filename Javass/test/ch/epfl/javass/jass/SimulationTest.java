@@ -0,0 +1,152 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+public class SimulationTest {
+    private static Simulation simulation(String... specs) {
+        Map<PlayerId, PlayerSpec> map = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL) {
+            map.put(p, PlayerSpec.parse(specs[p.ordinal()]));
+        }
+        return new Simulation(map);
+    }
+
+    private static Simulation.Result run(Simulation simulation, long seed, int games, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return simulation.run(seed, games, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Simulation.Result runDuplicate(Simulation simulation, long seed, int deals, int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            return simulation.runDuplicate(seed, deals, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parseAcceptsValidSpecs() {
+        for (String spec : new String[] { "m:9", "p:100:4", "b:81", "t:100:0.5", "m:9:e1", "p:100:4:e2",
+                "b:81:e3", "t:100:0.5:e2" }) {
+            assertEquals(spec, PlayerSpec.parse(spec).toString());
+        }
+        assertTrue(PlayerSpec.parse("m:100").isDeterministic());
+        assertFalse(PlayerSpec.parse("t:100:1").isDeterministic());
+    }
+
+    @Test
+    void parseFailsOnInvalidSpecs() {
+        for (String spec : new String[] { "", "m", "m:8", "m:x", "m:100:2", "p:100", "p:100:0", "b:80", "t:100:0",
+                "mm:100", "x:100", "m:100:e0", "m:100:e4", "m:100:ex", "m:e2", "p:100:e2", "m:100:e2:e2" }) {
+            assertThrows(IllegalArgumentException.class, () -> PlayerSpec.parse(spec));
+        }
+    }
+
+    @Test
+    void constructorFailsWhenASeatIsMissing() {
+        Map<PlayerId, PlayerSpec> specs = new EnumMap<>(PlayerId.class);
+        specs.put(PlayerId.PLAYER_1, PlayerSpec.parse("m:10"));
+        assertThrows(IllegalArgumentException.class, () -> new Simulation(specs));
+    }
+
+    @Test
+    void runDoesNotDependOnNumberOfThreads() {
+        Simulation simulation = simulation("m:20", "m:10:e2", "p:10:2:e3", "b:100");
+        Simulation.Result sequential = run(simulation, 2019, 6, 1);
+        Simulation.Result parallel = run(simulation, 2019, 6, 3);
+        assertEquals(6, sequential.games());
+        assertArrayEquals(sequential.pointDifferences(), parallel.pointDifferences());
+        for (TeamId t : TeamId.ALL) {
+            assertEquals(sequential.wins(t), parallel.wins(t));
+        }
+        for (PlayerId p : PlayerId.ALL) {
+            assertEquals(sequential.moves(p), parallel.moves(p));
+        }
+    }
+
+    @Test
+    void resultIsConsistent() {
+        Simulation.Result result = run(simulation("m:10", "m:10", "m:10", "m:10"), 1, 4, 2);
+        assertEquals(result.games(), result.wins(TeamId.TEAM_1) + result.wins(TeamId.TEAM_2));
+        assertEquals(1, result.winRate(TeamId.TEAM_1) + result.winRate(TeamId.TEAM_2), 1e-9);
+        assertEquals(result.games(), result.pointDifferences().length);
+        for (PlayerId p : PlayerId.ALL) {
+            // Each player plays a card in every trick
+            assertEquals(result.moves(PlayerId.PLAYER_1), result.moves(p));
+            assertTrue(result.latencyPercentile(p, 0) <= result.latencyPercentile(p, 50));
+            assertTrue(result.latencyPercentile(p, 50) <= result.latencyPercentile(p, 100));
+        }
+        assertThrows(IllegalArgumentException.class, () -> result.latencyPercentile(PlayerId.PLAYER_1, 101));
+    }
+
+    @Test
+    void mergeConcatenatesGames() {
+        Simulation simulation = simulation("m:10", "m:10", "m:10", "m:10");
+        Simulation.Result first = simulation.play(1), second = simulation.play(2);
+        Simulation.Result merged = first.merge(second);
+        assertEquals(2, merged.games());
+        assertEquals(first.pointDifferences()[0], merged.pointDifferences()[0]);
+        assertEquals(second.pointDifferences()[0], merged.pointDifferences()[1]);
+        assertEquals(first.moves(PlayerId.PLAYER_1) + second.moves(PlayerId.PLAYER_1),
+                merged.moves(PlayerId.PLAYER_1));
+        assertEquals(merged.games(), Simulation.Result.EMPTY.merge(merged).games());
+    }
+
+    @Test
+    void duplicateOfIdenticalTeamsIsEven() {
+        // Both games of a deal are then identical, seen from opposite teams
+        Simulation.Result result = run(simulation("m:10", "m:10", "m:10", "m:10"), 3, 1, 1);
+        Simulation.Result duplicate = simulation("m:10", "m:10", "m:10", "m:10").playDuplicate(
+                new SplittableRandom(3).nextLong());
+        assertEquals(2, duplicate.games());
+        assertEquals(1, duplicate.deals());
+        assertEquals(2, duplicate.gamesPerDeal());
+        assertEquals(result.pointDifferences()[0], duplicate.pointDifferences()[0]);
+        assertEquals(-result.pointDifferences()[0], duplicate.pointDifferences()[1]);
+        assertArrayEquals(new int[] { 0 }, duplicate.dealDifferences());
+        assertEquals(1, duplicate.wins(TeamId.TEAM_1));
+        assertEquals(1, duplicate.wins(TeamId.TEAM_2));
+    }
+
+    @Test
+    void runDuplicateSeesGamesFromFirstTeam() {
+        Simulation simulation = simulation("m:30", "m:9", "m:30", "m:9");
+        Simulation.Result result = runDuplicate(simulation, 7, 3, 2);
+        assertEquals(6, result.games());
+        assertEquals(3, result.deals());
+        int[] games = result.pointDifferences();
+        int[] deals = result.dealDifferences();
+        for (int i = 0; i < deals.length; ++i) {
+            assertEquals(games[2 * i] + games[2 * i + 1], deals[i]);
+        }
+        for (PlayerId p : PlayerId.ALL) {
+            assertEquals(result.moves(PlayerId.PLAYER_1), result.moves(p));
+        }
+        assertArrayEquals(result.pointDifferences(), runDuplicate(simulation, 7, 3, 1).pointDifferences());
+    }
+
+    @Test
+    void mergeFailsOnDifferentDeals() {
+        Simulation simulation = simulation("m:10", "m:10", "m:10", "m:10");
+        Simulation.Result single = simulation.play(1), duplicate = simulation.playDuplicate(1);
+        assertThrows(IllegalArgumentException.class, () -> single.merge(duplicate));
+        assertEquals(2, Simulation.Result.EMPTY.merge(duplicate).gamesPerDeal());
+    }
+}
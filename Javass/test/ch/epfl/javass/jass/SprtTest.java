@@ -0,0 +1,96 @@
+package ch.epfl.javass.jass;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+public class SprtTest {
+    private static Simulation simulation(String team1, String team2) {
+        Map<PlayerId, PlayerSpec> specs = new EnumMap<>(PlayerId.class);
+        for (PlayerId p : PlayerId.ALL) {
+            specs.put(p, PlayerSpec.parse(p.team() == TeamId.TEAM_1 ? team1 : team2));
+        }
+        return new Simulation(specs);
+    }
+
+    private static Simulation.Result run(Sprt sprt, Simulation simulation, int maxDeals, int batchDeals,
+            boolean duplicate) {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            return sprt.run(simulation, 2019, maxDeals, batchDeals, duplicate, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Simulation.Result runFixed(Simulation simulation, long seed, int deals, boolean duplicate) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return duplicate ? simulation.runDuplicate(seed, deals, executor) : simulation.run(seed, deals, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void boundsFollowErrorBounds() {
+        Sprt sprt = Sprt.parse("e:0:20:0.05:0.05");
+        assertEquals(-Math.log(19), sprt.lowerBound(), 1e-12);
+        assertEquals(Math.log(19), sprt.upperBound(), 1e-12);
+        sprt = Sprt.ofPointDifference(0, 10, 0.1, 0.2);
+        assertEquals(Math.log(0.2 / 0.9), sprt.lowerBound(), 1e-12);
+        assertEquals(Math.log(0.8 / 0.1), sprt.upperBound(), 1e-12);
+    }
+
+    @Test
+    void parseFailsOnInvalidTests() {
+        for (String spec : new String[] { "", "e:0:20:0.05", "x:0:20:0.05:0.05", "e:20:0:0.05:0.05",
+                "e:0:0:0.05:0.05", "d:0:20:0:0.05", "d:0:20:0.5:0.5", "e:0:a:0.05:0.05" }) {
+            assertThrows(IllegalArgumentException.class, () -> Sprt.parse(spec));
+        }
+    }
+
+    @Test
+    void llrOfEloIsLikelihoodRatioOfWins() {
+        Simulation.Result result = runFixed(simulation("m:9", "m:9"), 1, 5, false);
+        double p0 = 0.5, p1 = 1 / (1 + Math.pow(10, -100 / 400.0));
+        double expected = result.wins(TeamId.TEAM_1) * Math.log(p1 / p0)
+                + result.wins(TeamId.TEAM_2) * Math.log((1 - p1) / (1 - p0));
+        assertEquals(expected, Sprt.ofElo(0, 100, 0.05, 0.05).llr(result), 1e-9);
+        assertEquals(Sprt.Decision.CONTINUE, Sprt.ofElo(0, 100, 0.05, 0.05).decision(Simulation.Result.EMPTY));
+    }
+
+    @Test
+    void runStopsOnceStrongerTeamIsDetected() {
+        Sprt sprt = Sprt.ofElo(0, 200, 0.05, 0.05);
+        Simulation.Result result = run(sprt, simulation("m:300", "m:9"), 200, 4, false);
+        assertEquals(Sprt.Decision.ACCEPT_H1, sprt.decision(result));
+        assertTrue(result.games() < 200);
+        assertEquals(0, result.games() % 4);
+    }
+
+    @Test
+    void runPlaysPrefixOfFixedSimulation() {
+        Sprt sprt = Sprt.ofPointDifference(-1000, 1000, 0.05, 0.05);
+        Simulation simulation = simulation("m:9", "m:9");
+        Simulation.Result result = run(sprt, simulation, 5, 2, true);
+        // The hypotheses are too far apart for the first deals to decide
+        assertEquals(Sprt.Decision.CONTINUE, sprt.decision(result));
+        assertEquals(5, result.deals());
+        assertArrayEquals(runFixed(simulation, 2019, 5, true).pointDifferences(),
+                result.pointDifferences());
+
+        Simulation.Result fixed = runFixed(simulation, 2019, 6, false);
+        Simulation.Result prefix = run(Sprt.ofElo(-1, 1, 0.45, 0.45), simulation, 6, 1, false);
+        assertArrayEquals(Arrays.copyOf(fixed.pointDifferences(), prefix.games()), prefix.pointDifferences());
+    }
+}
@@ -12,6 +12,7 @@ import static ch.epfl.test.TestRandomizer.RANDOM_ITERATIONS;
 import static ch.epfl.test.TestRandomizer.newRandom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -236,4 +237,18 @@ public class TrickTest {
             t2 = t2.nextEmpty();
         }
     }
+
+    @Test
+    void emptyTricksAreShared() {
+        for (Color trump: Color.ALL) {
+            for (PlayerId p: PlayerId.ALL) {
+                Trick t = Trick.firstEmpty(trump, p);
+                assertSame(t, Trick.firstEmpty(trump, p));
+                assertSame(t, Trick.ofPacked(t.packed()));
+                Trick next = t.withAddedCard(Card.of(trump, Rank.SIX)).withAddedCard(Card.of(trump, Rank.SEVEN))
+                        .withAddedCard(Card.of(trump, Rank.EIGHT)).withAddedCard(Card.of(trump, Rank.NINE)).nextEmpty();
+                assertSame(next, Trick.ofPacked(next.packed()));
+            }
+        }
+    }
 }
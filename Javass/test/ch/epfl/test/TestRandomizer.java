@@ -4,6 +4,14 @@ package ch.epfl.test;
 
 import java.util.SplittableRandom;
 
+import ch.epfl.javass.jass.Card;
+import ch.epfl.javass.jass.PackedCardSet;
+import ch.epfl.javass.jass.PackedTrick;
+import ch.epfl.javass.jass.PlayerId;
+import ch.epfl.javass.jass.Position;
+import ch.epfl.javass.jass.Score;
+import ch.epfl.javass.jass.TurnState;
+
 public final class TestRandomizer {
     // Fix random seed to guarantee reproducibility.
     public final static long SEED = 2019;
@@ -13,4 +21,48 @@ public final class TestRandomizer {
     public static SplittableRandom newRandom() {
         return new SplittableRandom(SEED);
     }
+
+    // Deals all the cards at random, one card to each player in turn
+    public static long[] randomHands(SplittableRandom rng) {
+        long[] hands = new long[PlayerId.COUNT];
+        long deck = PackedCardSet.ALL_CARDS;
+        for (int k = 0; deck != PackedCardSet.EMPTY; ++k) {
+            int c = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+            deck = PackedCardSet.remove(deck, c);
+            hands[k % PlayerId.COUNT] = PackedCardSet.add(hands[k % PlayerId.COUNT], c);
+        }
+        return hands;
+    }
+
+    // Gives the first player a hand of nine cards and deals the other cards at
+    // random to the three other players, one card to each in turn
+    public static long[] randomHands(SplittableRandom rng, long firstHand) {
+        long[] hands = new long[PlayerId.COUNT];
+        hands[0] = firstHand;
+        long deck = PackedCardSet.difference(PackedCardSet.ALL_CARDS, firstHand);
+        for (int k = 0; deck != PackedCardSet.EMPTY; ++k) {
+            int c = PackedCardSet.get(deck, rng.nextInt(PackedCardSet.size(deck)));
+            deck = PackedCardSet.remove(deck, c);
+            int p = 1 + k % (PlayerId.COUNT - 1);
+            hands[p] = PackedCardSet.add(hands[p], c);
+        }
+        return hands;
+    }
+
+    // Deals all the cards at random, then plays random cards from the start of a
+    // turn of random trump and first player
+    public static Position randomPosition(SplittableRandom rng, int cardsPlayed) {
+        long[] hands = randomHands(rng);
+        Card.Color trump = Card.Color.ALL.get(rng.nextInt(Card.Color.COUNT));
+        PlayerId first = PlayerId.ALL.get(rng.nextInt(PlayerId.COUNT));
+        TurnState state = TurnState.initial(trump, Score.INITIAL, first);
+        for (int i = 0; i < cardsPlayed; ++i) {
+            int p = state.nextPlayer().ordinal();
+            long playable = PackedTrick.playableCards(state.packedTrick(), hands[p]);
+            int c = PackedCardSet.get(playable, rng.nextInt(PackedCardSet.size(playable)));
+            hands[p] = PackedCardSet.remove(hands[p], c);
+            state = state.withNewCardPlayedAndTrickCollected(Card.ofPacked(c));
+        }
+        return Position.of(state.packedScore(), state.packedUnplayedCards(), state.packedTrick(), hands);
+    }
 }